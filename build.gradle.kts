@@ -2,6 +2,7 @@ plugins {
     java
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
+    alias(libs.plugins.jmh)
     id("jacoco")
 }
 
@@ -23,6 +24,8 @@ dependencyManagement {
 
 dependencies {
     implementation(libs.spring.boot.starter.web)
+    implementation(libs.spring.boot.starter.actuator)
+    runtimeOnly(libs.micrometer.registry.prometheus)
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
     annotationProcessor(libs.spring.boot.configuration.processor)
@@ -45,8 +48,45 @@ tasks.getByName("bootJar") {
 tasks.getByName("jar") {
     enabled = false
 }
+// benchmark tasks (./gradlew jmh, 결과: build/results/jmh/results.json)
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    warmupIterations.set(2)
+    iterations.set(3)
+    fork.set(1)
+    resultFormat.set("JSON")
+}
+// 자료구조별 메모리 비교 (./gradlew balanceFootprint --args="1000000")
+mapOf(
+    "balanceFootprint" to "io.hhplus.tdd.benchmark.BalanceStoreFootprint",
+    "historyFootprint" to "io.hhplus.tdd.benchmark.PointHistoryFootprint",
+).forEach { (name, main) ->
+    tasks.register<JavaExec>(name) {
+        group = "benchmark"
+        classpath = sourceSets["jmh"].runtimeClasspath
+        mainClass.set(main)
+        jvmArgs("-Xmx4g", "-XX:MaxDirectMemorySize=4g")
+    }
+}
+
 // test tasks
 tasks.test {
     ignoreFailures = true
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("load")
+    }
+}
+// 부하 테스트 (./gradlew loadTest -Dload.threads=64 -Dload.skew=uniform, 결과: build/reports/load/*.json)
+tasks.register<Test>("loadTest") {
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("load")
+    }
+    System.getProperties().stringPropertyNames()
+        .filter { it.startsWith("load.") }
+        .forEach { systemProperty(it, System.getProperty(it)) }
+    systemProperty("load.output", layout.buildDirectory.dir("reports/load").get().asFile.absolutePath)
+    outputs.upToDateWhen { false }
 }
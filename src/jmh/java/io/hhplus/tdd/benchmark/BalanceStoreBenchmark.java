@@ -0,0 +1,73 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.store.LongBalanceStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 유저별 최신 잔액 저장 (스냅샷 리스너가 잔액 저장마다 하는 일) 처리량
+ * - MAP : ConcurrentHashMap<Long, UserPoint> (이전 구조, 저장마다 Long/UserPoint 할당)
+ * - HEAP / OFF_HEAP : LongBalanceStore
+ * 메모리 사용량은 BalanceStoreFootprint (./gradlew balanceFootprint) 로 비교한다.
+ * -prof gc 로 실행하면 연산당 할당량(gc.alloc.rate.norm)도 함께 볼 수 있다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class BalanceStoreBenchmark {
+    private static final int USERS = 1_000_000;
+
+    @Param({"MAP", "HEAP", "OFF_HEAP"})
+    public Structure structure;
+
+    private Map<Long, UserPoint> map;
+    private LongBalanceStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = new ConcurrentHashMap<>();
+        store = new LongBalanceStore(USERS, structure == Structure.OFF_HEAP);
+        for (long userId = 1; userId <= USERS; userId++) {
+            put(userId, userId, userId);
+        }
+    }
+
+    @Benchmark
+    public void put() {
+        long userId = ThreadLocalRandom.current().nextLong(1, USERS + 1);
+        put(userId, userId * 2, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public UserPoint get() {
+        long userId = ThreadLocalRandom.current().nextLong(1, USERS + 1);
+        return structure == Structure.MAP ? map.get(userId) : store.get(userId);
+    }
+
+    private void put(long userId, long point, long updateMillis) {
+        if (structure == Structure.MAP) {
+            map.put(userId, new UserPoint(userId, point, updateMillis));
+        } else {
+            store.put(userId, point, updateMillis);
+        }
+    }
+
+    public enum Structure {
+        MAP, HEAP, OFF_HEAP
+    }
+}
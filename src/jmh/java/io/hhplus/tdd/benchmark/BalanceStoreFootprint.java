@@ -0,0 +1,56 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.cache.UserPointCache;
+import io.hhplus.tdd.point.store.LongBalanceStore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 유저 수별 잔액 구조의 유저당 메모리 (./gradlew balanceFootprint --args="1000000 10000000")
+ * - LongBalanceStore 는 빈 슬롯을 포함하므로 사용률(최대 75%)에 따라 유저당 32~64 byte 가 된다.
+ * - LinkedHashMap(접근 순서)은 UserPointCache 가 LongBalanceStore 로 바뀌기 전의 구조다.
+ */
+public final class BalanceStoreFootprint {
+
+    private BalanceStoreFootprint() {
+    }
+
+    public static void main(String[] args) {
+        Footprint.printHeader("user");
+        for (long users : Footprint.counts(args, 100_000, 1_000_000, 10_000_000)) {
+            Footprint.report(users, "ConcurrentHashMap<UserPoint>", count -> {
+                Map<Long, UserPoint> map = new ConcurrentHashMap<>();
+                for (long userId = 1; userId <= count; userId++) {
+                    map.put(userId, new UserPoint(userId, userId, userId));
+                }
+                return map;
+            });
+            Footprint.report(users, "LinkedHashMap<UserPoint>(access order)", count -> {
+                Map<Long, UserPoint> map = new LinkedHashMap<>(16, 0.75f, true);
+                for (long userId = 1; userId <= count; userId++) {
+                    map.put(userId, new UserPoint(userId, userId, userId));
+                }
+                return map;
+            });
+            Footprint.report(users, "UserPointCache", count -> {
+                UserPointCache cache = new UserPointCache(Integer.MAX_VALUE, false);
+                for (long userId = 1; userId <= count; userId++) {
+                    cache.put(new UserPoint(userId, userId, userId));
+                }
+                return cache;
+            });
+            Footprint.report(users, "LongBalanceStore(heap)", count -> fill(new LongBalanceStore(0, false), count));
+            Footprint.report(users, "LongBalanceStore(off-heap)", count -> fill(new LongBalanceStore(0, true), count));
+        }
+    }
+
+    private static LongBalanceStore fill(LongBalanceStore store, long count) {
+        for (long userId = 1; userId <= count; userId++) {
+            store.put(userId, userId, userId);
+        }
+        return store;
+    }
+}
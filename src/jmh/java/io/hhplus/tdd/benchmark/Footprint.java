@@ -0,0 +1,67 @@
+package io.hhplus.tdd.benchmark;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * 자료구조 하나를 만들기 전후의 메모리 차이를 잰다.
+ * - 힙은 GC 직후 사용량의 차이, 힙 밖은 direct buffer 사용량의 차이로 잰다.
+ */
+final class Footprint {
+
+    private Footprint() {
+    }
+
+    static long[] counts(String[] args, long... defaults) {
+        return args.length == 0 ? defaults : Arrays.stream(args).mapToLong(Long::parseLong).toArray();
+    }
+
+    static void printHeader(String unit) {
+        System.out.printf("%-12s %-32s %14s %14s %12s%n",
+                unit + "s", "structure", "heap(bytes)", "direct(bytes)", "bytes/" + unit);
+    }
+
+    static void report(long count, String name, LongFunction<Object> build) {
+        settle();
+        long heapBefore = usedHeap();
+        long directBefore = usedDirect();
+        Object structure = build.apply(count);
+        settle();
+        long heap = usedHeap() - heapBefore;
+        long direct = usedDirect() - directBefore;
+        System.out.printf("%-12d %-32s %14d %14d %12.1f%n",
+                count, name, heap, direct, (double) (heap + direct) / count);
+        // 측정이 끝날 때까지 살아 있도록 참조를 유지한다.
+        Reference.reachabilityFence(structure);
+    }
+
+    /**
+     * 늘리면서 버린 direct buffer 는 GC 뒤 Cleaner 가 풀어 주므로 잠시 기다린다.
+     */
+    private static void settle() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long usedDirect() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+}
@@ -0,0 +1,58 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.UserPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 유저에 몰린 소액 충전의 처리량과 지연 분포 (SampleTime 의 p99, p99.9)
+ * - LOCK : 유저 락 + 테이블 read-modify-write / LEDGER : 메모리 원장 CAS + 비동기 기록
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(64)
+public class HighContentionBenchmark {
+    private static final long HOT_USER_ID = 1L;
+    private static final long AMOUNT = 1L;
+
+    @Param({"ZERO", "REAL"})
+    public TableLatency latency;
+
+    @Param({"LOCK", "COMBINING", "LEDGER"})
+    public PointProperties.ExecutionMode mode;
+
+    private PointServiceFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PointProperties properties = new PointProperties();
+        properties.getExecution().setMode(mode);
+        properties.getAdmission().setMaxQueueDepth(0);
+        properties.getAdmission().setTimeout(Duration.ofMinutes(1));
+        fixture = new PointServiceFixture(latency, properties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.close();
+    }
+
+    @Benchmark
+    public UserPoint smallCharge() {
+        return fixture.pointService.chargePoint(HOT_USER_ID, AMOUNT);
+    }
+}
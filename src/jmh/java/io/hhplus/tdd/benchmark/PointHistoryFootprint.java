@@ -0,0 +1,69 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.history.PointHistoryIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이력 수별 유저 이력 구조의 건당 메모리 (./gradlew historyFootprint --args="1000000")
+ * - PointHistoryTable : 테이블 자체 (인덱스를 쓰든 안 쓰든 든다)
+ * - PointHistory 목록 : 유저별 List<PointHistory> (이전 인덱스 구조)
+ * - PointHistoryIndex : 유저별 컬럼 배열
+ * 인덱스 두 줄은 테이블 위에 더 드는 사본이다. 전체 힙은 테이블 + 인덱스이고, 줄어드는 것은 이전 인덱스와의 차이뿐이다.
+ * 이력은 USERS 명에게 고르게 나눠 기록한다.
+ */
+public final class PointHistoryFootprint {
+    private static final int USERS = 1_000;
+
+    private PointHistoryFootprint() {
+    }
+
+    public static void main(String[] args) {
+        Footprint.printHeader("record");
+        for (long records : Footprint.counts(args, 100_000, 1_000_000, 10_000_000)) {
+            Footprint.report(records, "PointHistoryTable", count -> {
+                PointHistoryTable table = TableLatency.ZERO.pointHistoryTable();
+                for (long id = 1; id <= count; id++) {
+                    PointHistory history = history(id);
+                    table.insert(history.userId(), history.amount(), history.type(), history.updateMillis());
+                }
+                return table;
+            });
+            Footprint.report(records, "Map<Long, List<PointHistory>>", count -> {
+                Map<Long, List<PointHistory>> histories = new ConcurrentHashMap<>();
+                for (long id = 1; id <= count; id++) {
+                    PointHistory history = history(id);
+                    histories.computeIfAbsent(history.userId(), userId -> new ArrayList<>()).add(history);
+                }
+                return histories;
+            });
+            Footprint.report(records, "PointHistoryIndex", count -> {
+                PointHistoryIndex index = new PointHistoryIndex(
+                        TableLatency.ZERO.pointHistoryTable(),
+                        List.of(),
+                        new PointMetrics(new SimpleMeterRegistry())
+                );
+                for (long userId = 1; userId <= USERS; userId++) {
+                    index.findAll(userId);
+                }
+                for (long id = 1; id <= count; id++) {
+                    index.onInserted(history(id));
+                }
+                return index;
+            });
+        }
+    }
+
+    private static PointHistory history(long id) {
+        TransactionType type = id % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+        return new PointHistory(id, id % USERS + 1, 100L, type, id);
+    }
+}
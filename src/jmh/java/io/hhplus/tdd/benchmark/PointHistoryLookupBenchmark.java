@@ -0,0 +1,71 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.history.PointHistoryIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전체 이력 수에 따른 유저 이력 조회 비용
+ * - 원본 테이블 전체 스캔과 유저별 인덱스(전체/페이지)를 비교한다.
+ * - 실제 테이블은 insert 마다 지연이 있어 적재가 불가능하므로 ZERO 테이블로 적재한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PointHistoryLookupBenchmark {
+    private static final int USERS = 100;
+
+    @Param({"1000", "100000", "1000000"})
+    public int historySize;
+
+    private PointHistoryTable table;
+    private PointHistoryIndex index;
+
+    @Setup
+    public void setUp() {
+        table = TableLatency.ZERO.pointHistoryTable();
+        index = new PointHistoryIndex(table, List.of(), new PointMetrics(new SimpleMeterRegistry()));
+        for (int i = 0; i < historySize; i++) {
+            PointHistory history = table.insert(i % USERS + 1, 100L, TransactionType.CHARGE, i);
+            index.onInserted(history);
+        }
+        for (long userId = 1; userId <= USERS; userId++) {
+            index.findAll(userId);
+        }
+    }
+
+    @Benchmark
+    public List<PointHistory> tableScan() {
+        return table.selectAllByUserId(randomUser());
+    }
+
+    @Benchmark
+    public List<PointHistory> indexFindAll() {
+        return index.findAll(randomUser());
+    }
+
+    @Benchmark
+    public PointHistoryPage indexFirstPage() {
+        return index.findPage(randomUser(), null, 20);
+    }
+
+    private long randomUser() {
+        return ThreadLocalRandom.current().nextLong(1, USERS + 1);
+    }
+}
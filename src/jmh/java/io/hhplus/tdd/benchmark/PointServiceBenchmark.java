@@ -0,0 +1,82 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.UserPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 충전 + 사용 처리량
+ * - HOT : 모든 스레드가 한 유저에 몰림 / SPREAD : 10,000 명에게 고르게 분산
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PointServiceBenchmark {
+    private static final long HOT_USER_ID = 1L;
+    private static final int SPREAD_USERS = 10_000;
+    private static final long AMOUNT = 10L;
+
+    @Param({"ZERO", "REAL"})
+    public TableLatency latency;
+
+    @Param({"HOT", "SPREAD"})
+    public String keys;
+
+    @Param({"LOCK", "COMBINING", "PARTITIONED", "LEDGER"})
+    public PointProperties.ExecutionMode mode;
+
+    private PointServiceFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PointProperties properties = new PointProperties();
+        properties.getExecution().setMode(mode);
+        // 처리량만 보기 위해 유저별 대기 요청 수 제한은 끈다.
+        properties.getAdmission().setMaxQueueDepth(0);
+        fixture = new PointServiceFixture(latency, properties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UserPoint chargeAndUse1Thread() {
+        return chargeAndUse();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UserPoint chargeAndUse8Threads() {
+        return chargeAndUse();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UserPoint chargeAndUse64Threads() {
+        return chargeAndUse();
+    }
+
+    private UserPoint chargeAndUse() {
+        long userId = "HOT".equals(keys)
+                ? HOT_USER_ID
+                : ThreadLocalRandom.current().nextLong(1, SPREAD_USERS + 1);
+        fixture.pointService.chargePoint(userId, AMOUNT);
+        return fixture.pointService.usePoint(userId, AMOUNT);
+    }
+}
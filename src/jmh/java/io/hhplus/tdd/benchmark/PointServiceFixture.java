@@ -0,0 +1,83 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointConfig;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointValidator;
+import io.hhplus.tdd.point.PointVersions;
+import io.hhplus.tdd.point.UserPointLockManager;
+import io.hhplus.tdd.point.execution.PartitionedPointExecutor;
+import io.hhplus.tdd.point.history.PointHistoryIndex;
+import io.hhplus.tdd.point.history.PointHistoryRollup;
+import io.hhplus.tdd.point.history.PointHistoryWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 스프링 없이 PointConfig 와 같은 방식으로 PointService 를 조립한다.
+ */
+public class PointServiceFixture implements AutoCloseable {
+    public final UserPointTable userPointTable;
+    public final PointHistoryTable pointHistoryTable;
+    public final UserPointLockManager lockManager;
+    public final PointHistoryIndex historyIndex;
+    public final PointHistoryWriter historyWriter;
+    public final PointService pointService;
+
+    private final PartitionedPointExecutor partitionExecutor;
+    private final ExecutorService taskExecutor;
+    private final ExecutorService transferExecutor;
+
+    public PointServiceFixture(TableLatency latency, PointProperties properties) {
+        PointConfig config = new PointConfig();
+        this.userPointTable = latency.userPointTable();
+        this.pointHistoryTable = latency.pointHistoryTable();
+        PointMetrics metrics = new PointMetrics(new SimpleMeterRegistry());
+        this.lockManager = new UserPointLockManager(metrics, properties);
+        this.historyIndex = new PointHistoryIndex(pointHistoryTable, List.of(), metrics);
+        PointHistoryRollup historyRollup = new PointHistoryRollup(pointHistoryTable, List.of(), metrics, properties);
+        this.historyWriter = config.pointHistoryWriter(
+                pointHistoryTable, List.of(historyIndex, historyRollup), metrics, properties
+        );
+        this.partitionExecutor = config.partitionedPointExecutor(properties);
+        this.taskExecutor = config.pointTaskExecutor(properties);
+        this.transferExecutor = config.pointTransferExecutor(properties);
+        this.pointService = new PointService(
+                userPointTable,
+                new PointValidator(),
+                lockManager,
+                historyWriter,
+                historyIndex,
+                historyRollup,
+                config.userPointCache(properties),
+                List.of(),
+                new PointVersions(1_000),
+                List.of(),
+                Optional.empty(),
+                config.userPointCombiner(lockManager),
+                partitionExecutor,
+                config.balanceLedger(partitionExecutor, properties),
+                config.idempotencyStore(properties),
+                taskExecutor,
+                transferExecutor,
+                metrics,
+                properties
+        );
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (historyWriter instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+        partitionExecutor.close();
+        taskExecutor.shutdown();
+        transferExecutor.shutdown();
+    }
+}
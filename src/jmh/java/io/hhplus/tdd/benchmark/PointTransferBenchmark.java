@@ -0,0 +1,85 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointTransferResult;
+import io.hhplus.tdd.point.UserPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 유저 간 포인트 이동: transfer 한 번 vs usePoint + chargePoint 두 번
+ * - users 명 사이에서 임의의 두 유저를 골라 양방향으로 옮기므로 같은 유저 쌍이 서로 반대 방향으로 겹친다.
+ * - SampleTime 으로 한 번 옮기는 데 걸리는 시간의 분포(p99)도 함께 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class PointTransferBenchmark {
+    private static final long AMOUNT = 1L;
+    private static final long INITIAL_POINT = 1_000_000_000L;
+
+    @Param({"ZERO", "REAL"})
+    public TableLatency latency;
+
+    @Param({"LOCK", "COMBINING"})
+    public PointProperties.ExecutionMode mode;
+
+    /**
+     * 적을수록 같은 유저에 몰린다.
+     */
+    @Param({"4", "64"})
+    public int users;
+
+    private PointServiceFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PointProperties properties = new PointProperties();
+        properties.getExecution().setMode(mode);
+        properties.getAdmission().setMaxQueueDepth(0);
+        properties.getAdmission().setTimeout(Duration.ofMinutes(1));
+        fixture = new PointServiceFixture(latency, properties);
+        for (long userId = 1; userId <= users; userId++) {
+            fixture.pointService.chargePoint(userId, INITIAL_POINT);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.close();
+    }
+
+    @Benchmark
+    public PointTransferResult transfer() {
+        long[] pair = pickPair();
+        return fixture.pointService.transfer(pair[0], pair[1], AMOUNT);
+    }
+
+    @Benchmark
+    public UserPoint useThenCharge() {
+        long[] pair = pickPair();
+        fixture.pointService.usePoint(pair[0], AMOUNT);
+        return fixture.pointService.chargePoint(pair[1], AMOUNT);
+    }
+
+    private long[] pickPair() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long from = random.nextLong(1, users + 1);
+        long to = random.nextLong(1, users);
+        return new long[]{from, to >= from ? to + 1 : to};
+    }
+}
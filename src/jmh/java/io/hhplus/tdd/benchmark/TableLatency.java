@@ -0,0 +1,21 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+
+/**
+ * 벤치마크에서 사용할 테이블 지연
+ * - REAL : 실제 테이블 (throttle 포함)
+ * - ZERO : 지연 없는 테이블 (서비스 자체 오버헤드만 측정)
+ */
+public enum TableLatency {
+    REAL, ZERO;
+
+    public UserPointTable userPointTable() {
+        return this == REAL ? new UserPointTable() : new NoLatencyUserPointTable();
+    }
+
+    public PointHistoryTable pointHistoryTable() {
+        return this == REAL ? new PointHistoryTable() : new NoLatencyPointHistoryTable();
+    }
+}
@@ -0,0 +1,58 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.UserPointLockManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사용자 수에 따른 tryLock/unlock 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserPointLockManagerBenchmark {
+
+    @Param({"1", "1000", "100000", "10000000"})
+    public long users;
+
+    private UserPointLockManager lockManager;
+
+    @Setup
+    public void setUp() {
+        lockManager = new UserPointLockManager(new PointMetrics(new SimpleMeterRegistry()), new PointProperties());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean acquireAndRelease1Thread() throws InterruptedException {
+        return acquireAndRelease();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean acquireAndRelease8Threads() throws InterruptedException {
+        return acquireAndRelease();
+    }
+
+    private boolean acquireAndRelease() throws InterruptedException {
+        long userId = ThreadLocalRandom.current().nextLong(1, users + 1);
+        boolean acquired = lockManager.tryLock(userId, 5, TimeUnit.SECONDS);
+        if (acquired) {
+            lockManager.unlock(userId);
+        }
+        return acquired;
+    }
+}
@@ -1,5 +1,7 @@
 package io.hhplus.tdd;
 
+import io.hhplus.tdd.point.PointProperties;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -7,8 +9,22 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 @RestControllerAdvice
 class ApiControllerAdvice extends ResponseEntityExceptionHandler {
+    private final String retryAfterSeconds;
+
+    ApiControllerAdvice(PointProperties properties) {
+        this.retryAfterSeconds = String.valueOf(Math.max(1, properties.getAdmission().getRetryAfter().toSeconds()));
+    }
+
+    /**
+     * 상태 코드는 ApiErrors 가 정한다. 몰린 요청(429)과 제한 시간 초과(503)는 기다리지 않고 바로 돌려보내며 Retry-After 를 붙인다.
+     */
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
-        return ResponseEntity.status(500).body(new ErrorResponse("500", "에러가 발생했습니다."));
+        int status = ApiErrors.status(e);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (ApiErrors.isRetryable(status)) {
+            response.header(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        }
+        return response.body(ApiErrors.response(e));
     }
 }
@@ -0,0 +1,55 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.exception.IdempotencyKeyConflictException;
+import io.hhplus.tdd.point.exception.InsufficientPointException;
+import io.hhplus.tdd.point.exception.InvalidPointRequestException;
+import io.hhplus.tdd.point.exception.PointOverloadedException;
+import io.hhplus.tdd.point.exception.PointTimeoutException;
+import io.hhplus.tdd.point.exception.PointTransferUnsupportedException;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 예외를 응답 상태 코드와 본문으로 바꾼다.
+ * - 단건 API(ApiControllerAdvice)와 일괄 처리의 건별 결과(PointBatchService)가 같은 기준을 쓴다.
+ * - 400 은 검증(PointValidator)에서 거절한 요청만이다. 그 밖의 IllegalArgumentException 은 내부 오류(500)다.
+ * - 500 은 내부 메시지를 내보내지 않는다.
+ */
+public final class ApiErrors {
+    private static final String INTERNAL_ERROR_MESSAGE = "에러가 발생했습니다.";
+
+    private ApiErrors() {
+    }
+
+    public static int status(Throwable e) {
+        // 스레드 풀이 가득 차 받지 못한 작업 (이력 스트리밍)
+        if (e instanceof PointOverloadedException || e instanceof RejectedExecutionException) {
+            return 429;
+        }
+        if (e instanceof PointTimeoutException) {
+            return 503;
+        }
+        if (e instanceof InsufficientPointException || e instanceof InvalidPointRequestException) {
+            return 400;
+        }
+        if (e instanceof IdempotencyKeyConflictException) {
+            return 422;
+        }
+        if (e instanceof PointTransferUnsupportedException) {
+            return 501;
+        }
+        return 500;
+    }
+
+    public static ErrorResponse response(Throwable e) {
+        int status = status(e);
+        return new ErrorResponse(String.valueOf(status), status == 500 ? INTERNAL_ERROR_MESSAGE : e.getMessage());
+    }
+
+    /**
+     * 잠시 후 다시 시도하면 처리될 수 있는 상태 (Retry-After 를 붙인다)
+     */
+    public static boolean isRetryable(int status) {
+        return status == 429 || status == 503;
+    }
+}
@@ -0,0 +1,14 @@
+package io.hhplus.tdd.point;
+
+/**
+ * @param waiters        락을 요청할 때 앞서 있던 스레드 수의 평균
+ * @param waitMillis     락 대기 시간의 평균
+ * @param hotSinceMillis hot 으로 바뀐 시각
+ */
+public record HotUser(
+        long userId,
+        double waiters,
+        double waitMillis,
+        long hotSinceMillis
+) {
+}
@@ -0,0 +1,325 @@
+package io.hhplus.tdd.point;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 유저별 락 경합을 추적해 경합이 심한(hot) 유저를 골라낸다.
+ * - 락 요청이 끝날 때마다(획득/타임아웃) 앞서 있던 스레드 수와 대기 시간을 지수 이동 평균(ALPHA)에 더한다.
+ * - 요청이 없는 동안에는 평균이 halfLife 마다 절반으로 줄어든다.
+ * - 둘 중 하나가 임계값 이상이면 hot, 둘 다 임계값의 절반 아래로 내려가면 해제한다. (경계에서 오가지 않도록)
+ * - 경합 없이 바로 얻은 락 요청으로는 유저를 새로 추적하지 않는다. (이미 추적 중이면 평균을 낮추는 데 쓴다)
+ * - 추적 유저는 maxTracked 를 넘지 않는다. (자리를 먼저 예약하므로 전역 잠금이 없다)
+ *   가득 차면 hot 이 아니고 오래 잠잠한 유저를 지우고(반감기마다 한 번),
+ *   그래도 차 있으면 hot 이 아닌 유저 SAMPLE_SIZE 명을 표본으로 뽑아 평균 대기 스레드 수가 가장 적은 유저를 지운다.
+ *   표본에서 지울 유저를 찾지 못하면 새 유저는 추적하지 않는다.
+ * - hot 유저는 전환될 때 hotUsers 집합에 넣고 빼므로, 수와 목록은 추적 유저 전체가 아니라 hot 유저만 본다.
+ */
+final class HotUserDetector {
+    private static final Logger log = LoggerFactory.getLogger(HotUserDetector.class);
+    private static final double ALPHA = 0.2;
+    /**
+     * 이만큼 반감기가 지나도록 요청이 없던 유저는 정리 대상이다. (평균이 1/16 이하)
+     */
+    private static final int IDLE_HALF_LIVES = 4;
+    /**
+     * 앞선 스레드 없이 이보다 짧게 기다린 요청은 경합으로 보지 않는다. (락 객체 생성/획득 비용)
+     */
+    private static final long CONTENDED_WAIT_NANOS = 1_000_000;
+    /**
+     * 지울 유저를 고를 때 비교하는 hot 이 아닌 유저 수 (맵 순회 앞쪽에서 뽑으므로 정확한 최솟값은 아니다)
+     */
+    private static final int SAMPLE_SIZE = 16;
+    /**
+     * 표본을 뽑으며 최대 이만큼만 본다. (hot 유저가 몰려 있어도 순회가 길어지지 않도록)
+     */
+    private static final int MAX_SAMPLE_VISITS = 64;
+    private static final int RESERVE_ATTEMPTS = 4;
+
+    private final Map<Long, Contention> users = new ConcurrentHashMap<>();
+    /**
+     * users 에 들어 있거나 들어갈 자리를 예약한 유저 수 (maxTracked 를 넘지 않는다)
+     */
+    private final AtomicInteger tracked = new AtomicInteger();
+    /**
+     * hot 인 유저 (evaluate 가 전환될 때만 바꾼다. hot 유저는 지우지 않으므로 users 에도 있다)
+     */
+    private final Set<Long> hotUsers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextSweepNanos = new AtomicLong(System.nanoTime());
+    private final boolean enabled;
+    private final double waitersThreshold;
+    private final double waitThresholdMillis;
+    private final long halfLifeNanos;
+    private final int maxTracked;
+
+    HotUserDetector(boolean enabled, double waitersThreshold, Duration waitThreshold, Duration halfLife, int maxTracked) {
+        this.enabled = enabled;
+        this.waitersThreshold = waitersThreshold;
+        this.waitThresholdMillis = waitThreshold.toNanos() / 1_000_000.0;
+        this.halfLifeNanos = halfLife.toNanos();
+        this.maxTracked = maxTracked;
+    }
+
+    /**
+     * @param waitersAhead 락을 요청할 때 이미 잡고 있거나 기다리던 스레드 수
+     * @param waitNanos    락을 얻거나 포기할 때까지 기다린 시간
+     */
+    void record(long userId, int waitersAhead, long waitNanos) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        // 정리와 겹쳐 지워진 항목에 남긴 값은 버려진다. (다음 요청부터 다시 쌓인다)
+        Contention contention = users.get(userId);
+        if (contention == null) {
+            if (waitersAhead <= 0 && waitNanos < CONTENDED_WAIT_NANOS) {
+                return;
+            }
+            contention = track(userId, now);
+            if (contention == null) {
+                return;
+            }
+        }
+        synchronized (contention) {
+            contention.add(waitersAhead, waitNanos / 1_000_000.0, now, halfLifeNanos);
+            evaluate(userId, contention);
+        }
+    }
+
+    boolean isHot(long userId) {
+        Contention contention = users.get(userId);
+        if (contention == null || !contention.hot) {
+            return false;
+        }
+        // 요청이 끊긴 동안 줄어든 평균으로 다시 판단한다.
+        synchronized (contention) {
+            contention.decay(System.nanoTime(), halfLifeNanos);
+            evaluate(userId, contention);
+            return contention.hot;
+        }
+    }
+
+    /**
+     * 현재 hot 유저 중 평균 대기 스레드 수가 많은 limit 명
+     * - hot 유저만 보고, 모두 정렬하지 않고 크기 limit 의 힙에 남긴다.
+     */
+    List<HotUser> hotUsers(int limit) {
+        TopN<HotUser> top = new TopN<>(limit, Comparator.comparingDouble(HotUser::waiters));
+        long now = System.nanoTime();
+        for (Long userId : hotUsers) {
+            HotUser hotUser = refresh(userId, now);
+            if (hotUser != null) {
+                top.offer(hotUser);
+            }
+        }
+        return top.toList();
+    }
+
+    /**
+     * 현재 hot 유저 수
+     * - hot 유저만 다시 판단해서, 요청이 끊겨 식은 유저를 해제한 뒤의 수를 센다.
+     */
+    int hotCount() {
+        long now = System.nanoTime();
+        for (Long userId : hotUsers) {
+            refresh(userId, now);
+        }
+        return hotUsers.size();
+    }
+
+    /**
+     * 지워지는 중에 hot 이 된 항목처럼 집합에만 남은 유저는 집합에서 뺀다.
+     */
+    private HotUser refresh(long userId, long now) {
+        Contention contention = users.get(userId);
+        if (contention == null) {
+            hotUsers.remove(userId);
+            return null;
+        }
+        synchronized (contention) {
+            if (!contention.hot) {
+                hotUsers.remove(userId);
+                return null;
+            }
+        }
+        return refresh(userId, contention, now);
+    }
+
+    /**
+     * 요청이 끊긴 동안 줄어든 평균으로 다시 판단한다.
+     *
+     * @return hot 이면 그 상태, 아니면 null
+     */
+    private HotUser refresh(long userId, Contention contention, long now) {
+        if (!contention.hot) {
+            return null;
+        }
+        synchronized (contention) {
+            contention.decay(now, halfLifeNanos);
+            evaluate(userId, contention);
+            return contention.hot
+                    ? new HotUser(userId, contention.waiters, contention.waitMillis, contention.hotSinceMillis)
+                    : null;
+        }
+    }
+
+    /**
+     * 경합 정보를 추적 중인 유저 수
+     */
+    int trackedCount() {
+        return users.size();
+    }
+
+    private void evaluate(long userId, Contention contention) {
+        if (!contention.hot
+                && (contention.waiters >= waitersThreshold || contention.waitMillis >= waitThresholdMillis)) {
+            contention.hot = true;
+            contention.hotSinceMillis = System.currentTimeMillis();
+            hotUsers.add(userId);
+            log.info("hot 유저 전환: userId={}, waiters={}, waitMillis={}",
+                    userId, String.format("%.2f", contention.waiters), String.format("%.1f", contention.waitMillis));
+        } else if (contention.hot
+                && contention.waiters < waitersThreshold / 2
+                && contention.waitMillis < waitThresholdMillis / 2) {
+            contention.hot = false;
+            contention.hotSinceMillis = 0;
+            hotUsers.remove(userId);
+            log.info("hot 유저 해제: userId={}", userId);
+        }
+    }
+
+    /**
+     * @return 추적할 자리가 없으면 null
+     */
+    private Contention track(long userId, long now) {
+        if (!reserve(now)) {
+            return null;
+        }
+        Contention contention = new Contention(now);
+        Contention existing = users.putIfAbsent(userId, contention);
+        if (existing != null) {
+            tracked.decrementAndGet();
+            return existing;
+        }
+        return contention;
+    }
+
+    /**
+     * 자리 하나를 예약한다. 가득 차 있으면 정리하거나 표본에서 한 명을 지우고 다시 시도한다.
+     */
+    private boolean reserve(long now) {
+        for (int attempt = 0; attempt < RESERVE_ATTEMPTS; attempt++) {
+            int current = tracked.get();
+            if (current < maxTracked) {
+                if (tracked.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            } else {
+                sweep(now);
+                if (tracked.get() >= maxTracked && !evictSampled()) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 반감기마다 한 번만 훑는다.
+     */
+    private void sweep(long now) {
+        long next = nextSweepNanos.get();
+        if (now - next < 0 || !nextSweepNanos.compareAndSet(next, now + halfLifeNanos)) {
+            return;
+        }
+        long idleNanos = halfLifeNanos * IDLE_HALF_LIVES;
+        users.forEach((userId, contention) -> {
+            boolean idle;
+            synchronized (contention) {
+                idle = !contention.hot && now - contention.updatedAtNanos > idleNanos;
+            }
+            if (idle) {
+                untrack(userId, contention);
+            }
+        });
+    }
+
+    /**
+     * hot 이 아닌 유저 표본 중 평균 대기 스레드 수가 가장 적은 유저를 지운다. (감쇠 전 값으로 비교한다)
+     *
+     * @return 지웠는지
+     */
+    private boolean evictSampled() {
+        Map.Entry<Long, Contention> coldest = null;
+        int sampled = 0;
+        int visited = 0;
+        for (Map.Entry<Long, Contention> entry : users.entrySet()) {
+            if (++visited > MAX_SAMPLE_VISITS) {
+                break;
+            }
+            Contention contention = entry.getValue();
+            if (contention.hot) {
+                continue;
+            }
+            if (coldest == null || contention.waiters < coldest.getValue().waiters) {
+                coldest = entry;
+            }
+            if (++sampled >= SAMPLE_SIZE) {
+                break;
+            }
+        }
+        return coldest != null && untrack(coldest.getKey(), coldest.getValue());
+    }
+
+    private boolean untrack(long userId, Contention contention) {
+        if (!users.remove(userId, contention)) {
+            return false;
+        }
+        tracked.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * 값은 유저별 모니터 안에서만 바꾼다. hot 은 isHot 이 잠금 없이 먼저 보도록 volatile 이다.
+     */
+    private static final class Contention {
+        private double waiters;
+        private double waitMillis;
+        private long updatedAtNanos;
+        private volatile boolean hot;
+        private long hotSinceMillis;
+
+        private Contention(long now) {
+            this.updatedAtNanos = now;
+        }
+
+        /**
+         * 0 에서 시작하므로 한두 번 밀린 요청으로는 hot 이 되지 않는다.
+         */
+        private void add(int waitersAhead, double waitedMillis, long now, long halfLifeNanos) {
+            decay(now, halfLifeNanos);
+            waiters += ALPHA * (waitersAhead - waiters);
+            waitMillis += ALPHA * (waitedMillis - waitMillis);
+        }
+
+        private void decay(long now, long halfLifeNanos) {
+            long elapsed = now - updatedAtNanos;
+            if (elapsed <= 0) {
+                return;
+            }
+            double factor = Math.pow(0.5, (double) elapsed / halfLifeNanos);
+            waiters *= factor;
+            waitMillis *= factor;
+            updatedAtNanos = now;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 현재 hot 유저 중 평균 대기 스레드 수가 많은 limit 명 (GET /actuator/hotusers?limit=10)
+ */
+@Component
+@Endpoint(id = "hotusers")
+public class HotUserEndpoint {
+    private final UserPointLockManager lockManager;
+    private final int defaultLimit;
+
+    public HotUserEndpoint(UserPointLockManager lockManager, PointProperties properties) {
+        this.lockManager = lockManager;
+        this.defaultLimit = properties.getHotUser().getTop();
+    }
+
+    @ReadOperation
+    public List<HotUser> hotUsers(@Nullable Integer limit) {
+        return lockManager.hotUsers(limit == null ? defaultLimit : Math.max(limit, 0));
+    }
+}
@@ -0,0 +1,46 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 점유 시간이 긴 유저 락과 최근 락 대기 시간이 긴 유저를 각각 limit 개까지 (GET /actuator/locks?limit=10)
+ */
+@Component
+@Endpoint(id = "locks")
+public class LockDiagnosticsEndpoint {
+    private final UserPointLockManager lockManager;
+    private final long windowSeconds;
+    private final int defaultLimit;
+
+    public LockDiagnosticsEndpoint(UserPointLockManager lockManager, PointProperties properties) {
+        this.lockManager = lockManager;
+        this.windowSeconds = properties.getLockDiagnostics().getWindow().toSeconds();
+        this.defaultLimit = properties.getLockDiagnostics().getTop();
+    }
+
+    @ReadOperation
+    public LockDiagnostics locks(@Nullable Integer limit) {
+        int top = limit == null ? defaultLimit : Math.max(limit, 0);
+        return new LockDiagnostics(
+                lockManager.heldLocks(top),
+                windowSeconds,
+                lockManager.topWaits(top)
+        );
+    }
+
+    /**
+     * @param heldLocks 지금 잡혀 있는 락 중 점유 시간이 긴 것
+     * @param topWaits 최근 windowSeconds 동안 누적 대기 시간이 긴 유저
+     */
+    public record LockDiagnostics(
+            List<UserPointLockManager.HeldLock> heldLocks,
+            long windowSeconds,
+            List<UserPointLockManager.UserLockWait> topWaits
+    ) {
+    }
+}
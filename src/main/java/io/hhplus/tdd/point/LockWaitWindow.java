@@ -0,0 +1,115 @@
+package io.hhplus.tdd.point;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 최근 window 동안 유저별 락 대기 횟수와 누적 대기 시간
+ * - window 를 slots 개의 구간으로 나누고, 구간마다 유저별 LongAdder 를 둔다.
+ * - 기록은 현재 구간의 맵에만 더하므로 전역 잠금이 없다. 지난 구간은 처음 쓰는 스레드가 새 맵으로 바꾼다.
+ * - 구간을 합치고 상위 limit 명을 고르는 일은 조회할 때만 하고, 그 결과를 LISTING_TTL 동안 재사용한다.
+ *   (진단 조회가 몰려도 그동안 한 번만 훑는다. 더 큰 limit 이 오면 다시 만든다)
+ */
+final class LockWaitWindow {
+    private static final long LISTING_TTL_NANOS = 1_000_000_000L;
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final long slotNanos;
+    private volatile Listing listing;
+
+    LockWaitWindow(Duration window, int slots) {
+        this.slots = new AtomicReferenceArray<>(slots);
+        this.slotNanos = Math.max(1, window.toNanos() / slots);
+    }
+
+    void record(long userId, long waitNanos) {
+        long epoch = Math.floorDiv(System.nanoTime(), slotNanos);
+        int index = (int) Math.floorMod(epoch, (long) slots.length());
+        Slot slot = slots.get(index);
+        if (slot == null || slot.epoch < epoch) {
+            Slot fresh = new Slot(epoch);
+            slot = slots.compareAndSet(index, slot, fresh) ? fresh : slots.get(index);
+        }
+        // 구간 경계에서 늦게 도착한 기록은 버린다.
+        if (slot.epoch != epoch) {
+            return;
+        }
+        slot.waits.computeIfAbsent(userId, id -> new Waits()).add(waitNanos);
+    }
+
+    /**
+     * 누적 대기 시간이 긴 순서로 limit 명 (최대 LISTING_TTL 전의 집계)
+     */
+    List<UserPointLockManager.UserLockWait> top(int limit) {
+        Listing current = listing;
+        if (current == null || current.expired(System.nanoTime()) || current.limit < limit) {
+            current = refresh(limit);
+        }
+        return current.top.subList(0, Math.min(Math.max(limit, 0), current.top.size()));
+    }
+
+    private synchronized Listing refresh(int limit) {
+        Listing current = listing;
+        long now = System.nanoTime();
+        if (current != null && !current.expired(now) && current.limit >= limit) {
+            return current;
+        }
+        current = new Listing(limit, aggregate(limit, now), now);
+        listing = current;
+        return current;
+    }
+
+    private List<UserPointLockManager.UserLockWait> aggregate(int limit, long now) {
+        long epoch = Math.floorDiv(now, slotNanos);
+        Map<Long, long[]> totals = new HashMap<>();
+        for (int i = 0; i < slots.length(); i++) {
+            Slot slot = slots.get(i);
+            if (slot == null || epoch - slot.epoch >= slots.length()) {
+                continue;
+            }
+            slot.waits.forEach((userId, waits) -> {
+                long[] total = totals.computeIfAbsent(userId, id -> new long[2]);
+                total[0] += waits.count.sum();
+                total[1] += waits.nanos.sum();
+            });
+        }
+
+        TopN<Map.Entry<Long, long[]>> top = new TopN<>(limit, Comparator.comparingLong((Map.Entry<Long, long[]> entry) -> entry.getValue()[1]));
+        totals.entrySet().forEach(top::offer);
+        return top.toList().stream()
+                .map(entry -> new UserPointLockManager.UserLockWait(
+                        entry.getKey(), entry.getValue()[0], entry.getValue()[1] / 1_000_000))
+                .toList();
+    }
+
+    private record Listing(int limit, List<UserPointLockManager.UserLockWait> top, long builtAtNanos) {
+        private boolean expired(long now) {
+            return now - builtAtNanos >= LISTING_TTL_NANOS;
+        }
+    }
+
+    private static final class Slot {
+        private final long epoch;
+        private final Map<Long, Waits> waits = new ConcurrentHashMap<>();
+
+        private Slot(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    private static final class Waits {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private void add(long waitNanos) {
+            count.increment();
+            nanos.add(waitNanos);
+        }
+    }
+}
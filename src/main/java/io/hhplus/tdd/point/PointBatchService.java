@@ -0,0 +1,136 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.ApiErrors;
+import io.hhplus.tdd.point.exception.InvalidPointRequestException;
+import io.hhplus.tdd.point.exception.PointTimeoutException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 여러 유저의 충전/사용을 한 번에 처리한다.
+ * - 유저가 다른 요청은 pointTaskExecutor 에서 병렬로 실행한다.
+ * - 같은 유저의 요청은 요청 순서대로 하나씩 실행하고, 유저별 동시성 제어는 PointService 를 그대로 따른다.
+ * - 실패한 건의 코드는 단건 API 와 같은 기준(ApiErrors)으로 정한다.
+ * - 일괄 처리 전체에 기한 하나를 두고(걸린 RequestDeadline, 없으면 admission.timeout) 각 작업에 건다.
+ *   기한이 지나면 아직 시작하지 않은 건은 실행하지 않고 타임아웃(503)으로 채우고, 실행 중인 건만 끝나기를 기다린다.
+ */
+@Service
+public class PointBatchService {
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+    private static final int EXPIRED = 3;
+
+    private final PointService pointService;
+    private final PointValidator validator;
+    private final Executor taskExecutor;
+    private final Duration timeout;
+
+    public PointBatchService(
+            PointService pointService,
+            PointValidator validator,
+            @Qualifier("pointTaskExecutor") Executor taskExecutor,
+            PointProperties properties) {
+        this.pointService = pointService;
+        this.validator = validator;
+        this.taskExecutor = taskExecutor;
+        this.timeout = properties.getAdmission().getTimeout();
+    }
+
+    public List<PointCommandResult> execute(List<PointCommand> commands) {
+        validator.validateBatchSize(commands.size());
+        long deadlineNanos = RequestDeadline.deadlineNanos(timeout);
+
+        Map<Long, List<Integer>> indexesByUser = new LinkedHashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            indexesByUser.computeIfAbsent(commands.get(i).userId(), userId -> new ArrayList<>()).add(i);
+        }
+        List<List<Integer>> userIndexes = new ArrayList<>(indexesByUser.values());
+
+        AtomicReferenceArray<PointCommandResult> results = new AtomicReferenceArray<>(commands.size());
+        AtomicIntegerArray states = new AtomicIntegerArray(commands.size());
+        List<CompletableFuture<Void>> userTasks = userIndexes.stream()
+                .map(indexes -> CompletableFuture.runAsync(() -> {
+                    for (int index : indexes) {
+                        // 기한이 지나 실패로 채운 건부터는 실행하지 않는다.
+                        if (!states.compareAndSet(index, PENDING, RUNNING)) {
+                            return;
+                        }
+                        results.set(index, executeOne(commands.get(index), deadlineNanos));
+                        states.set(index, DONE);
+                    }
+                }, taskExecutor))
+                .toList();
+
+        if (!awaitAll(userTasks, deadlineNanos)) {
+            for (int i = 0; i < commands.size(); i++) {
+                if (states.compareAndSet(i, PENDING, EXPIRED)) {
+                    results.set(i, expired(commands.get(i)));
+                }
+            }
+            // 실행 중인 건은 결과가 정해질 때까지 기다린다. (락/파티션 대기도 같은 기한으로 끊긴다)
+            for (int task = 0; task < userTasks.size(); task++) {
+                if (userIndexes.get(task).stream().anyMatch(index -> states.get(index) == RUNNING)) {
+                    userTasks.get(task).join();
+                }
+            }
+        }
+
+        List<PointCommandResult> ordered = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            ordered.add(results.get(i));
+        }
+        return ordered;
+    }
+
+    /**
+     * @return 기한 안에 모든 작업이 끝났으면 true
+     */
+    private boolean awaitAll(List<CompletableFuture<Void>> userTasks, long deadlineNanos) {
+        try {
+            CompletableFuture.allOf(userTasks.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("포인트 일괄 처리가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("포인트 일괄 처리 작업이 실패했습니다.", e.getCause());
+        }
+    }
+
+    private PointCommandResult executeOne(PointCommand command, long deadlineNanos) {
+        try {
+            if (command.type() == null) {
+                throw new InvalidPointRequestException("거래 종류가 필요합니다.");
+            }
+            UserPoint userPoint = RequestDeadline.callWithin(deadlineNanos, () -> switch (command.type()) {
+                case CHARGE -> pointService.chargePoint(command.userId(), command.amount());
+                case USE -> pointService.usePoint(command.userId(), command.amount());
+            });
+            return PointCommandResult.success(command, userPoint);
+        } catch (RuntimeException e) {
+            return PointCommandResult.failure(command, ApiErrors.response(e));
+        }
+    }
+
+    private static PointCommandResult expired(PointCommand command) {
+        return PointCommandResult.failure(command, ApiErrors.response(
+                new PointTimeoutException("일괄 처리 제한 시간이 지나 실행하지 않았습니다.")));
+    }
+}
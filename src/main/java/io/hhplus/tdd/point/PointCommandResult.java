@@ -0,0 +1,24 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.ErrorResponse;
+
+/**
+ * 일괄 처리 결과 한 건
+ * - 성공하면 userPoint, 실패하면 error 가 채워진다.
+ */
+public record PointCommandResult(
+        long userId,
+        TransactionType type,
+        long amount,
+        UserPoint userPoint,
+        ErrorResponse error
+) {
+
+    public static PointCommandResult success(PointCommand command, UserPoint userPoint) {
+        return new PointCommandResult(command.userId(), command.type(), command.amount(), userPoint, null);
+    }
+
+    public static PointCommandResult failure(PointCommand command, ErrorResponse error) {
+        return new PointCommandResult(command.userId(), command.type(), command.amount(), null, error);
+    }
+}
@@ -0,0 +1,331 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.cache.UserPointCache;
+import io.hhplus.tdd.point.execution.PartitionedPointExecutor;
+import io.hhplus.tdd.point.execution.UserPointCombiner;
+import io.hhplus.tdd.point.history.PointHistoryIndex;
+import io.hhplus.tdd.point.history.PointHistoryListener;
+import io.hhplus.tdd.point.history.PointHistorySource;
+import io.hhplus.tdd.point.history.PointHistoryWriter;
+import io.hhplus.tdd.point.history.SyncPointHistoryWriter;
+import io.hhplus.tdd.point.history.WriteBehindPointHistoryWriter;
+import io.hhplus.tdd.point.idempotency.IdempotencyStore;
+import io.hhplus.tdd.point.journal.PointJournal;
+import io.hhplus.tdd.point.journal.PointJournalRecovery;
+import io.hhplus.tdd.point.journal.RecoveredPoints;
+import io.hhplus.tdd.point.ledger.BalanceLedger;
+import io.hhplus.tdd.point.snapshot.BalanceSnapshotter;
+import io.hhplus.tdd.point.store.LongBalanceStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@EnableConfigurationProperties(PointProperties.class)
+public class PointConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "point.journal", name = "enabled", havingValue = "true")
+    public PointJournal pointJournal(PointProperties properties) {
+        PointProperties.Journal journal = properties.getJournal();
+        return new PointJournal(
+                Path.of(journal.getPath()),
+                Math.toIntExact(journal.getSegmentSize().toBytes())
+        );
+    }
+
+    /**
+     * 저널을 다시 읽어 잔액과 이력을 메모리에 만든다. 웹 서버가 요청을 받기 전에 끝난다.
+     * (테이블에는 다시 쓰지 않고, 서비스와 이력 인덱스/집계가 테이블보다 먼저 확인한다)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "point.journal", name = "enabled", havingValue = "true")
+    public RecoveredPoints recoveredPoints(PointJournal pointJournal) {
+        return new PointJournalRecovery(pointJournal).recover();
+    }
+
+    /**
+     * 저널을 쓰면 저널이 잔액의 원본이므로 스냅샷은 적재하지 않고 기록만 한다.
+     * 저널에서 복구한 잔액은 처음부터 넣어 두어 다음 스냅샷에 모두 담기게 한다.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "point.snapshot", name = "enabled", havingValue = "true")
+    public BalanceSnapshotter balanceSnapshotter(
+            Optional<RecoveredPoints> recoveredPoints,
+            PointMetrics metrics,
+            PointProperties properties) {
+        PointProperties.Snapshot snapshot = properties.getSnapshot();
+        BalanceSnapshotter snapshotter = new BalanceSnapshotter(
+                Path.of(snapshot.getPath()),
+                snapshot.getInterval(),
+                new LongBalanceStore(snapshot.getExpectedUsers(), snapshot.isOffHeap()),
+                metrics
+        );
+        if (recoveredPoints.isPresent()) {
+            recoveredPoints.get().forEachBalance((userId, point, updateMillis) ->
+                    snapshotter.onWritten(new UserPoint(userId, point, updateMillis)));
+        } else {
+            snapshotter.restore();
+        }
+        return snapshotter;
+    }
+
+    /**
+     * 테이블이 매긴 id 는 저널에서 복구한 이력의 id 뒤에 오도록 밀어서 리스너(인덱스, 집계, 조건부 조회 버전)에 알린다.
+     */
+    @Bean
+    public PointHistoryWriter pointHistoryWriter(
+            PointHistoryTable pointHistoryTable,
+            List<PointHistoryListener> historyListeners,
+            List<PointHistorySource> historySources,
+            PointMetrics metrics,
+            PointProperties properties) {
+        long tableIdOffset = PointHistorySource.tableIdOffset(historySources);
+        List<PointHistoryListener> listeners = tableIdOffset == 0
+                ? historyListeners
+                : historyListeners.stream()
+                        .<PointHistoryListener>map(listener ->
+                                inserted -> listener.onInserted(PointHistorySource.shift(inserted, tableIdOffset)))
+                        .toList();
+        PointProperties.History history = properties.getHistory();
+        return switch (history.getWriteMode()) {
+            case SYNC -> new SyncPointHistoryWriter(pointHistoryTable, listeners, metrics);
+            case WRITE_BEHIND -> new WriteBehindPointHistoryWriter(
+                    pointHistoryTable,
+                    listeners,
+                    history.getWorkers(),
+                    history.getQueueCapacity(),
+                    history.getBatchSize(),
+                    history.getShutdownTimeout(),
+                    metrics
+            );
+        };
+    }
+
+    @Bean
+    public UserPointCache userPointCache(PointProperties properties) {
+        PointProperties.Cache cache = properties.getCache();
+        return new UserPointCache(cache.getMaxSize(), cache.isOffHeap());
+    }
+
+    /**
+     * 조건부 조회 버전은 잔액 캐시와 같은 수의 유저까지만 기억한다.
+     */
+    @Bean
+    public PointVersions pointVersions(PointProperties properties) {
+        return new PointVersions(properties.getCache().getMaxSize());
+    }
+
+    @Bean
+    public IdempotencyStore idempotencyStore(PointProperties properties) {
+        PointProperties.Idempotency idempotency = properties.getIdempotency();
+        return new IdempotencyStore(idempotency.getMaxSize(), idempotency.getTtl());
+    }
+
+    @Bean
+    public UserPointCombiner userPointCombiner(UserPointLockManager lockManager) {
+        return new UserPointCombiner(lockManager);
+    }
+
+    /**
+     * 파티션 스레드는 첫 작업이 들어올 때 만들어지므로 PARTITIONED, LEDGER 모드가 아니면 비용이 없다.
+     */
+    @Bean
+    public PartitionedPointExecutor partitionedPointExecutor(PointProperties properties) {
+        PointProperties.Execution execution = properties.getExecution();
+        int partitions = execution.getPartitions() > 0
+                ? execution.getPartitions()
+                : Runtime.getRuntime().availableProcessors();
+        return new PartitionedPointExecutor(partitions, execution.getShutdownTimeout());
+    }
+
+    /**
+     * LEDGER 모드에서 테이블/이력 기록을 유저 파티션 스레드에 맡긴다.
+     */
+    @Bean
+    public BalanceLedger balanceLedger(PartitionedPointExecutor partitionedPointExecutor, PointProperties properties) {
+        PointProperties.Ledger ledger = properties.getLedger();
+        return new BalanceLedger(partitionedPointExecutor, ledger.getMaxUsers(), ledger.getMaxBacklog());
+    }
+
+    /**
+     * 대기열까지 가득 차면 호출한 스레드에서 바로 실행해 요청을 버리지 않고 속도를 늦춘다.
+     */
+    @Bean
+    public ExecutorService pointTaskExecutor(PointProperties properties) {
+        PointProperties.TaskExecutor taskExecutor = properties.getTaskExecutor();
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                taskExecutor.getThreads(), taskExecutor.getThreads(),
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(taskExecutor.getQueueCapacity()),
+                runnable -> new Thread(runnable, "point-task-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    /**
+     * 이체의 받는 쪽 테이블 작업만 실행하는 스레드 풀
+     * - 유저 락을 기다리는 작업이 섞이는 pointTaskExecutor 와 나눠, 락을 잡은 이체가 그 작업들 뒤에서 기다리지 않게 한다.
+     */
+    @Bean
+    public ExecutorService pointTransferExecutor(PointProperties properties) {
+        PointProperties.TransferExecutor transferExecutor = properties.getTransferExecutor();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                transferExecutor.getThreads(), transferExecutor.getThreads(),
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(transferExecutor.getQueueCapacity()),
+                runnable -> new Thread(runnable, "point-transfer-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 컨트롤러가 조회/충전/사용을 넘기는 스레드 풀
+     * - 락 대기와 테이블 지연 동안 요청 스레드(Tomcat)를 붙잡지 않는다.
+     * - 가득 차면 RejectedExecutionException 을 던지고, 컨트롤러가 429 로 응답한다.
+     */
+    @Bean
+    public ExecutorService pointRequestExecutor(PointProperties properties) {
+        PointProperties.RequestExecutor requestExecutor = properties.getRequestExecutor();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                requestExecutor.getThreads(), requestExecutor.getThreads(),
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(requestExecutor.getQueueCapacity()),
+                runnable -> new Thread(runnable, "point-request-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 이력 스트리밍(StreamingResponseBody)을 쓰는 스레드 풀 (PointWebConfig 가 MVC 비동기 실행기로 쓴다)
+     * - 오래 걸리는 내보내기가 pointRequestExecutor 의 스레드를 붙잡지 않게 나눈다.
+     * - 가득 차면 RejectedExecutionException 을 던지고, 429 로 응답한다.
+     */
+    @Bean
+    public ExecutorService pointStreamExecutor(PointProperties properties) {
+        PointProperties.History history = properties.getHistory();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                history.getStreamThreads(), history.getStreamThreads(),
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(history.getStreamQueueCapacity()),
+                runnable -> new Thread(runnable, "point-stream-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 호출 시점마다 읽어 가는 상태 값 (락 레지스트리와 hot 사용자, 캐시, 파티션 대기열, API 스레드 풀, 멱등 키, 이력 인덱스, 조회 버전, 이력 대기열)
+     */
+    @Bean
+    public MeterBinder pointStateMetrics(
+            UserPointLockManager lockManager,
+            UserPointCache userPointCache,
+            PartitionedPointExecutor partitionedPointExecutor,
+            BalanceLedger balanceLedger,
+            IdempotencyStore idempotencyStore,
+            @Qualifier("pointRequestExecutor") ExecutorService pointRequestExecutor,
+            PointHistoryWriter pointHistoryWriter,
+            PointHistoryIndex pointHistoryIndex,
+            PointVersions pointVersions) {
+        return registry -> {
+            Gauge.builder("point.lock.active", lockManager, UserPointLockManager::size)
+                    .description("락을 잡고 있거나 기다리는 스레드가 있는 사용자 수")
+                    .register(registry);
+            FunctionCounter.builder("point.lock.evictions", lockManager, UserPointLockManager::evictionCount)
+                    .register(registry);
+            Gauge.builder("point.lock.hot", lockManager, UserPointLockManager::hotUserCount)
+                    .description("락 경합이 심해 요청을 모아서 처리하는 사용자 수")
+                    .register(registry);
+            Gauge.builder("point.lock.contention.tracked", lockManager, UserPointLockManager::contentionTrackedCount)
+                    .register(registry);
+
+            Gauge.builder("point.cache.size", userPointCache, cache -> cache.stats().size())
+                    .register(registry);
+            FunctionCounter.builder("point.cache.requests", userPointCache, cache -> cache.stats().hits())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("point.cache.requests", userPointCache, cache -> cache.stats().misses())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("point.cache.evictions", userPointCache, cache -> cache.stats().evictions())
+                    .register(registry);
+
+            for (int i = 0; i < partitionedPointExecutor.partitionCount(); i++) {
+                int partition = i;
+                Gauge.builder("point.partition.queue", partitionedPointExecutor,
+                                executor -> executor.queueDepths().get(partition))
+                        .tag("partition", String.valueOf(partition))
+                        .register(registry);
+            }
+
+            Gauge.builder("point.ledger.users", balanceLedger, BalanceLedger::size)
+                    .register(registry);
+
+            if (pointRequestExecutor instanceof ThreadPoolExecutor requestExecutor) {
+                Gauge.builder("point.request.active", requestExecutor, ThreadPoolExecutor::getActiveCount)
+                        .description("비동기 API 작업을 실행 중인 스레드 수")
+                        .register(registry);
+                Gauge.builder("point.request.queue", requestExecutor, executor -> executor.getQueue().size())
+                        .description("실행을 기다리는 비동기 API 작업 수")
+                        .register(registry);
+            }
+
+            Gauge.builder("point.idempotency.size", idempotencyStore, store -> store.stats().size())
+                    .register(registry);
+            FunctionCounter.builder("point.idempotency.replays", idempotencyStore, store -> store.stats().replays())
+                    .description("저장된 결과로 응답한 재시도 수")
+                    .register(registry);
+            FunctionCounter.builder("point.idempotency.evictions", idempotencyStore, store -> store.stats().evictions())
+                    .register(registry);
+            FunctionCounter.builder("point.idempotency.rejections", idempotencyStore, store -> store.stats().rejections())
+                    .register(registry);
+
+            Gauge.builder("point.history.index.records", pointHistoryIndex, PointHistoryIndex::recordCount)
+                    .register(registry);
+            Gauge.builder("point.history.index.bytes", pointHistoryIndex, PointHistoryIndex::memoryBytes)
+                    .description("이력 조회용으로 테이블과 별도로 든 이력 사본의 크기")
+                    .baseUnit("bytes")
+                    .register(registry);
+
+            Gauge.builder("point.versions.users", pointVersions, PointVersions::size)
+                    .register(registry);
+            Gauge.builder("point.versions.bytes", pointVersions, PointVersions::memoryBytes)
+                    .description("조건부 조회에 쓰는 유저별 버전이 차지하는 메모리")
+                    .baseUnit("bytes")
+                    .register(registry);
+
+            if (pointHistoryWriter instanceof WriteBehindPointHistoryWriter writeBehind) {
+                Gauge.builder("point.history.pending", writeBehind, WriteBehindPointHistoryWriter::pendingCount)
+                        .register(registry);
+                Gauge.builder("point.history.failed", writeBehind, WriteBehindPointHistoryWriter::failedCount)
+                        .description("다시 기록해도 실패해 종료 때까지 남겨 둔 이력 수")
+                        .register(registry);
+            }
+        };
+    }
+}
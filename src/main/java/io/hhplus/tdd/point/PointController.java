@@ -1,65 +1,331 @@
 package io.hhplus.tdd.point;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.hhplus.tdd.point.PointMetrics.ConditionalResource;
+import io.hhplus.tdd.point.exception.PointOverloadedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/point")
 public class PointController {
     private final PointService pointService;
+    private final PointBatchService pointBatchService;
+    private final PointMetrics metrics;
+    private final ObjectWriter ndjsonWriter;
+    private final Executor requestExecutor;
+    private final Duration admissionTimeout;
     private static final Logger log = LoggerFactory.getLogger(PointController.class);
-
+    /**
+     * 충전/사용 재시도를 같은 요청으로 묶는 헤더
+     */
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
     // 생성자를 통한 PointService 주입
-    public PointController(PointService pointService) {
+    public PointController(
+            PointService pointService,
+            PointBatchService pointBatchService,
+            PointMetrics metrics,
+            ObjectMapper objectMapper,
+            @Qualifier("pointRequestExecutor") Executor requestExecutor,
+            PointProperties properties) {
         this.pointService = pointService;
+        this.pointBatchService = pointBatchService;
+        this.metrics = metrics;
+        this.requestExecutor = requestExecutor;
+        this.admissionTimeout = properties.getAdmission().getTimeout();
+        // 줄마다 flush 하지 않고 출력 버퍼가 찰 때마다 내보낸다.
+        this.ndjsonWriter = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     /**
      * TODO - 특정 유저의 포인트를 조회하는 기능을 작성해주세요.
+     * - ETag 는 잔액과 저장 시각(updateMillis), Last-Modified 는 저장 시각이다.
      */
     @GetMapping("{id}")
-    public UserPoint point(
-            @PathVariable long id
+    public CompletableFuture<ResponseEntity<UserPoint>> point(
+            @PathVariable long id,
+            @RequestHeader HttpHeaders headers
     ) {
         log.info("포인트 조회 요청: userId={}", id);
-        return pointService.getUserPoint(id);
+        return async(() -> {
+            UserPoint known = pointService.findKnownUserPoint(id);
+            return conditional(
+                    headers,
+                    ConditionalResource.BALANCE,
+                    known == null ? null : Version.of(known),
+                    () -> pointService.getUserPoint(id),
+                    Version::of
+            );
+        });
+    }
+
+    /**
+     * 여러 유저의 포인트를 한 번에 조회한다. (GET /point?ids=1,2,3)
+     */
+    @GetMapping(params = "ids")
+    public List<UserPoint> points(
+            @RequestParam List<Long> ids
+    ) {
+        log.info("포인트 다건 조회 요청: count={}", ids.size());
+        return pointService.getUserPoints(ids);
+    }
+
+    /**
+     * 쿼리 스트링에 담기 어려운 긴 id 목록을 본문으로 받아 조회한다.
+     */
+    @PostMapping("lookup")
+    public List<UserPoint> lookup(
+            @RequestBody List<Long> ids
+    ) {
+        log.info("포인트 다건 조회 요청: count={}", ids.size());
+        return pointService.getUserPoints(ids);
     }
 
     /**
      * TODO - 특정 유저의 포인트 충전/이용 내역을 조회하는 기능을 작성해주세요.
+     * - ETag 는 마지막 이력 id, Last-Modified 는 마지막 이력 시각이다. (이력은 추가만 되므로 마지막 id 로 목록이 정해진다)
      */
     @GetMapping("{id}/histories")
-    public List<PointHistory> history(
-            @PathVariable long id
+    public CompletableFuture<ResponseEntity<List<PointHistory>>> history(
+            @PathVariable long id,
+            @RequestHeader HttpHeaders headers
     ) {
         log.info("포인트 이력 조회 요청: userId={}", id);
-        return pointService.getPointHistory(id);
+        return async(() -> {
+            PointVersions.HistoryVersion last = pointService.findLastHistoryVersion(id);
+            return conditional(
+                    headers,
+                    ConditionalResource.HISTORY,
+                    last == null ? null : Version.of(last),
+                    () -> pointService.getPointHistory(id),
+                    histories -> histories.isEmpty() ? Version.EMPTY : Version.of(histories.get(histories.size() - 1))
+            );
+        });
+    }
+
+    /**
+     * 특정 유저의 포인트 이력을 최신순으로 limit 개씩 조회한다.
+     * - 다음 페이지는 응답의 nextCursor 를 cursor 로 넘겨 조회한다.
+     */
+    @GetMapping(value = "{id}/histories", params = "limit")
+    public PointHistoryPage historyPage(
+            @PathVariable long id,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam int limit
+    ) {
+        log.info("포인트 이력 페이지 조회 요청: userId={}, cursor={}, limit={}", id, cursor, limit);
+        return pointService.getPointHistoryPage(id, cursor, limit);
+    }
+
+    /**
+     * 특정 유저의 포인트 이력을 한 줄에 하나씩(NDJSON) 오래된 순서로 내려준다. (대량 내보내기용)
+     * - 목록을 만들지 않고 읽으면서 응답 스트림에 바로 쓰므로 이력 수와 관계없이 메모리가 일정하다.
+     * - from(포함) ~ to(미포함) 는 updateMillis 기준이며 생략할 수 있다.
+     * - 쓰기는 pointStreamExecutor 에서 하고, 이 응답만 point.history.stream-timeout 까지 열어 둔다. (PointWebConfig)
+     * - 오류 응답은 다른 API 와 같이 JSON 으로 내려가도록 produces 대신 응답에 Content-Type 을 정한다.
+     */
+    @GetMapping("{id}/histories/stream")
+    public ResponseEntity<StreamingResponseBody> historyStream(
+            @PathVariable long id,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to
+    ) {
+        log.info("포인트 이력 스트리밍 요청: userId={}, from={}, to={}", id, from, to);
+        // 검증 오류는 응답을 쓰기 전에 여기서 던져진다.
+        Stream<PointHistory> histories = pointService.streamPointHistory(id, from, to);
+        StreamingResponseBody body = output -> writeHistories(id, histories, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeHistories(long id, Stream<PointHistory> histories, OutputStream output) throws IOException {
+        long count = 0;
+        try (histories; SequenceWriter writer = ndjsonWriter.writeValues(output)) {
+            Iterator<PointHistory> iterator = histories.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                count++;
+            }
+            writer.flush();
+            // 마지막 줄도 줄바꿈으로 끝낸다.
+            if (count > 0) {
+                output.write('\n');
+            }
+            log.info("포인트 이력 스트리밍 완료: userId={}, count={}", id, count);
+        } catch (IOException | RuntimeException e) {
+            log.warn("포인트 이력 스트리밍 중단: userId={}, count={}", id, count, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 특정 유저의 충전/사용 합계를 시간(HOUR)/일(DAY)/월(MONTH) 구간별로 조회한다.
+     * - from(포함) ~ to(미포함) 는 epoch millis 이며 생략할 수 있다.
+     */
+    @GetMapping("{id}/summary")
+    public PointSummary summary(
+            @PathVariable long id,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "DAY") SummaryBucket bucket
+    ) {
+        log.info("포인트 합계 조회 요청: userId={}, bucket={}, from={}, to={}", id, bucket, from, to);
+        return pointService.getPointSummary(id, bucket, from, to);
     }
 
     /**
      * TODO - 특정 유저의 포인트를 충전하는 기능을 작성해주세요.
      */
     @PatchMapping("{id}/charge")
-    public UserPoint charge(
+    public CompletableFuture<UserPoint> charge(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
     ) {
-        log.info("포인트 충전 요청: userId={}, amount={}", id, amount);
-        return pointService.chargePoint(id, amount);
+        log.info("포인트 충전 요청: userId={}, amount={}, idempotencyKey={}", id, amount, idempotencyKey);
+        return async(() -> pointService.chargePoint(id, amount, idempotencyKey));
     }
 
     /**
      * TODO - 특정 유저의 포인트를 사용하는 기능을 작성해주세요.
      */
     @PatchMapping("{id}/use")
-    public UserPoint use(
+    public CompletableFuture<UserPoint> use(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
+        log.info("포인트 사용 요청: userId={}, amount={}, idempotencyKey={}", id, amount, idempotencyKey);
+        return async(() -> pointService.usePoint(id, amount, idempotencyKey));
+    }
+
+    /**
+     * 한 유저의 포인트를 다른 유저에게 옮긴다. (사용과 충전을 한 번에, 둘 다 반영되거나 둘 다 반영되지 않는다)
+     */
+    @PostMapping("transfer")
+    public CompletableFuture<PointTransferResult> transfer(
+            @RequestBody PointTransfer transfer
+    ) {
+        log.info("포인트 이체 요청: fromUserId={}, toUserId={}, amount={}",
+                transfer.fromUserId(), transfer.toUserId(), transfer.amount());
+        return async(() -> pointService.transfer(transfer.fromUserId(), transfer.toUserId(), transfer.amount()));
+    }
+
+    /**
+     * 여러 유저의 포인트를 한 번에 충전/사용한다.
+     * - 요청 순서대로 건별 결과를 반환한다.
+     */
+    @PostMapping("batch")
+    public List<PointCommandResult> batch(
+            @RequestBody List<PointCommand> commands
     ) {
-        log.info("포인트 사용 요청: userId={}, amount={}", id, amount);
-        return pointService.usePoint(id, amount);
+        log.info("포인트 일괄 처리 요청: count={}", commands.size());
+        return pointBatchService.execute(commands);
+    }
+
+    /**
+     * 알고 있는 버전이 요청 조건(If-None-Match / If-Modified-Since)과 맞으면 테이블을 읽지 않고 304 로 응답한다.
+     * 모르거나 맞지 않으면 읽어서 ETag/Last-Modified 와 함께 응답한다.
+     * 읽은 버전이 조건과 맞을 때 본문을 쓰지 않고 304 로 바꾸는 일은 Spring(HttpEntityMethodProcessor)이 한다.
+     */
+    private <T> ResponseEntity<T> conditional(
+            HttpHeaders request,
+            ConditionalResource resource,
+            Version known,
+            Supplier<T> read,
+            Function<T, Version> versionOf) {
+        if (known != null && known.matches(request)) {
+            metrics.recordNotModified(resource);
+            return known.headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED)).build();
+        }
+        T body = read.get();
+        return versionOf.apply(body).headers(ResponseEntity.ok()).body(body);
+    }
+
+    /**
+     * 요청 스레드는 작업을 넘기고 바로 반환되고, 응답은 작업이 끝나는 스레드에서 쓰인다.
+     * 작업의 예외는 동기 처리와 같이 ApiControllerAdvice 가 응답으로 바꾼다.
+     * 처리 기한은 여기서 시작하므로 대기열에서 기한을 넘긴 작업은 실행하지 않고 503 으로 끝난다.
+     */
+    private <T> CompletableFuture<T> async(Supplier<T> work) {
+        long deadline = System.nanoTime() + admissionTimeout.toNanos();
+        try {
+            return CompletableFuture.supplyAsync(() -> RequestDeadline.callWithin(deadline, work), requestExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new PointOverloadedException();
+        }
+    }
+
+    /**
+     * @param lastModifiedMillis 없으면 -1
+     */
+    private record Version(String eTag, long lastModifiedMillis) {
+        private static final Version EMPTY = new Version("\"0\"", -1);
+
+        private static Version of(UserPoint userPoint) {
+            return new Version("\"" + userPoint.updateMillis() + "-" + userPoint.point() + "\"", userPoint.updateMillis());
+        }
+
+        private static Version of(PointHistory lastHistory) {
+            return new Version("\"" + lastHistory.id() + "\"", lastHistory.updateMillis());
+        }
+
+        private static Version of(PointVersions.HistoryVersion lastHistory) {
+            return new Version("\"" + lastHistory.lastId() + "\"", lastHistory.updateMillis());
+        }
+
+        /**
+         * If-None-Match 가 있으면 그것만 보고(약한 비교), 없을 때만 If-Modified-Since 를 초 단위로 본다.
+         * 형식이 잘못된 조건은 없는 것으로 본다.
+         */
+        private boolean matches(HttpHeaders request) {
+            try {
+                List<String> ifNoneMatch = request.getIfNoneMatch();
+                if (!ifNoneMatch.isEmpty()) {
+                    return ifNoneMatch.stream()
+                            .anyMatch(tag -> tag.equals("*") || tag.replaceFirst("^W/", "").equals(eTag));
+                }
+                long ifModifiedSince = request.getIfModifiedSince();
+                return ifModifiedSince >= 0 && lastModifiedMillis >= 0
+                        && lastModifiedMillis / 1000 * 1000 <= ifModifiedSince;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        private <B extends ResponseEntity.HeadersBuilder<B>> B headers(B builder) {
+            builder.eTag(eTag);
+            if (lastModifiedMillis >= 0) {
+                builder.lastModified(lastModifiedMillis);
+            }
+            return builder;
+        }
     }
 }
@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 최신순 이력 페이지
+ * - nextCursor : 다음 페이지 요청 시 cursor 로 넘길 값 (마지막 페이지면 null)
+ */
+public record PointHistoryPage(
+        List<PointHistory> histories,
+        Long nextCursor
+) {
+}
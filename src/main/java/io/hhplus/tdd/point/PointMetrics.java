@@ -0,0 +1,253 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.point.exception.InsufficientPointException;
+import io.hhplus.tdd.point.exception.InvalidPointRequestException;
+import io.hhplus.tdd.point.exception.PointOverloadedException;
+import io.hhplus.tdd.point.exception.PointTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 포인트 서비스 지표
+ * - point.lock.wait / point.lock.hold / point.lock.timeouts : 유저 락 대기, 점유 시간과 타임아웃
+ * - point.lock.rejections : 대기 요청이 가득 차 바로 거절한 횟수
+ * - point.lock.early.rejections : 예상 대기 시간이 남은 처리 시간보다 길어 바로 거절한 횟수
+ * 여러 단어로 된 이름도 단어마다 점(.)으로 나눈다. (내보낼 때 백엔드 규칙으로 바뀐다)
+ * - point.table : 테이블 호출 시간 (table, operation)
+ * - point.operations : 충전/사용/이체 처리 시간과 결과 (type, outcome)
+ * - point.not.modified : 테이블을 읽지 않고 304 로 응답한 조건부 조회 수 (resource)
+ * - point.snapshot / point.snapshot.users : 잔액 스냅샷 적재/기록 시간과 마지막 스냅샷의 유저 수
+ * - point.snapshot.store.bytes : 스냅샷용 잔액 저장소가 차지하는 메모리
+ * - point.history.write.failures : write-behind 이력 기록 실패 (outcome=retried 다시 기록, kept 남겨 둠)
+ * 지연 시간 Timer 는 p99 알림을 위해 percentile histogram 을 함께 내보낸다.
+ */
+@Component
+public class PointMetrics {
+    private final Timer lockWait;
+    private final Timer lockHold;
+    private final Counter lockTimeouts;
+    private final Counter lockRejections;
+    private final Counter lockEarlyRejections;
+    private final Map<TableOperation, Timer> tableTimers = new EnumMap<>(TableOperation.class);
+    private final Map<TransactionType, Map<Outcome, Timer>> operationTimers = new EnumMap<>(TransactionType.class);
+    private final Map<Outcome, Timer> transferTimers;
+    private final Map<ConditionalResource, Counter> notModifiedCounters = new EnumMap<>(ConditionalResource.class);
+    private final Timer snapshotLoad;
+    private final Timer snapshotWrite;
+    private final AtomicLong snapshotUsers = new AtomicLong();
+    private final AtomicLong snapshotStoreBytes = new AtomicLong();
+    private final Counter historyWriteRetries;
+    private final Counter historyWriteKept;
+
+    public PointMetrics(MeterRegistry registry) {
+        this.lockWait = Timer.builder("point.lock.wait")
+                .description("유저 락 획득까지 기다린 시간")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.lockHold = Timer.builder("point.lock.hold")
+                .description("유저 락을 잡고 있던 시간")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.lockTimeouts = Counter.builder("point.lock.timeouts")
+                .description("유저 락 획득 타임아웃 횟수")
+                .register(registry);
+        this.lockRejections = Counter.builder("point.lock.rejections")
+                .description("유저별 대기 요청 수 제한으로 거절한 횟수")
+                .register(registry);
+        this.lockEarlyRejections = Counter.builder("point.lock.early.rejections")
+                .description("예상 대기 시간이 남은 처리 시간을 넘어 기다리지 않고 거절한 횟수")
+                .register(registry);
+
+        for (TableOperation operation : TableOperation.values()) {
+            tableTimers.put(operation, Timer.builder("point.table")
+                    .tags("table", operation.table, "operation", operation.operation)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (TransactionType type : TransactionType.values()) {
+            operationTimers.put(type, operationTimers(registry, type.name().toLowerCase(Locale.ROOT)));
+        }
+        this.transferTimers = operationTimers(registry, "transfer");
+        for (ConditionalResource resource : ConditionalResource.values()) {
+            notModifiedCounters.put(resource, Counter.builder("point.not.modified")
+                    .description("버전 맵만 보고 304 로 응답한 조회 수")
+                    .tag("resource", resource.tag)
+                    .register(registry));
+        }
+
+        this.snapshotLoad = Timer.builder("point.snapshot")
+                .tag("operation", "load")
+                .register(registry);
+        this.snapshotWrite = Timer.builder("point.snapshot")
+                .tag("operation", "write")
+                .register(registry);
+        this.historyWriteRetries = Counter.builder("point.history.write.failures")
+                .description("백그라운드 이력 기록 실패 횟수")
+                .tag("outcome", "retried")
+                .register(registry);
+        this.historyWriteKept = Counter.builder("point.history.write.failures")
+                .description("백그라운드 이력 기록 실패 횟수")
+                .tag("outcome", "kept")
+                .register(registry);
+        Gauge.builder("point.snapshot.users", snapshotUsers, AtomicLong::get)
+                .description("마지막으로 적재/기록한 스냅샷의 유저 수")
+                .register(registry);
+        Gauge.builder("point.snapshot.store.bytes", snapshotStoreBytes, AtomicLong::get)
+                .description("스냅샷용 잔액 저장소의 슬롯 메모리 (빈 슬롯 포함)")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public void recordLockWait(long nanos) {
+        lockWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockHold(long nanos) {
+        lockHold.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockTimeout() {
+        lockTimeouts.increment();
+    }
+
+    public void recordLockRejection() {
+        lockRejections.increment();
+    }
+
+    public void recordLockEarlyRejection() {
+        lockEarlyRejections.increment();
+    }
+
+    public void recordSnapshotLoad(long users, long nanos) {
+        snapshotLoad.record(nanos, TimeUnit.NANOSECONDS);
+        snapshotUsers.set(users);
+    }
+
+    public void recordSnapshotWrite(long users, long storeBytes, long nanos) {
+        snapshotWrite.record(nanos, TimeUnit.NANOSECONDS);
+        snapshotUsers.set(users);
+        snapshotStoreBytes.set(storeBytes);
+    }
+
+    /**
+     * @param retried true 면 다시 기록하고, false 면 더 시도하지 않고 남겨 둔다.
+     */
+    public void recordHistoryWriteFailure(boolean retried) {
+        (retried ? historyWriteRetries : historyWriteKept).increment();
+    }
+
+    public void recordNotModified(ConditionalResource resource) {
+        notModifiedCounters.get(resource).increment();
+    }
+
+    public <T> T recordTable(TableOperation operation, Supplier<T> call) {
+        return tableTimers.get(operation).record(call);
+    }
+
+    /**
+     * 충전/사용 한 건의 처리 시간을 결과별로 기록한다. 예외는 그대로 다시 던진다.
+     */
+    public UserPoint recordOperation(TransactionType type, Supplier<UserPoint> operation) {
+        return record(operationTimers.get(type), operation);
+    }
+
+    /**
+     * 이체 한 건의 처리 시간을 결과별로 기록한다. (type=transfer)
+     */
+    public <T> T recordTransfer(Supplier<T> operation) {
+        return record(transferTimers, operation);
+    }
+
+    private static <T> T record(Map<Outcome, Timer> timers, Supplier<T> operation) {
+        long startedAt = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            T result = operation.get();
+            outcome = Outcome.SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = Outcome.of(e);
+            throw e;
+        } finally {
+            timers.get(outcome).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Map<Outcome, Timer> operationTimers(MeterRegistry registry, String type) {
+        Map<Outcome, Timer> timers = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            timers.put(outcome, Timer.builder("point.operations")
+                    .tags("type", type, "outcome", outcome.tag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        return timers;
+    }
+
+    public enum TableOperation {
+        USER_POINT_SELECT("user_point", "select_by_id"),
+        USER_POINT_UPSERT("user_point", "insert_or_update"),
+        POINT_HISTORY_INSERT("point_history", "insert"),
+        POINT_HISTORY_SELECT("point_history", "select_all_by_user_id");
+
+        private final String table;
+        private final String operation;
+
+        TableOperation(String table, String operation) {
+            this.table = table;
+            this.operation = operation;
+        }
+    }
+
+    public enum ConditionalResource {
+        BALANCE("balance"),
+        HISTORY("history");
+
+        private final String tag;
+
+        ConditionalResource(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS("success"),
+        INSUFFICIENT_BALANCE("insufficient_balance"),
+        VALIDATION_ERROR("validation_error"),
+        TIMEOUT("timeout"),
+        REJECTED("rejected"),
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+
+        private static Outcome of(RuntimeException e) {
+            if (e instanceof InsufficientPointException) {
+                return INSUFFICIENT_BALANCE;
+            }
+            if (e instanceof InvalidPointRequestException) {
+                return VALIDATION_ERROR;
+            }
+            if (e instanceof PointTimeoutException) {
+                return TIMEOUT;
+            }
+            if (e instanceof PointOverloadedException) {
+                return REJECTED;
+            }
+            return ERROR;
+        }
+    }
+}
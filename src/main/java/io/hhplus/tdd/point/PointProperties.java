@@ -0,0 +1,648 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * 포인트 서비스 설정 (application.yml 의 point.*)
+ */
+@ConfigurationProperties(prefix = "point")
+public class PointProperties {
+    private final History history = new History();
+    private final Cache cache = new Cache();
+    private final Execution execution = new Execution();
+    private final Ledger ledger = new Ledger();
+    private final TaskExecutor taskExecutor = new TaskExecutor();
+    private final TransferExecutor transferExecutor = new TransferExecutor();
+    private final RequestExecutor requestExecutor = new RequestExecutor();
+    private final Admission admission = new Admission();
+    private final HotUser hotUser = new HotUser();
+    private final LockDiagnostics lockDiagnostics = new LockDiagnostics();
+    private final Journal journal = new Journal();
+    private final Snapshot snapshot = new Snapshot();
+    private final Summary summary = new Summary();
+    private final Idempotency idempotency = new Idempotency();
+
+    public History getHistory() {
+        return history;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Execution getExecution() {
+        return execution;
+    }
+
+    public Ledger getLedger() {
+        return ledger;
+    }
+
+    public TaskExecutor getTaskExecutor() {
+        return taskExecutor;
+    }
+
+    public TransferExecutor getTransferExecutor() {
+        return transferExecutor;
+    }
+
+    public RequestExecutor getRequestExecutor() {
+        return requestExecutor;
+    }
+
+    public Admission getAdmission() {
+        return admission;
+    }
+
+    public HotUser getHotUser() {
+        return hotUser;
+    }
+
+    public LockDiagnostics getLockDiagnostics() {
+        return lockDiagnostics;
+    }
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public Summary getSummary() {
+        return summary;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public static class History {
+        /**
+         * 이력 기록 방식
+         * - SYNC : 락 안에서 PointHistoryTable 에 바로 기록
+         * - WRITE_BEHIND : 대기열에 넣고 백그라운드 워커가 순서대로 기록
+         */
+        private WriteMode writeMode = WriteMode.SYNC;
+        /**
+         * WRITE_BEHIND 워커 수 (유저 id 해시로 나눠 맡는다)
+         */
+        private int workers = 16;
+        /**
+         * 워커 전체의 대기열 크기 (워커마다 나눠 갖는다)
+         */
+        private int queueCapacity = 10_000;
+        /**
+         * WRITE_BEHIND 워커가 대기열에서 한 번에 꺼내 기록하는 최대 건수
+         */
+        private int batchSize = 100;
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+        /**
+         * 이력 스트리밍(NDJSON) 응답을 열어 두는 최대 시간
+         */
+        private Duration streamTimeout = Duration.ofMinutes(10);
+        /**
+         * 이력 스트리밍을 쓰는 스레드 수와 대기열 크기 (가득 차면 429)
+         */
+        private int streamThreads = 4;
+        private int streamQueueCapacity = 16;
+
+        public WriteMode getWriteMode() {
+            return writeMode;
+        }
+
+        public void setWriteMode(WriteMode writeMode) {
+            this.writeMode = writeMode;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+
+        public Duration getStreamTimeout() {
+            return streamTimeout;
+        }
+
+        public void setStreamTimeout(Duration streamTimeout) {
+            this.streamTimeout = streamTimeout;
+        }
+
+        public int getStreamThreads() {
+            return streamThreads;
+        }
+
+        public void setStreamThreads(int streamThreads) {
+            this.streamThreads = streamThreads;
+        }
+
+        public int getStreamQueueCapacity() {
+            return streamQueueCapacity;
+        }
+
+        public void setStreamQueueCapacity(int streamQueueCapacity) {
+            this.streamQueueCapacity = streamQueueCapacity;
+        }
+    }
+
+    public static class Cache {
+        private int maxSize = 100_000;
+        /**
+         * true 면 잔액 슬롯을 direct ByteBuffer 에 두어 힙과 GC 대상에서 뺀다.
+         */
+        private boolean offHeap = false;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public boolean isOffHeap() {
+            return offHeap;
+        }
+
+        public void setOffHeap(boolean offHeap) {
+            this.offHeap = offHeap;
+        }
+    }
+
+    public static class Execution {
+        /**
+         * 충전/사용 실행 방식
+         * - LOCK : 요청마다 유저 락을 잡고 조회/저장 (경합이 심한 hot 유저는 COMBINING 처럼 처리)
+         * - COMBINING : 같은 유저의 동시 요청을 모아 한 번에 조회/저장
+         * - PARTITIONED : 유저 id 로 나눈 단일 스레드 파티션에서 락 없이 순서대로 처리
+         * - LEDGER : 메모리 원장에서 CAS 로 반영하고 테이블/이력은 파티션에서 반영 순서대로 비동기 기록
+         */
+        private ExecutionMode mode = ExecutionMode.LOCK;
+        /**
+         * PARTITIONED 모드의 파티션 수 (0 이면 CPU 코어 수)
+         */
+        private int partitions = 0;
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+        public ExecutionMode getMode() {
+            return mode;
+        }
+
+        public void setMode(ExecutionMode mode) {
+            this.mode = mode;
+        }
+
+        public int getPartitions() {
+            return partitions;
+        }
+
+        public void setPartitions(int partitions) {
+            this.partitions = partitions;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+    }
+
+    /**
+     * LEDGER 모드의 메모리 원장
+     */
+    public static class Ledger {
+        /**
+         * 메모리에 올려 둘 최대 유저 수. 넘으면 기록이 끝난 유저부터 내리고, 내릴 유저가 없으면 새 유저를 429 로 거절한다.
+         */
+        private int maxUsers = 1_000_000;
+        /**
+         * 유저별로 테이블에 아직 기록하지 못한 변경 수. 넘치면 429 로 거절한다.
+         */
+        private int maxBacklog = 10_000;
+
+        public int getMaxUsers() {
+            return maxUsers;
+        }
+
+        public void setMaxUsers(int maxUsers) {
+            this.maxUsers = maxUsers;
+        }
+
+        public int getMaxBacklog() {
+            return maxBacklog;
+        }
+
+        public void setMaxBacklog(int maxBacklog) {
+            this.maxBacklog = maxBacklog;
+        }
+    }
+
+    /**
+     * 일괄 처리/다건 조회처럼 여러 유저 작업을 나눠 실행하는 스레드 풀
+     */
+    public static class TaskExecutor {
+        private int threads = 32;
+        private int queueCapacity = 1_000;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    /**
+     * 이체가 두 유저의 락을 잡은 채로 받는 쪽 유저의 테이블 작업을 넘기는 스레드 풀
+     * - 락을 잡는 작업은 넣지 않으므로 가득 차도 락 대기와 얽히지 않는다. (가득 차면 호출 스레드에서 실행)
+     */
+    public static class TransferExecutor {
+        private int threads = 16;
+        private int queueCapacity = 1_000;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    /**
+     * 조회/충전/사용 API 를 비동기로 처리하는 스레드 풀
+     * - 요청 스레드는 작업을 넘기고 바로 반환되므로, 처리 중인 요청 수는 threads + queueCapacity 까지 늘 수 있다.
+     * - 대기열까지 가득 차면 요청 스레드에서 실행하지 않고 바로 거절한다.
+     */
+    public static class RequestExecutor {
+        private int threads = 200;
+        private int queueCapacity = 10_000;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    /**
+     * 충전/사용 요청 수용 제한
+     * - 한 유저에게 요청이 몰려도 다른 유저의 요청을 처리할 스레드가 남도록 일찍 거절한다.
+     */
+    public static class Admission {
+        /**
+         * 유저별로 락을 잡고 있거나 기다릴 수 있는 최대 요청 수 (0 이면 제한 없음)
+         * 넘치는 요청은 기다리지 않고 바로 429 로 거절한다.
+         */
+        private int maxQueueDepth = 16;
+        /**
+         * 요청이 실행 차례를 기다릴 수 있는 최대 시간. 넘기면 503 으로 거절한다.
+         * 락 대기는 앞선 요청 수 × 평균 점유 시간이 남은 시간보다 길면 기다리지 않고 바로 503 으로 거절한다.
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+        /**
+         * 거절 응답의 Retry-After
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        public int getMaxQueueDepth() {
+            return maxQueueDepth;
+        }
+
+        public void setMaxQueueDepth(int maxQueueDepth) {
+            this.maxQueueDepth = maxQueueDepth;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    /**
+     * 락 경합이 심한(hot) 유저 감지
+     * - LOCK 모드에서 hot 유저의 충전/사용은 대기열에 모아 한 번에 반영한다. (COMBINING 모드와 같은 방식)
+     * - 평균 대기 스레드 수나 평균 대기 시간 중 하나가 임계값을 넘으면 hot, 둘 다 절반 아래로 내려가면 해제한다.
+     */
+    public static class HotUser {
+        private boolean enabled = true;
+        /**
+         * 락을 요청할 때 앞서 잡고 있거나 기다리던 스레드 수의 평균
+         */
+        private double waitersThreshold = 2.0;
+        /**
+         * 락 대기 시간의 평균
+         */
+        private Duration waitThreshold = Duration.ofSeconds(1);
+        /**
+         * 요청이 없을 때 평균이 절반으로 줄어드는 시간
+         */
+        private Duration halfLife = Duration.ofSeconds(10);
+        /**
+         * 경합 정보를 추적하는 최대 유저 수 (경합이 있었던 유저만 추적하고, 가득 차면 가장 잠잠한 유저부터 지운다)
+         */
+        private int maxTracked = 100_000;
+        /**
+         * /actuator/hotusers 가 limit 없이 보여주는 최대 유저 수
+         */
+        private int top = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getWaitersThreshold() {
+            return waitersThreshold;
+        }
+
+        public void setWaitersThreshold(double waitersThreshold) {
+            this.waitersThreshold = waitersThreshold;
+        }
+
+        public Duration getWaitThreshold() {
+            return waitThreshold;
+        }
+
+        public void setWaitThreshold(Duration waitThreshold) {
+            this.waitThreshold = waitThreshold;
+        }
+
+        public Duration getHalfLife() {
+            return halfLife;
+        }
+
+        public void setHalfLife(Duration halfLife) {
+            this.halfLife = halfLife;
+        }
+
+        public int getMaxTracked() {
+            return maxTracked;
+        }
+
+        public void setMaxTracked(int maxTracked) {
+            this.maxTracked = maxTracked;
+        }
+
+        public int getTop() {
+            return top;
+        }
+
+        public void setTop(int top) {
+            this.top = top;
+        }
+    }
+
+    /**
+     * 락 진단 (GET /actuator/locks)
+     * - 최근 window 동안 락을 기다린 시간이 긴 유저를 top 명까지 보여준다.
+     * - window 는 slots 개의 구간으로 나누어 기록하고, 가장 오래된 구간부터 통째로 버린다.
+     */
+    public static class LockDiagnostics {
+        private Duration window = Duration.ofMinutes(1);
+        private int slots = 6;
+        private int top = 10;
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getSlots() {
+            return slots;
+        }
+
+        public void setSlots(int slots) {
+            this.slots = slots;
+        }
+
+        public int getTop() {
+            return top;
+        }
+
+        public void setTop(int top) {
+            this.top = top;
+        }
+    }
+
+    /**
+     * 충전/사용 내역 저널 (재시작 시 잔액과 이력을 복구)
+     */
+    public static class Journal {
+        private boolean enabled = false;
+        private String path = "data/point.journal";
+        /**
+         * 한 번에 매핑하는 파일 크기
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+    }
+
+    /**
+     * 잔액 스냅샷 (재시작 시 잔액을 테이블과 캐시에 미리 채움)
+     */
+    public static class Snapshot {
+        private boolean enabled = false;
+        private String path = "data/point-balances.snapshot";
+        private Duration interval = Duration.ofMinutes(1);
+        /**
+         * 잔액 저장소를 처음 잡을 때의 유저 수 (넘으면 늘어난다)
+         */
+        private int expectedUsers = 1024;
+        /**
+         * true 면 잔액 저장소를 힙 밖(direct buffer)에 둔다.
+         */
+        private boolean offHeap = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public int getExpectedUsers() {
+            return expectedUsers;
+        }
+
+        public void setExpectedUsers(int expectedUsers) {
+            this.expectedUsers = expectedUsers;
+        }
+
+        public boolean isOffHeap() {
+            return offHeap;
+        }
+
+        public void setOffHeap(boolean offHeap) {
+            this.offHeap = offHeap;
+        }
+    }
+
+    public static class Summary {
+        /**
+         * 일/월 구간을 나누는 기준 시간대
+         */
+        private ZoneId zone = ZoneId.of("Asia/Seoul");
+
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        public void setZone(ZoneId zone) {
+            this.zone = zone;
+        }
+    }
+
+    public static class Idempotency {
+        /**
+         * 기억하는 (userId, Idempotency-Key) 수, 넘으면 가장 오래 사용하지 않은 키부터 잊는다.
+         */
+        private int maxSize = 100_000;
+        /**
+         * 같은 키의 재시도를 같은 요청으로 보는 기간
+         */
+        private Duration ttl = Duration.ofHours(1);
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public enum WriteMode {
+        SYNC, WRITE_BEHIND
+    }
+
+    public enum ExecutionMode {
+        LOCK, COMBINING, PARTITIONED, LEDGER
+    }
+}
@@ -1,59 +1,382 @@
 package io.hhplus.tdd.point;
 
-import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointMetrics.TableOperation;
+import io.hhplus.tdd.point.cache.UserPointCache;
+import io.hhplus.tdd.point.exception.PointTimeoutException;
+import io.hhplus.tdd.point.exception.PointTransferUnsupportedException;
+import io.hhplus.tdd.point.execution.PartitionedPointExecutor;
+import io.hhplus.tdd.point.execution.PendingMutation;
+import io.hhplus.tdd.point.execution.UserPointCombiner;
+import io.hhplus.tdd.point.history.PointHistoryIndex;
+import io.hhplus.tdd.point.history.PointHistoryRollup;
+import io.hhplus.tdd.point.history.PointHistoryWriter;
+import io.hhplus.tdd.point.idempotency.IdempotencyStore;
+import io.hhplus.tdd.point.journal.PointJournal;
+import io.hhplus.tdd.point.ledger.BalanceLedger;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 @Service
 public class PointService {
     private final UserPointTable userPointTable;
-    private final PointHistoryTable pointHistoryTable;
     private final PointValidator validator;
     private final UserPointLockManager lockManager;
+    private final PointHistoryWriter historyWriter;
+    private final PointHistoryIndex historyIndex;
+    private final PointHistoryRollup historyRollup;
+    private final UserPointCache balanceCache;
+    private final List<UserPointListener> balanceListeners;
+    private final PointVersions versions;
+    private final List<UserPointSource> balanceSources;
+    private final PointJournal journal;
+    private final UserPointCombiner combiner;
+    private final PartitionedPointExecutor partitionExecutor;
+    private final BalanceLedger ledger;
+    private final IdempotencyStore idempotencyStore;
+    private final Executor taskExecutor;
+    private final Executor transferExecutor;
+    private final PointMetrics metrics;
+    private final PointProperties.ExecutionMode executionMode;
+    private final Duration admissionTimeout;
 
     public PointService(
             UserPointTable userPointTable,
-            PointHistoryTable pointHistoryTable,
             PointValidator validator,
-            UserPointLockManager lockManager) {
+            UserPointLockManager lockManager,
+            PointHistoryWriter historyWriter,
+            PointHistoryIndex historyIndex,
+            PointHistoryRollup historyRollup,
+            UserPointCache balanceCache,
+            List<UserPointListener> balanceListeners,
+            PointVersions versions,
+            List<UserPointSource> balanceSources,
+            Optional<PointJournal> journal,
+            UserPointCombiner combiner,
+            PartitionedPointExecutor partitionExecutor,
+            BalanceLedger ledger,
+            IdempotencyStore idempotencyStore,
+            @Qualifier("pointTaskExecutor") Executor taskExecutor,
+            @Qualifier("pointTransferExecutor") Executor transferExecutor,
+            PointMetrics metrics,
+            PointProperties properties) {
         this.userPointTable = userPointTable;
-        this.pointHistoryTable = pointHistoryTable;
         this.validator = validator;
         this.lockManager = lockManager;
+        this.historyWriter = historyWriter;
+        this.historyIndex = historyIndex;
+        this.historyRollup = historyRollup;
+        this.balanceCache = balanceCache;
+        this.balanceListeners = balanceListeners;
+        this.versions = versions;
+        this.balanceSources = balanceSources;
+        this.journal = journal.orElse(null);
+        this.combiner = combiner;
+        this.partitionExecutor = partitionExecutor;
+        this.ledger = ledger;
+        this.idempotencyStore = idempotencyStore;
+        this.taskExecutor = taskExecutor;
+        this.transferExecutor = transferExecutor;
+        this.metrics = metrics;
+        this.executionMode = properties.getExecution().getMode();
+        this.admissionTimeout = properties.getAdmission().getTimeout();
     }
 
     public UserPoint getUserPoint(long id) {
         validator.validateId(id);
-        return userPointTable.selectById(id);
+        if (executionMode == PointProperties.ExecutionMode.LEDGER) {
+            return ledger.get(id, this::selectBalance);
+        }
+        return balanceCache.get(id, this::selectBalance);
+    }
+
+    /**
+     * 테이블을 읽지 않고 알 수 있는 현재 잔액 (조건부 조회의 검증값), 모르면 null
+     * - 원장 모드는 메모리 원장이, 그 외에는 잔액을 저장할 때마다 갱신되는 PointVersions 가 기준이다.
+     */
+    public UserPoint findKnownUserPoint(long id) {
+        validator.validateId(id);
+        if (executionMode == PointProperties.ExecutionMode.LEDGER) {
+            return ledger.getIfLoaded(id);
+        }
+        return versions.balance(id);
+    }
+
+    /**
+     * 여러 유저의 포인트를 pointTaskExecutor 에서 동시에 조회한다.
+     * - 중복 id 는 한 번만 조회하고, 처음 나온 순서대로 반환한다.
+     */
+    public List<UserPoint> getUserPoints(Collection<Long> ids) {
+        validator.validateIds(ids);
+        List<Long> distinctIds = ids.stream().distinct().toList();
+
+        List<CompletableFuture<UserPoint>> reads = distinctIds.stream()
+                .map(id -> CompletableFuture.supplyAsync(() -> getUserPoint(id), taskExecutor))
+                .toList();
+        return reads.stream()
+                .map(PointService::join)
+                .toList();
     }
 
     public List<PointHistory> getPointHistory(long id) {
         validator.validateId(id);
-        return pointHistoryTable.selectAllByUserId(id);
+        flushHistory(id);
+        return historyIndex.findAll(id);
+    }
+
+    /**
+     * 이력 조회에 나올 마지막 이력의 버전 (조건부 조회의 검증값), 모르면 null
+     * - 이력 조회와 같이 아직 기록 중인 이력을 먼저 기다린다.
+     */
+    public PointVersions.HistoryVersion findLastHistoryVersion(long id) {
+        validator.validateId(id);
+        flushHistory(id);
+        return versions.lastHistory(id);
+    }
+
+    public PointHistoryPage getPointHistoryPage(long id, Long cursor, int limit) {
+        validator.validateId(id);
+        validator.validatePageLimit(limit);
+        flushHistory(id);
+        return historyIndex.findPage(id, cursor, limit);
+    }
+
+    /**
+     * 이력을 목록으로 모으지 않고 하나씩 흘려보낸다. (대량 내보내기용)
+     * 검증과 기록 대기는 호출 시점에 끝나므로, 응답을 쓰기 전에 오류를 알 수 있다.
+     *
+     * @param fromMillis 포함, null 이면 처음부터
+     * @param toMillis   미포함, null 이면 끝까지
+     */
+    public Stream<PointHistory> streamPointHistory(long id, Long fromMillis, Long toMillis) {
+        long from = fromMillis == null ? Long.MIN_VALUE : fromMillis;
+        long to = toMillis == null ? Long.MAX_VALUE : toMillis;
+        validator.validateId(id);
+        validator.validateTimeRange(from, to);
+        flushHistory(id);
+        return historyIndex.stream(id, from, to);
+    }
+
+    /**
+     * 기간 안의 충전/사용 합계를 bucket 단위로 조회한다. (미리 집계한 값이므로 이력 수와 관계없다)
+     *
+     * @param fromMillis 포함 (해당 구간의 처음부터), null 이면 처음부터
+     * @param toMillis   미포함, null 이면 끝까지
+     */
+    public PointSummary getPointSummary(long id, SummaryBucket bucket, Long fromMillis, Long toMillis) {
+        long from = fromMillis == null ? Long.MIN_VALUE : fromMillis;
+        long to = toMillis == null ? Long.MAX_VALUE : toMillis;
+        validator.validateId(id);
+        validator.validateTimeRange(from, to);
+        flushHistory(id);
+        return historyRollup.summarize(id, bucket, from, to);
     }
 
     public UserPoint chargePoint(long id, long amount) {
+        return metrics.recordOperation(TransactionType.CHARGE, () -> {
+            validator.validateId(id);
+            validator.validateChargeAmount(amount);
+
+            return switch (executionMode) {
+                case LOCK -> lockManager.isHot(id)
+                        ? combine(id, TransactionType.CHARGE, amount)
+                        : chargeWithLock(id, amount);
+                case COMBINING -> combine(id, TransactionType.CHARGE, amount);
+                case PARTITIONED -> executeOnPartition(id, TransactionType.CHARGE, amount);
+                case LEDGER -> applyOnLedger(id, TransactionType.CHARGE, amount);
+            };
+        });
+    }
+
+    public UserPoint usePoint(long id, long amount) {
+        return metrics.recordOperation(TransactionType.USE, () -> {
+            validator.validateId(id);
+            validator.validateUseAmount(amount);
+
+            return switch (executionMode) {
+                case LOCK -> lockManager.isHot(id)
+                        ? combine(id, TransactionType.USE, amount)
+                        : useWithLock(id, amount);
+                case COMBINING -> combine(id, TransactionType.USE, amount);
+                case PARTITIONED -> executeOnPartition(id, TransactionType.USE, amount);
+                case LEDGER -> applyOnLedger(id, TransactionType.USE, amount);
+            };
+        });
+    }
+
+    /**
+     * 같은 idempotencyKey 의 재시도는 다시 충전하지 않고 처음 결과를 돌려준다. (null 이면 매번 충전)
+     */
+    public UserPoint chargePoint(long id, long amount, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return chargePoint(id, amount);
+        }
+        validator.validateId(id);
+        validator.validateIdempotencyKey(idempotencyKey);
+        return idempotencyStore.execute(id, idempotencyKey, TransactionType.CHARGE, amount, () -> chargePoint(id, amount));
+    }
+
+    /**
+     * 같은 idempotencyKey 의 재시도는 다시 사용하지 않고 처음 결과를 돌려준다. (null 이면 매번 사용)
+     */
+    public UserPoint usePoint(long id, long amount, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return usePoint(id, amount);
+        }
         validator.validateId(id);
-        validator.validateChargeAmount(amount);
+        validator.validateIdempotencyKey(idempotencyKey);
+        return idempotencyStore.execute(id, idempotencyKey, TransactionType.USE, amount, () -> usePoint(id, amount));
+    }
 
+    /**
+     * fromId 의 포인트를 toId 로 옮긴다. (잔액 두 건과 이력 두 건을 두 유저의 락 안에서 기록)
+     * - 락은 id 가 작은 유저부터 잡으므로 반대 방향 이체가 동시에 들어와도 교착되지 않는다.
+     * - 두 유저의 조회, 저장, 이력 기록은 보내는 쪽은 호출 스레드에서, 받는 쪽은 pointTransferExecutor 에서 동시에 실행한다.
+     * - PARTITIONED, LEDGER 모드는 유저 락 없이 잔액을 바꾸므로 지원하지 않는다. (501)
+     * - 둘 다 반영되거나 둘 다 반영되지 않는 것은 이 프로세스 안에서만 보장한다. 재시작 후에는 저널이 기준이다.
+     */
+    public PointTransferResult transfer(long fromId, long toId, long amount) {
+        return metrics.recordTransfer(() -> {
+            validator.validateId(fromId);
+            validator.validateId(toId);
+            validator.validateTransfer(fromId, toId, amount);
+            if (executionMode == PointProperties.ExecutionMode.PARTITIONED
+                    || executionMode == PointProperties.ExecutionMode.LEDGER) {
+                throw new PointTransferUnsupportedException(executionMode.name());
+            }
+            return transferWithLocks(fromId, toId, amount);
+        });
+    }
+
+    private PointTransferResult transferWithLocks(long fromId, long toId, long amount) {
+        long firstId = Math.min(fromId, toId);
+        long secondId = Math.max(fromId, toId);
+        long deadline = System.nanoTime() + admissionNanos();
         try {
-            if (!lockManager.tryLock(id, 5, TimeUnit.SECONDS)) {
-                throw new RuntimeException("포인트 충전 처리 중 타임아웃이 발생했습니다.");
+            if (!lockManager.tryLock(firstId, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw new PointTimeoutException("포인트 이체 처리 중 타임아웃이 발생했습니다.");
             }
             try {
-                UserPoint currentPoint = getUserPoint(id);
-                validator.validateAmountOverflow(currentPoint.point(), amount);
+                if (!lockManager.tryLock(secondId, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new PointTimeoutException("포인트 이체 처리 중 타임아웃이 발생했습니다.");
+                }
+                try {
+                    return applyTransfer(fromId, toId, amount);
+                } finally {
+                    lockManager.unlock(secondId);
+                }
+            } finally {
+                lockManager.unlock(firstId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("포인트 이체가 중단되었습니다.", e);
+        }
+    }
 
-                UserPoint updatedPoint = userPointTable.insertOrUpdate(
-                        id,
-                        currentPoint.point() + amount
-                );
-                pointHistoryTable.insert(id, amount, TransactionType.CHARGE, System.currentTimeMillis());
+    /**
+     * 두 유저의 락을 잡은 상태에서 호출된다.
+     * - 받는 쪽 작업만 pointTransferExecutor 에 넘긴다. 그 풀에는 락을 기다리는 작업이 없으므로 락을 잡은 채 기다려도 된다.
+     * - 저널에 이체를 먼저 남기고(실패하면 아무것도 바꾸지 않는다) 두 잔액을 테이블에 저장한다.
+     *   캐시와 리스너에는 둘 다 저장된 뒤에야 알리므로 한쪽만 바뀐 잔액은 보이지 않는다.
+     * - 한쪽 저장이 실패하면 저장된 쪽을 원래 잔액으로 되돌리고 저널에 취소를 남긴다. 이력은 남기지 않는다.
+     */
+    private PointTransferResult applyTransfer(long fromId, long toId, long amount) {
+        CompletableFuture<UserPoint> toRead = CompletableFuture.supplyAsync(() -> getUserPoint(toId), transferExecutor);
+        long fromPoint = getUserPoint(fromId).point();
+        long toPoint = join(toRead).point();
+        validator.validateBalance(fromPoint, amount);
+        validator.validateAmountOverflow(toPoint, amount);
 
-                return updatedPoint;
+        // 두 이력이 같은 시각을 가져야 저널의 이체 레코드 하나로 그대로 복구된다.
+        long updateMillis = System.currentTimeMillis();
+        if (journal != null) {
+            journal.appendTransfer(fromId, toId, amount, updateMillis);
+        }
+
+        CompletableFuture<UserPoint> toWrite = CompletableFuture.supplyAsync(
+                () -> storeBalance(toId, toPoint + amount), transferExecutor);
+        UserPoint from = null;
+        UserPoint to = null;
+        RuntimeException failure = null;
+        try {
+            from = storeBalance(fromId, fromPoint - amount);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        try {
+            to = join(toWrite);
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                failure = e;
+            } else {
+                failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) {
+            if (from != null) {
+                restoreBalance(fromId, fromPoint, failure);
+            }
+            if (to != null) {
+                restoreBalance(toId, toPoint, failure);
+            }
+            cancelTransferJournal(fromId, toId, amount, updateMillis, failure);
+            throw failure;
+        }
+
+        publishBalance(from);
+        publishBalance(to);
+        CompletableFuture<Void> toHistory = CompletableFuture.runAsync(
+                () -> historyWriter.append(toId, amount, TransactionType.CHARGE, updateMillis), transferExecutor);
+        historyWriter.append(fromId, amount, TransactionType.USE, updateMillis);
+        join(toHistory);
+        return new PointTransferResult(from, to);
+    }
+
+    /**
+     * 이체 중 저장된 잔액을 되돌린다. 되돌리지 못하면 그 예외를 이체 실패 예외에 붙인다.
+     */
+    private void restoreBalance(long id, long point, RuntimeException failure) {
+        try {
+            storeBalance(id, point);
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * 되돌린 이체가 재시작할 때 다시 반영되지 않도록 저널에 취소를 남긴다.
+     */
+    private void cancelTransferJournal(long fromId, long toId, long amount, long updateMillis, RuntimeException failure) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.appendTransferCancel(fromId, toId, amount, updateMillis);
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private UserPoint chargeWithLock(long id, long amount) {
+        try {
+            if (!lockManager.tryLock(id, admissionNanos(), TimeUnit.NANOSECONDS)) {
+                throw new PointTimeoutException("포인트 충전 처리 중 타임아웃이 발생했습니다.");
+            }
+            try {
+                return applyCharge(id, amount);
             } finally {
                 lockManager.unlock(id);
             }
@@ -63,25 +386,13 @@ public class PointService {
         }
     }
 
-    public UserPoint usePoint(long id, long amount) {
-        validator.validateId(id);
-        validator.validateUseAmount(amount);
-
+    private UserPoint useWithLock(long id, long amount) {
         try {
-            if (!lockManager.tryLock(id, 5, TimeUnit.SECONDS)) {
-                throw new RuntimeException("포인트 사용 처리 중 타임아웃이 발생했습니다.");
+            if (!lockManager.tryLock(id, admissionNanos(), TimeUnit.NANOSECONDS)) {
+                throw new PointTimeoutException("포인트 사용 처리 중 타임아웃이 발생했습니다.");
             }
             try {
-                UserPoint currentPoint = getUserPoint(id);
-                validator.validateBalance(currentPoint.point(), amount);
-
-                UserPoint updatedPoint = userPointTable.insertOrUpdate(
-                        id,
-                        currentPoint.point() - amount
-                );
-                pointHistoryTable.insert(id, amount, TransactionType.USE, System.currentTimeMillis());
-
-                return updatedPoint;
+                return applyUse(id, amount);
             } finally {
                 lockManager.unlock(id);
             }
@@ -90,4 +401,221 @@ public class PointService {
             throw new RuntimeException("포인트 사용이 중단되었습니다.", e);
         }
     }
+
+    /**
+     * 같은 유저의 작업은 한 파티션 스레드에서만 실행되므로 락 없이 반영한다.
+     * - 제한 시간 안에 실행 차례가 오지 않은 요청은 반영하지 않고 타임아웃으로 끝낸다.
+     */
+    private UserPoint executeOnPartition(long id, TransactionType type, long amount) {
+        long deadline = System.nanoTime() + admissionNanos();
+        CompletableFuture<UserPoint> result = partitionExecutor.submit(id, () -> {
+            if (System.nanoTime() - deadline > 0) {
+                throw new PointTimeoutException(type == TransactionType.CHARGE
+                        ? "포인트 충전 처리 중 타임아웃이 발생했습니다."
+                        : "포인트 사용 처리 중 타임아웃이 발생했습니다.");
+            }
+            return type == TransactionType.CHARGE ? applyCharge(id, amount) : applyUse(id, amount);
+        });
+        return join(result);
+    }
+
+    /**
+     * 메모리 원장에 바로 반영하고, 테이블/이력은 반영 순서(version)대로 비동기 기록한다.
+     * - 저널을 쓰면 원장이 유저별로 version 순서대로 저널에 남긴 뒤에 반영하므로, 응답한 변경은 모두 저널에 있다.
+     */
+    private UserPoint applyOnLedger(long id, TransactionType type, long amount) {
+        BalanceLedger.BalanceCheck check = type == TransactionType.CHARGE
+                ? validator::validateAmountOverflow
+                : validator::validateBalance;
+        BalanceLedger.Journaler journaler = journal == null ? null : this::appendJournal;
+        return ledger.apply(id, type, amount, this::selectBalance, check, journaler, this::commitLedger);
+    }
+
+    /**
+     * 이어서 반영된 변경들의 잔액은 마지막 값만 저장하고 이력은 변경마다 남긴다. (저널은 반영할 때 이미 남겼다)
+     */
+    private void commitLedger(long id, long point, List<BalanceLedger.Change> changes) {
+        writeBalance(id, point);
+        for (BalanceLedger.Change change : changes) {
+            historyWriter.append(id, change.amount(), change.type(), change.updateMillis());
+        }
+    }
+
+    /**
+     * 이미 완료된 이 유저의 충전/사용 이력은 조회되도록 아직 기록 중인 이력을 기다린다.
+     * (원장 모드의 비동기 기록, write-behind 대기열)
+     */
+    private void flushHistory(long id) {
+        if (executionMode == PointProperties.ExecutionMode.LEDGER) {
+            ledger.awaitCommitted(id, admissionNanos(), TimeUnit.NANOSECONDS);
+        }
+        historyWriter.flush(id);
+    }
+
+    private UserPoint applyCharge(long id, long amount) {
+        UserPoint currentPoint = getUserPoint(id);
+        validator.validateAmountOverflow(currentPoint.point(), amount);
+
+        long updateMillis = System.currentTimeMillis();
+        appendJournal(id, TransactionType.CHARGE, amount, updateMillis);
+        UserPoint updatedPoint = publishBalance(storeJournaled(id, currentPoint.point() + amount,
+                List.of(new JournaledMutation(TransactionType.CHARGE, amount)), updateMillis));
+        historyWriter.append(id, amount, TransactionType.CHARGE, updateMillis);
+
+        return updatedPoint;
+    }
+
+    private UserPoint applyUse(long id, long amount) {
+        UserPoint currentPoint = getUserPoint(id);
+        validator.validateBalance(currentPoint.point(), amount);
+
+        long updateMillis = System.currentTimeMillis();
+        appendJournal(id, TransactionType.USE, amount, updateMillis);
+        UserPoint updatedPoint = publishBalance(storeJournaled(id, currentPoint.point() - amount,
+                List.of(new JournaledMutation(TransactionType.USE, amount)), updateMillis));
+        historyWriter.append(id, amount, TransactionType.USE, updateMillis);
+
+        return updatedPoint;
+    }
+
+    private UserPoint combine(long id, TransactionType type, long amount) {
+        try {
+            return combiner.submit(id, type, amount, admissionNanos(), TimeUnit.NANOSECONDS, this::applyBatch);
+        } catch (TimeoutException e) {
+            throw new PointTimeoutException(type == TransactionType.CHARGE
+                    ? "포인트 충전 처리 중 타임아웃이 발생했습니다."
+                    : "포인트 사용 처리 중 타임아웃이 발생했습니다.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(type == TransactionType.CHARGE
+                    ? "포인트 충전이 중단되었습니다."
+                    : "포인트 사용이 중단되었습니다.", e);
+        }
+    }
+
+    /**
+     * 유저 락을 잡은 leader 가 모인 요청을 한 번의 조회/저장으로 반영한다.
+     * - 요청마다 검증하고 저널에 남겨서, 실패한 요청만 예외로 완료하고 나머지는 계속 반영한다.
+     */
+    private void applyBatch(long id, List<PendingMutation> batch) {
+        long balance = getUserPoint(id).point();
+        long updateMillis = System.currentTimeMillis();
+        List<PendingMutation> applied = new ArrayList<>(batch.size());
+        List<Long> balances = new ArrayList<>(batch.size());
+
+        for (PendingMutation mutation : batch) {
+            try {
+                if (mutation.type() == TransactionType.CHARGE) {
+                    validator.validateAmountOverflow(balance, mutation.amount());
+                } else {
+                    validator.validateBalance(balance, mutation.amount());
+                }
+                appendJournal(id, mutation.type(), mutation.amount(), updateMillis);
+                balance += mutation.type() == TransactionType.CHARGE ? mutation.amount() : -mutation.amount();
+                applied.add(mutation);
+                balances.add(balance);
+            } catch (RuntimeException e) {
+                mutation.fail(e);
+            }
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+
+        UserPoint updatedPoint = publishBalance(storeJournaled(id, balance, applied.stream()
+                .map(mutation -> new JournaledMutation(mutation.type(), mutation.amount()))
+                .toList(), updateMillis));
+        for (int i = 0; i < applied.size(); i++) {
+            PendingMutation mutation = applied.get(i);
+            historyWriter.append(id, mutation.amount(), mutation.type(), updateMillis);
+            mutation.complete(new UserPoint(id, balances.get(i), updatedPoint.updateMillis()));
+        }
+    }
+
+    /**
+     * 스냅샷이나 저널에서 읽어 온 유저는 테이블 대신 그 메모리 저장소에서 읽는다.
+     * (잔액을 저장할 때마다 그 저장소도 최신 값으로 바뀐다)
+     */
+    private UserPoint selectBalance(long id) {
+        for (UserPointSource source : balanceSources) {
+            UserPoint known = source.find(id);
+            if (known != null) {
+                return known;
+            }
+        }
+        return metrics.recordTable(TableOperation.USER_POINT_SELECT, () -> userPointTable.selectById(id));
+    }
+
+    /**
+     * 락/파티션/결합 대기에 쓸 수 있는 남은 시간 (컨트롤러에서 들어온 요청은 들어온 시점부터 잰다)
+     */
+    private long admissionNanos() {
+        return RequestDeadline.remainingNanos(admissionTimeout);
+    }
+
+    /**
+     * 충전/사용을 잔액에 반영하기 전에 저널에 남긴다. (저널을 쓰지 않으면 아무것도 하지 않는다)
+     * - 여기서 예외가 나면 반영하지 않는다. 남긴 뒤 잔액을 저장하지 못하면 storeJournaled 가 취소를 남긴다.
+     * - 레코드가 디스크에 반영된 뒤에 돌아오므로, 응답한 변경은 재시작하면 저널대로 복구된다.
+     */
+    private void appendJournal(long id, TransactionType type, long amount, long updateMillis) {
+        if (journal != null) {
+            journal.append(id, amount, type, updateMillis);
+        }
+    }
+
+    /**
+     * 저널에 남긴 충전/사용의 잔액을 저장한다. 저장하지 못하면 재시작할 때 반영되지 않도록 나중 것부터 취소를 남긴다.
+     */
+    private UserPoint storeJournaled(long id, long point, List<JournaledMutation> journaled, long updateMillis) {
+        try {
+            return storeBalance(id, point);
+        } catch (RuntimeException failure) {
+            if (journal != null) {
+                for (int i = journaled.size() - 1; i >= 0; i--) {
+                    JournaledMutation mutation = journaled.get(i);
+                    try {
+                        journal.appendCancel(id, mutation.amount(), mutation.type(), updateMillis);
+                    } catch (RuntimeException e) {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            throw failure;
+        }
+    }
+
+    private record JournaledMutation(TransactionType type, long amount) {
+    }
+
+    private UserPoint writeBalance(long id, long point) {
+        return publishBalance(storeBalance(id, point));
+    }
+
+    /**
+     * 테이블에만 저장한다. 캐시와 리스너에는 publishBalance 로 알린다.
+     */
+    private UserPoint storeBalance(long id, long point) {
+        return metrics.recordTable(
+                TableOperation.USER_POINT_UPSERT,
+                () -> userPointTable.insertOrUpdate(id, point)
+        );
+    }
+
+    private UserPoint publishBalance(UserPoint updatedPoint) {
+        balanceCache.put(updatedPoint);
+        balanceListeners.forEach(listener -> listener.onWritten(updatedPoint));
+        return updatedPoint;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 }
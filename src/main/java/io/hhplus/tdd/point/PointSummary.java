@@ -0,0 +1,17 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 유저의 기간별 충전/사용 합계
+ * - entries : 이력이 있는 구간만 오래된 순서로
+ * - totalCharged, totalUsed : entries 의 합
+ */
+public record PointSummary(
+        long userId,
+        SummaryBucket bucket,
+        List<PointSummaryEntry> entries,
+        long totalCharged,
+        long totalUsed
+) {
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 한 구간의 충전/사용 합계
+ * - bucketStartMillis : 구간 시작 시각
+ */
+public record PointSummaryEntry(
+        long bucketStartMillis,
+        long charged,
+        long used
+) {
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 이체 요청 (fromUserId 의 포인트를 toUserId 로 옮긴다)
+ */
+public record PointTransfer(
+        long fromUserId,
+        long toUserId,
+        long amount
+) {
+}
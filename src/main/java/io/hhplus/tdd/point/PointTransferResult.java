@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 이체 후 두 유저의 잔액
+ */
+public record PointTransferResult(
+        UserPoint from,
+        UserPoint to
+) {
+}
@@ -1,25 +1,78 @@
 package io.hhplus.tdd.point;
 
 import io.hhplus.tdd.point.exception.InsufficientPointException;
+import io.hhplus.tdd.point.exception.InvalidPointRequestException;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+
 @Component
 public class PointValidator {
+    public static final int MAX_PAGE_LIMIT = 100;
+    public static final int MAX_BATCH_SIZE = 1_000;
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     public void validateId(long id) {
         if (id <= 0) {
-            throw new IllegalArgumentException("유효하지 않은 ID입니다.");
+            throw new InvalidPointRequestException("유효하지 않은 ID입니다.");
+        }
+    }
+
+    /**
+     * 다건 조회의 id 목록 (본문/쿼리에서 비어 있는 값은 null 로 들어온다)
+     */
+    public void validateIds(Collection<Long> ids) {
+        validateBatchSize(ids.size());
+        for (Long id : ids) {
+            if (id == null) {
+                throw new InvalidPointRequestException("유효하지 않은 ID입니다.");
+            }
+            validateId(id);
         }
     }
 
     public void validateChargeAmount(long amount) {
         if (amount <= 0) {
-            throw new IllegalArgumentException("충전 포인트는 0보다 커야 합니다.");
+            throw new InvalidPointRequestException("충전 포인트는 0보다 커야 합니다.");
         }
     }
 
     public void validateUseAmount(long amount) {
         if (amount <= 0) {
-            throw new IllegalArgumentException("사용 포인트는 0보다 커야 합니다.");
+            throw new InvalidPointRequestException("사용 포인트는 0보다 커야 합니다.");
+        }
+    }
+
+    public void validateTransfer(long fromId, long toId, long amount) {
+        if (fromId == toId) {
+            throw new InvalidPointRequestException("같은 유저에게는 이체할 수 없습니다.");
+        }
+        if (amount <= 0) {
+            throw new InvalidPointRequestException("이체 포인트는 0보다 커야 합니다.");
+        }
+    }
+
+    public void validatePageLimit(int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_LIMIT) {
+            throw new InvalidPointRequestException("조회 개수는 1 이상 " + MAX_PAGE_LIMIT + " 이하여야 합니다.");
+        }
+    }
+
+    public void validateTimeRange(long fromMillis, long toMillis) {
+        if (fromMillis > toMillis) {
+            throw new InvalidPointRequestException("조회 시작 시각은 종료 시각보다 늦을 수 없습니다.");
+        }
+    }
+
+    public void validateIdempotencyKey(String key) {
+        if (key.isBlank() || key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidPointRequestException("Idempotency-Key 는 1자 이상 " + MAX_IDEMPOTENCY_KEY_LENGTH + "자 이하여야 합니다.");
+        }
+    }
+
+    public void validateBatchSize(int size) {
+        if (size <= 0 || size > MAX_BATCH_SIZE) {
+            throw new InvalidPointRequestException("일괄 처리 건수는 1 이상 " + MAX_BATCH_SIZE + " 이하여야 합니다.");
         }
     }
 
@@ -31,7 +84,7 @@ public class PointValidator {
 
     public void validateAmountOverflow(long current, long amount) {
         if (Long.MAX_VALUE - current < amount) {
-            throw new IllegalArgumentException("충전 포인트가 너무 큽니다.");
+            throw new InvalidPointRequestException("충전 포인트가 너무 큽니다.");
         }
     }
 } 
\ No newline at end of file
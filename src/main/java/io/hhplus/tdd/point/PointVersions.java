@@ -0,0 +1,69 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.point.history.PointHistoryListener;
+import io.hhplus.tdd.point.store.LongBalanceStore;
+
+/**
+ * 조건부 조회(ETag/Last-Modified)에 쓰는 유저별 최신 잔액과 마지막 이력의 버전
+ * - 잔액이 저장되거나 이력이 기록될 때만 갱신하고, 조회 결과로는 채우지 않는다. (늦게 끝난 조회가 새 값을 덮지 않도록)
+ * - 항목이 없으면 모른다는 뜻이므로 호출하는 쪽이 테이블에서 읽는다.
+ * - 검증에 필요한 값만 유저마다 객체 없이 LongBalanceStore 슬롯(24 byte)에 둔다.
+ *   잔액은 (잔액, 저장 시각), 이력은 (마지막 이력 id, 그 시각)이다.
+ * - 각 저장소는 maxUsers 까지만 두고 넘으면 있던 유저를 지운다. 지워진 유저는 다음 조회 때 테이블에서 읽어 버전을 만든다.
+ */
+public class PointVersions implements UserPointListener, PointHistoryListener {
+    private static final int INITIAL_USERS = 1024;
+
+    private final LongBalanceStore balances;
+    private final LongBalanceStore lastHistories;
+
+    public PointVersions(int maxUsers) {
+        this.balances = new LongBalanceStore(Math.min(INITIAL_USERS, maxUsers), false, maxUsers);
+        this.lastHistories = new LongBalanceStore(Math.min(INITIAL_USERS, maxUsers), false, maxUsers);
+    }
+
+    @Override
+    public void onWritten(UserPoint userPoint) {
+        balances.put(userPoint.id(), userPoint.point(), userPoint.updateMillis());
+    }
+
+    /**
+     * 한 유저의 이력은 id 순서대로 기록되지만, 혹시 늦게 들어온 이력이 있어도 id 가 큰 쪽만 남긴다.
+     */
+    @Override
+    public void onInserted(PointHistory history) {
+        UserPoint current = lastHistories.get(history.userId());
+        if (current == null || current.point() < history.id()) {
+            lastHistories.put(history.userId(), history.id(), history.updateMillis());
+        }
+    }
+
+    /**
+     * 마지막으로 저장된 잔액, 모르면 null
+     */
+    public UserPoint balance(long userId) {
+        return balances.get(userId);
+    }
+
+    /**
+     * 마지막으로 기록된 이력의 버전, 모르면 null
+     */
+    public HistoryVersion lastHistory(long userId) {
+        UserPoint stored = lastHistories.get(userId);
+        return stored == null ? null : new HistoryVersion(stored.point(), stored.updateMillis());
+    }
+
+    public int size() {
+        return Math.max(balances.size(), lastHistories.size());
+    }
+
+    /**
+     * 두 저장소의 슬롯 배열이 차지하는 메모리
+     */
+    public long memoryBytes() {
+        return balances.memoryBytes() + lastHistories.memoryBytes();
+    }
+
+    public record HistoryVersion(long lastId, long updateMillis) {
+    }
+}
@@ -0,0 +1,49 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 이력 스트리밍(StreamingResponseBody)의 MVC 비동기 설정
+ * - StreamingResponseBody 는 MVC 비동기 실행기에서 실행되므로, 그 실행기를 pointStreamExecutor 로 바꾼다.
+ * - Callable 로 처리되는 응답은 이력 스트리밍뿐이므로 그 응답만 point.history.stream-timeout 까지 열어 둔다.
+ *   (CompletableFuture 로 끝나는 다른 비동기 응답은 컨테이너 기본값을 그대로 쓴다)
+ */
+@Configuration
+public class PointWebConfig implements WebMvcConfigurer {
+    private final ExecutorService streamExecutor;
+    private final Duration streamTimeout;
+
+    public PointWebConfig(
+            @Qualifier("pointStreamExecutor") ExecutorService streamExecutor,
+            PointProperties properties) {
+        this.streamExecutor = streamExecutor;
+        this.streamTimeout = properties.getHistory().getStreamTimeout();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(streamExecutor));
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            /**
+             * 비동기 처리를 시작하기 전에 호출되므로 이 요청의 제한 시간만 바꿀 수 있다.
+             */
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest) {
+                    asyncRequest.setTimeout(streamTimeout.toMillis());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.point.exception.PointTimeoutException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 요청이 컨트롤러에 들어온 시점부터 잰 처리 기한
+ * - 컨트롤러가 정해 작업을 실행하는 스레드에 걸어 두고, 서비스의 락/파티션/결합 대기는 남은 시간만 기다린다.
+ *   (요청 스레드 풀 대기열에서 보낸 시간도 기한에 들어간다)
+ * - 걸려 있지 않으면(내부 호출) 대기를 시작하는 시점부터 admission.timeout 을 쓴다.
+ * - 일괄 처리는 시작할 때 한 번 정한 기한을 유저별 작업 스레드마다 건다.
+ */
+public final class RequestDeadline {
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * 기한이 이미 지났으면 work 를 실행하지 않고 바로 타임아웃으로 끝낸다.
+     */
+    public static <T> T callWithin(long deadlineNanos, Supplier<T> work) {
+        if (System.nanoTime() - deadlineNanos >= 0) {
+            throw new PointTimeoutException("요청이 처리를 기다리는 동안 제한 시간이 지났습니다.");
+        }
+        CURRENT.set(deadlineNanos);
+        try {
+            return work.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * 현재 요청의 기한 (걸려 있지 않으면 지금부터 timeout 뒤)
+     */
+    public static long deadlineNanos(Duration timeout) {
+        Long deadline = CURRENT.get();
+        return deadline == null ? System.nanoTime() + timeout.toNanos() : deadline;
+    }
+
+    /**
+     * 현재 요청의 남은 시간 (0 이하면 이미 지남)
+     */
+    public static long remainingNanos(Duration timeout) {
+        Long deadline = CURRENT.get();
+        return deadline == null ? timeout.toNanos() : deadline - System.nanoTime();
+    }
+}
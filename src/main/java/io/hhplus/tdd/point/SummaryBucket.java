@@ -0,0 +1,27 @@
+package io.hhplus.tdd.point;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 이력 집계 단위
+ * - HOUR : 시간 / DAY : 일 / MONTH : 월 (point.summary.zone 기준)
+ */
+public enum SummaryBucket {
+    HOUR, DAY, MONTH;
+
+    /**
+     * millis 가 속한 구간의 시작 시각
+     */
+    public long floor(long millis, ZoneId zone) {
+        ZonedDateTime time = Instant.ofEpochMilli(millis).atZone(zone);
+        ZonedDateTime start = switch (this) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case MONTH -> time.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+        };
+        return start.toInstant().toEpochMilli();
+    }
+}
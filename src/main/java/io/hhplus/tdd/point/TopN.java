@@ -0,0 +1,45 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 전체를 모아 정렬하지 않고 상위 limit 개만 남긴다.
+ * - 가장 작은 항목이 맨 앞인 크기 limit 의 힙을 두고, 그보다 큰 항목이 오면 바꾼다. (n 개에 O(n log limit), 메모리는 limit 개)
+ */
+final class TopN<T> {
+    private static final int MAX_INITIAL_CAPACITY = 64;
+
+    private final int limit;
+    private final Comparator<T> order;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * @param order 클수록 앞에 온다.
+     */
+    TopN(int limit, Comparator<T> order) {
+        this.limit = Math.max(0, limit);
+        this.order = order;
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(this.limit, MAX_INITIAL_CAPACITY)), order);
+    }
+
+    void offer(T item) {
+        if (heap.size() < limit) {
+            heap.add(item);
+        } else if (limit > 0 && order.compare(item, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+
+    /**
+     * 큰 순서
+     */
+    List<T> toList() {
+        List<T> top = new ArrayList<>(heap);
+        top.sort(order.reversed());
+        return top;
+    }
+}
@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * UserPointTable 에 잔액이 저장된 직후 호출된다.
+ * - 같은 유저의 잔액은 저장된 순서대로 전달된다.
+ */
+public interface UserPointListener {
+
+    void onWritten(UserPoint userPoint);
+}
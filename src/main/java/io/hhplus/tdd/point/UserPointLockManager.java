@@ -1,25 +1,300 @@
 package io.hhplus.tdd.point;
 
+import io.hhplus.tdd.point.exception.PointOverloadedException;
+import io.hhplus.tdd.point.exception.PointTimeoutException;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * 사용자별 ReentrantLock 관리
+ * - 락을 잡고 있거나 기다리는 스레드 수(refCount)를 함께 관리하고,
+ *   아무도 쓰지 않게 된 락은 맵에서 제거해 사용자 수만큼 메모리가 늘어나지 않게 한다.
+ * - refCount 는 ConcurrentHashMap.compute 안에서만 바꾸므로 제거와 재사용이 겹치지 않는다.
+ * - refCount 가 maxQueueDepth 에 이른 사용자의 요청은 기다리지 않고 바로 거절한다.
+ * - 앞선 스레드 수 × 평균 점유 시간에서 지금 잡고 있는 스레드가 이미 쓴 시간을 뺀 예상 대기 시간이
+ *   남은 시간보다 길면 기다리지 않고 타임아웃으로 거절한다.
+ *   (평균 점유 시간은 모든 사용자의 점유 시간 지수 이동 평균이다. 0 에서 시작해 서서히 올라가므로
+ *   시작 직후 느린 첫 요청들 때문에 과하게 거절하지 않는다)
+ * - 락 대기 시간, 점유 시간, 타임아웃 횟수를 PointMetrics 에 기록한다.
+ * - 요청마다 앞서 있던 스레드 수(결합 대기열에서 기다리는 요청 포함)와 대기 시간을 HotUserDetector 에 남겨
+ *   경합이 심한 사용자를 골라낸다.
+ * - 앞선 스레드가 있던 요청의 대기 시간은 LockWaitWindow 에 남겨 최근 대기 시간이 긴 사용자를 보여준다.
+ * - 잡혀 있는 락은 잡은 시각 순서로 held 에 넣고 빼므로, 오래 잡힌 락 목록은 앞에서 limit 개만 읽는다.
+ */
 @Component
 public class UserPointLockManager {
-    private final Map<Long, ReentrantLock> userLocks = new ConcurrentHashMap<>();
-    
-    public ReentrantLock getLockForUser(long userId) {
-        return userLocks.computeIfAbsent(userId, k -> new ReentrantLock());
+    private final Map<Long, LockEntry> userLocks = new ConcurrentHashMap<>();
+    /**
+     * 지금 잡혀 있는 락 (잡은 시각이 이른 순서)
+     */
+    private final NavigableSet<Holding> held = new ConcurrentSkipListSet<>();
+    private final LongAdder evictions = new LongAdder();
+    private final PointMetrics metrics;
+    private final HotUserDetector hotUsers;
+    private final LockWaitWindow waitWindow;
+    private final int maxQueueDepth;
+    /**
+     * 점유 시간의 지수 이동 평균 (가중치 1/8). 여러 스레드가 갱신하며 일부 표본을 잃을 수 있는 근사값이다.
+     */
+    private volatile long meanHoldNanos;
+
+    public UserPointLockManager(PointMetrics metrics, PointProperties properties) {
+        PointProperties.HotUser hotUser = properties.getHotUser();
+        this.metrics = metrics;
+        this.hotUsers = new HotUserDetector(
+                hotUser.isEnabled(),
+                hotUser.getWaitersThreshold(),
+                hotUser.getWaitThreshold(),
+                hotUser.getHalfLife(),
+                hotUser.getMaxTracked()
+        );
+        this.waitWindow = new LockWaitWindow(
+                properties.getLockDiagnostics().getWindow(),
+                properties.getLockDiagnostics().getSlots()
+        );
+        this.maxQueueDepth = properties.getAdmission().getMaxQueueDepth();
     }
 
+    /**
+     * @throws PointOverloadedException 이미 maxQueueDepth 개의 스레드가 이 사용자의 락을 잡고 있거나 기다리는 경우
+     * @throws PointTimeoutException    앞선 스레드들이 평균 점유 시간만큼 쓰면 timeout 안에 차례가 오지 않는 경우
+     */
     public boolean tryLock(long userId, long timeout, TimeUnit unit) throws InterruptedException {
-        return getLockForUser(userId).tryLock(timeout, unit);
+        return tryLock(userId, timeout, unit, 0);
+    }
+
+    /**
+     * @param queuedElsewhere 락을 직접 요청하지 않고 이 스레드가 함께 처리할 차례를 기다리는 요청 수 (결합 대기열)
+     *                        경합 통계에만 더하고, 한 번의 점유로 처리되므로 예상 대기 시간에는 넣지 않는다.
+     */
+    public boolean tryLock(long userId, long timeout, TimeUnit unit, int queuedElsewhere) throws InterruptedException {
+        int[] waitersAhead = new int[1];
+        LockEntry entry = retain(userId, unit.toNanos(timeout), queuedElsewhere, waitersAhead);
+        boolean acquired = false;
+        long startedAt = System.nanoTime();
+        try {
+            acquired = entry.lock.tryLock(timeout, unit);
+            return acquired;
+        } finally {
+            long acquiredAt = System.nanoTime();
+            metrics.recordLockWait(acquiredAt - startedAt);
+            hotUsers.record(userId, waitersAhead[0] + queuedElsewhere, acquiredAt - startedAt);
+            if (waitersAhead[0] > 0) {
+                waitWindow.record(userId, acquiredAt - startedAt);
+            }
+            if (acquired) {
+                // 재진입은 바깥 점유 시간에 포함된다.
+                if (entry.lock.getHoldCount() == 1) {
+                    entry.acquiredAtNanos = acquiredAt;
+                    entry.holding = new Holding(acquiredAt, userId, entry);
+                    held.add(entry.holding);
+                }
+            } else {
+                metrics.recordLockTimeout();
+                release(userId);
+            }
+        }
     }
 
     public void unlock(long userId) {
-        getLockForUser(userId).unlock();
+        LockEntry entry = userLocks.get(userId);
+        if (entry == null) {
+            throw new IllegalMonitorStateException("잠겨 있지 않은 사용자입니다: " + userId);
+        }
+        if (entry.lock.getHoldCount() == 1) {
+            long holdNanos = System.nanoTime() - entry.acquiredAtNanos;
+            metrics.recordLockHold(holdNanos);
+            recordHold(holdNanos);
+            held.remove(entry.holding);
+            entry.holding = null;
+        }
+        entry.lock.unlock();
+        release(userId);
+    }
+
+    /**
+     * 최근 락 점유 시간의 평균
+     */
+    public long meanHoldNanos() {
+        return meanHoldNanos;
+    }
+
+    /**
+     * 현재 락을 잡고 있거나 기다리는 스레드가 있는 사용자 수
+     */
+    public int size() {
+        return userLocks.size();
+    }
+
+    /**
+     * 사용이 끝나 제거된 락의 누적 개수
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * 최근 락 경합이 심한 사용자인지
+     */
+    public boolean isHot(long userId) {
+        return hotUsers.isHot(userId);
+    }
+
+    /**
+     * 현재 hot 사용자 중 평균 대기 스레드 수가 많은 limit 명
+     */
+    public List<HotUser> hotUsers(int limit) {
+        return hotUsers.hotUsers(limit);
+    }
+
+    /**
+     * 현재 hot 사용자 수
+     */
+    public int hotUserCount() {
+        return hotUsers.hotCount();
+    }
+
+    /**
+     * 경합 정보를 추적 중인 사용자 수
+     */
+    public int contentionTrackedCount() {
+        return hotUsers.trackedCount();
+    }
+
+    /**
+     * 지금 잡혀 있는 락 중 점유 시간이 긴 limit 개
+     * - 잡은 시각 순서인 held 의 앞에서 limit 개만 읽는다. (레지스트리 전체를 훑지 않는다)
+     * - 소유 스레드와 대기 스레드 수는 조회 순간의 근사값이다.
+     */
+    public List<HeldLock> heldLocks(int limit) {
+        long now = System.nanoTime();
+        List<HeldLock> heldLocks = new ArrayList<>(Math.min(Math.max(limit, 0), 64));
+        for (Holding holding : held) {
+            if (heldLocks.size() >= limit) {
+                break;
+            }
+            // 목록을 읽는 사이 풀린 락은 건너뛴다.
+            Thread owner = holding.entry.lock.owner();
+            if (owner != null && holding.entry.holding == holding) {
+                heldLocks.add(new HeldLock(
+                        holding.userId,
+                        owner.getName(),
+                        (now - holding.acquiredAtNanos) / 1_000_000,
+                        holding.entry.lock.getQueueLength()
+                ));
+            }
+        }
+        return heldLocks;
+    }
+
+    /**
+     * 최근 window 동안 락 대기 시간이 긴 사용자 limit 명
+     */
+    public List<UserLockWait> topWaits(int limit) {
+        return waitWindow.top(limit);
+    }
+
+    /**
+     * @param timeoutNanos 락을 기다릴 수 있는 남은 시간
+     * @param waitersAhead [0] 에 이미 락을 잡고 있거나 기다리던 스레드 수를 담는다.
+     */
+    private LockEntry retain(long userId, long timeoutNanos, int queuedElsewhere, int[] waitersAhead) {
+        long meanHold = meanHoldNanos;
+        try {
+            return userLocks.compute(userId, (id, entry) -> {
+                LockEntry retained = entry == null ? new LockEntry() : entry;
+                waitersAhead[0] = retained.refCount;
+                // 이미 락을 잡은 스레드의 재진입은 대기가 아니므로 거절하지 않는다.
+                if (maxQueueDepth > 0
+                        && retained.refCount >= maxQueueDepth
+                        && !retained.lock.isHeldByCurrentThread()) {
+                    throw new PointOverloadedException();
+                }
+                if (retained.refCount > 0
+                        && !retained.lock.isHeldByCurrentThread()
+                        && estimatedWaitNanos(retained, meanHold) > timeoutNanos) {
+                    throw new PointTimeoutException("예상 대기 시간이 남은 처리 시간보다 길어 바로 거절합니다.");
+                }
+                retained.refCount++;
+                return retained;
+            });
+        } catch (PointOverloadedException e) {
+            metrics.recordLockRejection();
+            // 거절도 대기열이 가득 찬 경합이다.
+            hotUsers.record(userId, maxQueueDepth, 0);
+            throw e;
+        } catch (PointTimeoutException e) {
+            metrics.recordLockEarlyRejection();
+            hotUsers.record(userId, waitersAhead[0] + queuedElsewhere, 0);
+            throw e;
+        }
+    }
+
+    private long estimatedWaitNanos(LockEntry entry, long meanHold) {
+        long heldNanos = entry.lock.isLocked() ? System.nanoTime() - entry.acquiredAtNanos : 0;
+        return entry.refCount * meanHold - Math.min(heldNanos, meanHold);
+    }
+
+    private void recordHold(long holdNanos) {
+        long mean = meanHoldNanos;
+        meanHoldNanos = mean + ((holdNanos - mean) >> 3);
+    }
+
+    private void release(long userId) {
+        userLocks.computeIfPresent(userId, (id, entry) -> {
+            if (--entry.refCount == 0) {
+                evictions.increment();
+                return null;
+            }
+            return entry;
+        });
+    }
+
+    private static final class LockEntry {
+        private final OwnedLock lock = new OwnedLock();
+        private int refCount;
+        // 아래 필드는 락을 잡은 스레드만 쓰고, 진단 조회가 읽는다.
+        private volatile long acquiredAtNanos;
+        private volatile Holding holding;
+    }
+
+    /**
+     * held 의 항목. 같은 시각에 잡은 락은 userId 로 구분한다.
+     */
+    private record Holding(long acquiredAtNanos, long userId, LockEntry entry) implements Comparable<Holding> {
+        @Override
+        public int compareTo(Holding other) {
+            int byTime = Long.compare(acquiredAtNanos - other.acquiredAtNanos, 0);
+            return byTime != 0 ? byTime : Long.compare(userId, other.userId);
+        }
+    }
+
+    private static final class OwnedLock extends ReentrantLock {
+        private Thread owner() {
+            return getOwner();
+        }
+    }
+
+    /**
+     * @param holdMillis    락을 잡은 뒤 지난 시간
+     * @param queuedThreads 락을 기다리는 스레드 수
+     */
+    public record HeldLock(long userId, String ownerThread, long holdMillis, int queuedThreads) {
+    }
+
+    /**
+     * @param waits           앞선 스레드가 있어 기다린 요청 수
+     * @param totalWaitMillis 그 요청들이 기다린 시간의 합
+     */
+    public record UserLockWait(long userId, long waits, long totalWaitMillis) {
     }
-} 
\ No newline at end of file
+}
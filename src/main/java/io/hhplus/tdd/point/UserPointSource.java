@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point;
+
+/**
+ * UserPointTable 을 읽기 전에 먼저 확인하는 메모리 잔액 (스냅샷, 저널 복구)
+ * - 시작할 때 채운 유저만 알고, 그 유저의 잔액이 저장될 때마다 최신 값으로 바뀐다.
+ */
+public interface UserPointSource {
+
+    /**
+     * @return 모르는 유저면 null
+     */
+    UserPoint find(long userId);
+}
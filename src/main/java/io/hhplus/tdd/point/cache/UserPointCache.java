@@ -0,0 +1,72 @@
+package io.hhplus.tdd.point.cache;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.store.LongBalanceStore;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * UserPointTable 앞단의 잔액 캐시 (read-through / write-through)
+ * - 잔액은 PointService 만 쓰므로 put 으로 들어온 값이 가장 최신이다.
+ * - 값은 유저마다 객체 없이 LongBalanceStore 슬롯(24 byte)에 두고, UserPoint 는 get 으로 내보낼 때만 만든다.
+ * - 최대 크기를 넘으면 LongBalanceStore 가 세그먼트마다 CLOCK 으로 최근에 읽거나 쓰지 않은 유저를 지운다.
+ * - 조회 중 같은 구간에 쓰기가 있었다면 읽어 온 값이 오래된 값일 수 있으므로 캐시에 넣지 않는다.
+ */
+public class UserPointCache {
+    private static final int INITIAL_USERS = 1024;
+    private static final int STAMP_STRIPES = 64;
+
+    private final LongBalanceStore balances;
+    private final AtomicLongArray writeStamps = new AtomicLongArray(STAMP_STRIPES);
+    private final Object[] stripeLocks = new Object[STAMP_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UserPointCache(int maxSize, boolean offHeap) {
+        this.balances = new LongBalanceStore(Math.min(INITIAL_USERS, maxSize), offHeap, maxSize);
+        for (int i = 0; i < STAMP_STRIPES; i++) {
+            stripeLocks[i] = new Object();
+        }
+    }
+
+    public UserPoint get(long id, LongFunction<UserPoint> loader) {
+        UserPoint cached = balances.get(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        int stripe = stripe(id);
+        long stamp = writeStamps.get(stripe);
+        UserPoint loaded = loader.apply(id);
+        synchronized (stripeLocks[stripe]) {
+            if (writeStamps.get(stripe) == stamp && balances.get(id) == null) {
+                balances.put(id, loaded.point(), loaded.updateMillis());
+            }
+        }
+        return loaded;
+    }
+
+    public void put(UserPoint userPoint) {
+        int stripe = stripe(userPoint.id());
+        synchronized (stripeLocks[stripe]) {
+            writeStamps.incrementAndGet(stripe);
+            balances.put(userPoint.id(), userPoint.point(), userPoint.updateMillis());
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), balances.evictionCount(), balances.size());
+    }
+
+    private static int stripe(long id) {
+        return Long.hashCode(id) & (STAMP_STRIPES - 1);
+    }
+
+    public record CacheStats(long hits, long misses, long evictions, int size) {
+    }
+}
@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point.exception;
+
+/**
+ * 같은 Idempotency-Key 로 종류나 금액이 다른 요청이 들어왔을 때
+ */
+public class IdempotencyKeyConflictException extends PointException {
+    public IdempotencyKeyConflictException() {
+        super("같은 Idempotency-Key 로 다른 요청을 보낼 수 없습니다.");
+    }
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point.exception;
+
+/**
+ * 요청 값이 검증을 통과하지 못했을 때 (PointValidator)
+ * - 이 예외만 400 으로 돌려준다. 그 밖의 IllegalArgumentException 은 내부 오류(500)로 본다.
+ */
+public class InvalidPointRequestException extends PointException {
+    public InvalidPointRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point.exception;
+
+/**
+ * 한 유저에게 대기 중인 요청이 너무 많아 기다리지 않고 거절할 때
+ */
+public class PointOverloadedException extends PointException {
+    public PointOverloadedException() {
+        super("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.");
+    }
+}
@@ -0,0 +1,7 @@
+package io.hhplus.tdd.point.exception;
+
+public class PointTimeoutException extends PointException {
+    public PointTimeoutException(String message) {
+        super(message);
+    }
+}
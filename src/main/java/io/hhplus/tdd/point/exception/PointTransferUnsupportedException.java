@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point.exception;
+
+/**
+ * 유저 락 없이 잔액을 바꾸는 실행 방식(PARTITIONED, LEDGER)에서 이체를 요청했을 때
+ */
+public class PointTransferUnsupportedException extends PointException {
+    public PointTransferUnsupportedException(String executionMode) {
+        super(executionMode + " 모드에서는 이체를 지원하지 않습니다.");
+    }
+}
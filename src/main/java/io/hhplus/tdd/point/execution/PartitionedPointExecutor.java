@@ -0,0 +1,126 @@
+package io.hhplus.tdd.point.execution;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 유저 id 를 해시해서 N 개의 단일 스레드 파티션 중 하나에서만 실행한다.
+ * - 같은 유저의 작업은 항상 같은 스레드에서 제출 순서대로 실행되므로 락이 필요 없다.
+ * - 종료 시 이미 들어온 작업은 모두 처리한 뒤 스레드를 정리한다.
+ */
+public class PartitionedPointExecutor implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(PartitionedPointExecutor.class);
+
+    private final ThreadPoolExecutor[] partitions;
+    private final Duration shutdownTimeout;
+
+    public PartitionedPointExecutor(int partitionCount, Duration shutdownTimeout) {
+        this.partitions = new ThreadPoolExecutor[partitionCount];
+        this.shutdownTimeout = shutdownTimeout;
+        for (int i = 0; i < partitionCount; i++) {
+            String threadName = "point-partition-" + i;
+            AtomicInteger started = new AtomicInteger();
+            partitions[i] = new ThreadPoolExecutor(
+                    1, 1,
+                    0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName + "-" + started.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+            );
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(long userId, Supplier<T> task) {
+        PartitionTask<T> partitionTask = new PartitionTask<>(task);
+        try {
+            partitions[partitionOf(userId)].execute(partitionTask);
+        } catch (RejectedExecutionException e) {
+            partitionTask.result.completeExceptionally(e);
+        }
+        return partitionTask.result;
+    }
+
+    public int partitionOf(long userId) {
+        // 연속된 id 가 고르게 흩어지도록 섞은 뒤 나눈다.
+        return Math.floorMod(Long.hashCode(userId * 0x9E3779B97F4A7C15L), partitions.length);
+    }
+
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * 파티션별 대기 중인 작업 수
+     */
+    public List<Integer> queueDepths() {
+        return Arrays.stream(partitions)
+                .map(partition -> partition.getQueue().size())
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (int i = 0; i < partitions.length; i++) {
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (!partitions[i].awaitTermination(Math.max(remaining, 0), TimeUnit.NANOSECONDS)) {
+                    int dropped = abort(partitions[i]);
+                    log.warn("파티션 종료 대기 시간 초과: partition={}, dropped={}", i, dropped);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort(partitions[i]);
+            }
+        }
+    }
+
+    /**
+     * 실행되지 못한 작업은 기다리는 호출자가 멈추지 않도록 실패로 완료시킨다.
+     */
+    private int abort(ThreadPoolExecutor partition) {
+        List<Runnable> dropped = partition.shutdownNow();
+        for (Runnable runnable : dropped) {
+            if (runnable instanceof PartitionTask<?> task) {
+                task.result.completeExceptionally(new RejectedExecutionException("포인트 처리 파티션이 종료되었습니다."));
+            }
+        }
+        return dropped.size();
+    }
+
+    private static final class PartitionTask<T> implements Runnable {
+        private final Supplier<T> task;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private PartitionTask(Supplier<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package io.hhplus.tdd.point.execution;
+
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 처리를 기다리는 충전/사용 요청 한 건과 그 결과
+ * - 요청한 스레드는 결과가 나오거나 leader 자리를 넘겨받을 때까지 멈춰 있으므로, 완료하거나 깨울 때 그 스레드를 깨운다.
+ */
+public final class PendingMutation {
+    private final TransactionType type;
+    private final long amount;
+    private final CompletableFuture<UserPoint> result = new CompletableFuture<>();
+    private final Thread submitter;
+
+    /**
+     * 요청한 스레드에서 만든다.
+     */
+    public PendingMutation(TransactionType type, long amount) {
+        this.type = type;
+        this.amount = amount;
+        this.submitter = Thread.currentThread();
+    }
+
+    public TransactionType type() {
+        return type;
+    }
+
+    public long amount() {
+        return amount;
+    }
+
+    public void complete(UserPoint userPoint) {
+        result.complete(userPoint);
+        wake();
+    }
+
+    public void fail(RuntimeException e) {
+        result.completeExceptionally(e);
+        wake();
+    }
+
+    /**
+     * 요청한 스레드를 깨운다. (멈추기 전에 깨워도 다음 멈춤이 바로 풀린다)
+     */
+    void wake() {
+        LockSupport.unpark(submitter);
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    public CompletableFuture<UserPoint> result() {
+        return result;
+    }
+
+    /**
+     * 결과를 기다린다. 실패했다면 처리 중 발생한 예외를 그대로 던진다.
+     */
+    public UserPoint join() {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
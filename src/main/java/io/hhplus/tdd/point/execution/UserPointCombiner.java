@@ -0,0 +1,208 @@
+package io.hhplus.tdd.point.execution;
+
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.UserPointLockManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 같은 유저의 동시 요청을 모아서 한 번에 처리한다. (group commit)
+ * - 요청은 유저별 대기열에 들어가고, combining 플래그를 먼저 차지한 스레드(leader)만 유저 락을 잡는다.
+ *   leader 는 그때까지 쌓인 요청을 도착 순서대로 한 번의 조회/계산/저장으로 처리한 뒤 각 요청의 결과를 완료시킨다.
+ * - 나머지 스레드는 락을 요청하지 않고 자기 요청이 완료되거나 leader 자리를 넘겨받을 때까지 멈춰 있는다.
+ *   (락을 기다리는 스레드가 leader 하나뿐이므로 admission.max-queue-depth 가 모을 수 있는 요청 수를 제한하지 않는다)
+ * - leader 는 한 번 처리하고 물러나며, 대기열에 요청이 남아 있으면 맨 앞 요청의 스레드를 깨워 leader 를 넘긴다.
+ *   제한 시간이 지나 요청을 빼고 포기하는 스레드도 leader 가 없으면 다음 스레드를 깨운다.
+ */
+public class UserPointCombiner {
+    private final UserPointLockManager lockManager;
+    private final Map<Long, UserQueue> queues = new ConcurrentHashMap<>();
+
+    public UserPointCombiner(UserPointLockManager lockManager) {
+        this.lockManager = lockManager;
+    }
+
+    public UserPoint submit(
+            long userId,
+            TransactionType type,
+            long amount,
+            long timeout,
+            TimeUnit unit,
+            BatchApplier applier) throws InterruptedException, TimeoutException {
+        PendingMutation mutation = new PendingMutation(type, amount);
+        // 큐 참조는 요청한 스레드가 끝까지 쓴다. 비어서 맵에서 빠진 큐에 늦게 들어온 요청은
+        // 그 큐의 leader 자리를 차지해 직접 처리한다. (다른 큐의 leader 와는 유저 락으로 배타적이다)
+        UserQueue queue = queues.computeIfAbsent(userId, id -> new UserQueue());
+        queue.add(mutation);
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!mutation.isDone()) {
+            if (queue.combining.compareAndSet(false, true)) {
+                lead(userId, queue, mutation, deadline, applier);
+                continue;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                abandon(userId, queue, mutation, new TimeoutException());
+                // 이미 leader 가 가져가 처리 중이므로 결과를 기다린다.
+                break;
+            }
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                abandon(userId, queue, mutation, new InterruptedException());
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return mutation.join();
+    }
+
+    /**
+     * combining 플래그를 차지한 상태에서 호출된다.
+     * - 락을 얻지 못하면 자기 요청만 빼고 예외를 던진다. 남은 요청은 다음 leader 가 각자의 제한 시간으로 처리한다.
+     * - 앞선 leader 가 자기 요청을 이미 처리한 직후에 플래그를 차지했을 수 있으므로, 뺄 요청이 없으면 던지지 않는다.
+     */
+    private void lead(
+            long userId,
+            UserQueue queue,
+            PendingMutation mutation,
+            long deadline,
+            BatchApplier applier) throws InterruptedException, TimeoutException {
+        boolean acquired;
+        try {
+            // 대기열에서 기다리는 요청 수도 경합으로 남겨야 hot 유저가 결합기로 처리되는 동안 식지 않는다.
+            acquired = lockManager.tryLock(
+                    userId,
+                    deadline - System.nanoTime(),
+                    TimeUnit.NANOSECONDS,
+                    queue.size.get() - 1
+            );
+        } catch (RuntimeException | InterruptedException e) {
+            if (stepDown(userId, queue, mutation)) {
+                throw e;
+            }
+            return;
+        }
+        if (!acquired) {
+            if (stepDown(userId, queue, mutation)) {
+                throw new TimeoutException();
+            }
+            return;
+        }
+
+        try {
+            drain(userId, queue, applier);
+        } finally {
+            lockManager.unlock(userId);
+            queue.combining.set(false);
+            handOff(userId, queue);
+        }
+    }
+
+    /**
+     * 유저 락을 잡은 상태에서 호출된다.
+     */
+    private void drain(long userId, UserQueue queue, BatchApplier applier) {
+        List<PendingMutation> batch = new ArrayList<>();
+        PendingMutation mutation;
+        while ((mutation = queue.poll()) != null) {
+            batch.add(mutation);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            applier.apply(userId, batch);
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.fail(e));
+        }
+    }
+
+    /**
+     * 요청을 대기열에서 뺐다면 e 를 던지고, 이미 leader 가 가져갔다면 아무것도 하지 않는다.
+     */
+    private <E extends Exception> void abandon(long userId, UserQueue queue, PendingMutation mutation, E e) throws E {
+        if (queue.remove(mutation)) {
+            handOff(userId, queue);
+            throw e;
+        }
+    }
+
+    /**
+     * 락을 얻지 못한 leader 가 자기 요청을 빼고 물러난다.
+     *
+     * @return 자기 요청을 뺐는지 (false 면 이미 처리되었다)
+     */
+    private boolean stepDown(long userId, UserQueue queue, PendingMutation mutation) {
+        boolean removed = queue.remove(mutation);
+        queue.combining.set(false);
+        handOff(userId, queue);
+        return removed;
+    }
+
+    /**
+     * leader 가 없고 남은 요청이 있으면 맨 앞 요청의 스레드를 깨워 leader 를 맡기고, 비었으면 맵에서 뺀다.
+     * - leader 가 플래그를 내린 뒤에 이 검사를 하므로, 그 사이 들어와 멈춘 요청도 놓치지 않는다.
+     * - 깨운 스레드가 제한 시간으로 포기하면 그 스레드가 다시 다음 스레드를 깨운다.
+     */
+    private void handOff(long userId, UserQueue queue) {
+        if (queue.combining.get()) {
+            return;
+        }
+        PendingMutation head = queue.pending.peek();
+        if (head != null) {
+            head.wake();
+        } else {
+            queues.remove(userId, queue);
+        }
+    }
+
+    private static final class UserQueue {
+        private final Queue<PendingMutation> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean combining = new AtomicBoolean();
+        // ConcurrentLinkedQueue.size() 는 전체를 훑으므로 따로 센다.
+        private final AtomicInteger size = new AtomicInteger();
+
+        private void add(PendingMutation mutation) {
+            pending.add(mutation);
+            size.incrementAndGet();
+        }
+
+        private PendingMutation poll() {
+            PendingMutation mutation = pending.poll();
+            if (mutation != null) {
+                size.decrementAndGet();
+            }
+            return mutation;
+        }
+
+        private boolean remove(PendingMutation mutation) {
+            if (pending.remove(mutation)) {
+                size.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    public interface BatchApplier {
+        /**
+         * batch 의 요청을 순서대로 반영하고 요청마다 complete 또는 fail 을 호출한다.
+         */
+        void apply(long userId, List<PendingMutation> batch);
+    }
+}
@@ -0,0 +1,145 @@
+package io.hhplus.tdd.point.history;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.Arrays;
+
+/**
+ * 한 유저의 이력을 컬럼별 primitive 배열에 담는다. (id, amount, updateMillis: long / type: byte)
+ * - userId 는 유저마다 하나이므로 따로 두지 않는다.
+ * - 첫 세그먼트는 SEGMENT_SIZE 까지 두 배씩 늘리고, 이후로는 같은 크기의 세그먼트를 덧붙인다.
+ *   (큰 배열을 통째로 복사하지 않는다)
+ * - PointHistory 는 읽을 때 필요한 구간만 만든다.
+ * - 쓰기는 한 스레드씩(호출자가 잠금), 읽기는 size 를 먼저 읽고 그만큼만 보므로 잠금이 없다.
+ * - PointHistoryIndex 의 사본이므로 테이블의 메모리를 줄이지는 않는다.
+ */
+final class PointHistoryColumns {
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final long userId;
+    private volatile Segment[] segments;
+    private volatile int size;
+
+    PointHistoryColumns(long userId, int initialCapacity) {
+        this.userId = userId;
+        this.segments = new Segment[]{new Segment(Math.min(Math.max(initialCapacity, 4), SEGMENT_SIZE))};
+    }
+
+    void append(long id, long amount, TransactionType type, long updateMillis) {
+        int index = size;
+        Segment[] current = segments;
+        int segmentIndex = index >>> SEGMENT_SHIFT;
+        int offset = index & SEGMENT_MASK;
+        if (segmentIndex == current.length) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[segmentIndex] = new Segment(SEGMENT_SIZE);
+        } else if (offset == current[segmentIndex].ids.length) {
+            current = current.clone();
+            current[segmentIndex] = current[segmentIndex].grow(Math.min(offset * 2, SEGMENT_SIZE));
+        }
+        Segment segment = current[segmentIndex];
+        segment.ids[offset] = id;
+        segment.amounts[offset] = amount;
+        segment.types[offset] = (byte) type.ordinal();
+        segment.updateMillis[offset] = updateMillis;
+
+        segments = current;
+        size = index + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 마지막 이력의 id, 없으면 0
+     */
+    long lastId() {
+        int count = size;
+        return count == 0 ? 0 : id(segments, count - 1);
+    }
+
+    /**
+     * id 가 cursor 이상인 첫 위치 (count 안에서)
+     */
+    int indexOf(long cursor, int count) {
+        Segment[] snapshot = segments;
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (id(snapshot, mid) < cursor) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    long id(int index) {
+        return id(segments, index);
+    }
+
+    long updateMillis(int index) {
+        return segments[index >>> SEGMENT_SHIFT].updateMillis[index & SEGMENT_MASK];
+    }
+
+    PointHistory get(int index) {
+        Segment segment = segments[index >>> SEGMENT_SHIFT];
+        int offset = index & SEGMENT_MASK;
+        return new PointHistory(
+                segment.ids[offset],
+                userId,
+                segment.amounts[offset],
+                TYPES[segment.types[offset]],
+                segment.updateMillis[offset]
+        );
+    }
+
+    /**
+     * 빈 칸을 포함한 컬럼 배열의 크기
+     */
+    long memoryBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.ids.length * (3L * Long.BYTES + 1);
+        }
+        return bytes;
+    }
+
+    private static long id(Segment[] snapshot, int index) {
+        return snapshot[index >>> SEGMENT_SHIFT].ids[index & SEGMENT_MASK];
+    }
+
+    private static final class Segment {
+        private final long[] ids;
+        private final long[] amounts;
+        private final byte[] types;
+        private final long[] updateMillis;
+
+        private Segment(int capacity) {
+            this(new long[capacity], new long[capacity], new byte[capacity], new long[capacity]);
+        }
+
+        private Segment(long[] ids, long[] amounts, byte[] types, long[] updateMillis) {
+            this.ids = ids;
+            this.amounts = amounts;
+            this.types = types;
+            this.updateMillis = updateMillis;
+        }
+
+        private Segment grow(int capacity) {
+            return new Segment(
+                    Arrays.copyOf(ids, capacity),
+                    Arrays.copyOf(amounts, capacity),
+                    Arrays.copyOf(types, capacity),
+                    Arrays.copyOf(updateMillis, capacity)
+            );
+        }
+    }
+}
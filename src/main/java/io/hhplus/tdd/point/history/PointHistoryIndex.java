@@ -0,0 +1,151 @@
+package io.hhplus.tdd.point.history;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointMetrics.TableOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 유저별 이력 조회 모델
+ * - 처음 조회하는 유저는 PointHistorySource(저널 복구)의 이력과 PointHistoryTable.selectAllByUserId 로 한 번만 적재하고,
+ *   이후에는 기록될 때마다 유저별 목록 끝에 추가한다. (테이블 id 는 tableIdOffset 만큼 민다. 기록 알림은 PointConfig 에서 민다)
+ * - 이력 id 는 유저별로 증가하므로 cursor(id) 위치를 이진 탐색으로 찾는다.
+ * - 이력은 PointHistory 객체 대신 컬럼 배열(PointHistoryColumns)로 들고, 응답할 구간만 PointHistory 로 만든다.
+ * - 조회 경로를 위한 구조로, PointHistoryTable 과 별도로 이력을 한 벌 더 든다. 힙은 테이블만 쓸 때보다 늘어나며,
+ *   컬럼 배열은 이 사본을 PointHistory 목록으로 들 때보다 작을 뿐이다. (memoryBytes 가 늘어난 만큼이다)
+ */
+@Component
+public class PointHistoryIndex implements PointHistoryListener {
+    private final PointHistoryTable pointHistoryTable;
+    private final List<PointHistorySource> historySources;
+    private final long tableIdOffset;
+    private final PointMetrics metrics;
+    private final Map<Long, UserHistories> userHistories = new ConcurrentHashMap<>();
+
+    public PointHistoryIndex(
+            PointHistoryTable pointHistoryTable,
+            List<PointHistorySource> historySources,
+            PointMetrics metrics) {
+        this.pointHistoryTable = pointHistoryTable;
+        this.historySources = historySources;
+        this.tableIdOffset = PointHistorySource.tableIdOffset(historySources);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void onInserted(PointHistory history) {
+        // 아직 적재되지 않은 유저는 첫 조회 때 테이블에서 함께 읽힌다.
+        userHistories.computeIfPresent(history.userId(), (userId, histories) -> {
+            histories.append(history);
+            return histories;
+        });
+    }
+
+    public List<PointHistory> findAll(long userId) {
+        return historiesOf(userId).findAll();
+    }
+
+    /**
+     * cursor 보다 id 가 작은 이력을 최신순으로 limit 개 반환한다. (cursor 가 null 이면 가장 최신부터)
+     */
+    public PointHistoryPage findPage(long userId, Long cursor, int limit) {
+        return historiesOf(userId).findPage(cursor, limit);
+    }
+
+    /**
+     * updateMillis 가 [fromMillis, toMillis) 인 이력을 오래된 순서로 하나씩 만들어 흘려보낸다.
+     * 호출 시점까지 기록된 이력만 대상이고, 목록을 만들지 않으므로 이력 수와 관계없이 메모리가 일정하다.
+     */
+    public Stream<PointHistory> stream(long userId, long fromMillis, long toMillis) {
+        PointHistoryColumns columns = historiesOf(userId).columns;
+        return IntStream.range(0, columns.size())
+                .filter(i -> {
+                    long updateMillis = columns.updateMillis(i);
+                    return updateMillis >= fromMillis && updateMillis < toMillis;
+                })
+                .mapToObj(columns::get);
+    }
+
+    /**
+     * 적재된 이력 수 (유저 수만큼 순회한다)
+     */
+    public long recordCount() {
+        return userHistories.values().stream().mapToLong(histories -> histories.columns.size()).sum();
+    }
+
+    /**
+     * 적재된 이력의 컬럼 배열 크기, 테이블과 별도로 더 쓰는 메모리다. (유저 수만큼 순회한다)
+     */
+    public long memoryBytes() {
+        return userHistories.values().stream().mapToLong(histories -> histories.columns.memoryBytes()).sum();
+    }
+
+    private UserHistories historiesOf(long userId) {
+        return userHistories.computeIfAbsent(userId, this::load);
+    }
+
+    private UserHistories load(long userId) {
+        List<PointHistory> loaded = new ArrayList<>();
+        historySources.forEach(source -> loaded.addAll(source.histories(userId)));
+        metrics.recordTable(
+                TableOperation.POINT_HISTORY_SELECT,
+                () -> pointHistoryTable.selectAllByUserId(userId)
+        ).forEach(history -> loaded.add(PointHistorySource.shift(history, tableIdOffset)));
+        return new UserHistories(userId, loaded);
+    }
+
+    /**
+     * 추가만 가능한 유저별 이력
+     * - 쓰기는 synchronized, 읽기는 size 를 먼저 읽고 그만큼만 보므로 잠금이 없다.
+     */
+    private static final class UserHistories {
+        private final PointHistoryColumns columns;
+
+        private UserHistories(long userId, List<PointHistory> loaded) {
+            this.columns = new PointHistoryColumns(userId, loaded.size());
+            for (PointHistory history : loaded) {
+                columns.append(history.id(), history.amount(), history.type(), history.updateMillis());
+            }
+        }
+
+        private synchronized void append(PointHistory history) {
+            // 적재 시점에 이미 테이블에서 읽어 온 이력이면 건너뛴다.
+            if (columns.size() > 0 && columns.lastId() >= history.id()) {
+                return;
+            }
+            columns.append(history.id(), history.amount(), history.type(), history.updateMillis());
+        }
+
+        private List<PointHistory> findAll() {
+            int count = columns.size();
+            PointHistory[] histories = new PointHistory[count];
+            for (int i = 0; i < count; i++) {
+                histories[i] = columns.get(i);
+            }
+            return List.of(histories);
+        }
+
+        private PointHistoryPage findPage(Long cursor, int limit) {
+            int count = columns.size();
+
+            int end = cursor == null ? count : columns.indexOf(cursor, count);
+            int start = Math.max(0, end - limit);
+
+            List<PointHistory> page = new ArrayList<>(end - start);
+            for (int i = end - 1; i >= start; i--) {
+                page.add(columns.get(i));
+            }
+            Long nextCursor = start > 0 ? columns.id(start) : null;
+            return new PointHistoryPage(page, nextCursor);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point.history;
+
+import io.hhplus.tdd.point.PointHistory;
+
+/**
+ * PointHistoryTable 에 이력이 기록된 직후 호출된다.
+ * - 같은 유저의 이력은 기록된 순서대로 전달된다.
+ */
+public interface PointHistoryListener {
+
+    void onInserted(PointHistory history);
+}
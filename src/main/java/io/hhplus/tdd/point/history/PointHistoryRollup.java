@@ -0,0 +1,128 @@
+package io.hhplus.tdd.point.history;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointMetrics.TableOperation;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointSummary;
+import io.hhplus.tdd.point.PointSummaryEntry;
+import io.hhplus.tdd.point.SummaryBucket;
+import io.hhplus.tdd.point.TransactionType;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 유저 × 집계 단위(시/일/월) × 구간별 충전/사용 합계
+ * - PointHistoryIndex 와 같이 처음 조회하는 유저만 PointHistorySource 와 테이블에서 한 번 읽어 합계를 만들고,
+ *   이후에는 기록될 때마다 해당 구간의 합계만 더한다.
+ * - 조회 비용은 원본 이력 수가 아니라 기간 안의 구간 수에 비례한다.
+ */
+@Component
+public class PointHistoryRollup implements PointHistoryListener {
+    private final PointHistoryTable pointHistoryTable;
+    private final List<PointHistorySource> historySources;
+    private final long tableIdOffset;
+    private final PointMetrics metrics;
+    private final ZoneId zone;
+    private final Map<Long, UserRollup> userRollups = new ConcurrentHashMap<>();
+
+    public PointHistoryRollup(
+            PointHistoryTable pointHistoryTable,
+            List<PointHistorySource> historySources,
+            PointMetrics metrics,
+            PointProperties properties) {
+        this.pointHistoryTable = pointHistoryTable;
+        this.historySources = historySources;
+        this.tableIdOffset = PointHistorySource.tableIdOffset(historySources);
+        this.metrics = metrics;
+        this.zone = properties.getSummary().getZone();
+    }
+
+    @Override
+    public void onInserted(PointHistory history) {
+        // 아직 적재되지 않은 유저는 첫 조회 때 테이블에서 함께 읽힌다.
+        // (적재 중인 유저면 적재가 끝날 때까지 기다렸다가 더한다)
+        userRollups.computeIfPresent(history.userId(), (userId, rollup) -> {
+            rollup.add(history, zone);
+            return rollup;
+        });
+    }
+
+    /**
+     * 구간 시작 시각이 [bucket.floor(fromMillis), toMillis) 인 구간의 합계
+     * (fromMillis 가 Long.MIN_VALUE 면 처음부터)
+     */
+    public PointSummary summarize(long userId, SummaryBucket bucket, long fromMillis, long toMillis) {
+        long from = fromMillis == Long.MIN_VALUE ? Long.MIN_VALUE : bucket.floor(fromMillis, zone);
+        List<PointSummaryEntry> entries = rollupOf(userId).entries(bucket, from, toMillis);
+        long totalCharged = 0;
+        long totalUsed = 0;
+        for (PointSummaryEntry entry : entries) {
+            totalCharged += entry.charged();
+            totalUsed += entry.used();
+        }
+        return new PointSummary(userId, bucket, entries, totalCharged, totalUsed);
+    }
+
+    private UserRollup rollupOf(long userId) {
+        return userRollups.computeIfAbsent(userId, id -> {
+            UserRollup rollup = new UserRollup();
+            for (PointHistorySource source : historySources) {
+                for (PointHistory history : source.histories(id)) {
+                    rollup.add(history, zone);
+                }
+            }
+            List<PointHistory> loaded = metrics.recordTable(
+                    TableOperation.POINT_HISTORY_SELECT,
+                    () -> pointHistoryTable.selectAllByUserId(id)
+            );
+            for (PointHistory history : loaded) {
+                rollup.add(PointHistorySource.shift(history, tableIdOffset), zone);
+            }
+            return rollup;
+        });
+    }
+
+    /**
+     * 집계 단위별 구간 시작 시각 -> {충전 합계, 사용 합계}
+     */
+    private static final class UserRollup {
+        private final Map<SummaryBucket, NavigableMap<Long, long[]>> totals = new EnumMap<>(SummaryBucket.class);
+        private long lastId = 0;
+
+        private UserRollup() {
+            for (SummaryBucket bucket : SummaryBucket.values()) {
+                totals.put(bucket, new TreeMap<>());
+            }
+        }
+
+        private synchronized void add(PointHistory history, ZoneId zone) {
+            // 적재 시점에 이미 테이블에서 읽어 온 이력이면 건너뛴다.
+            if (history.id() <= lastId) {
+                return;
+            }
+            lastId = history.id();
+            int column = history.type() == TransactionType.CHARGE ? 0 : 1;
+            for (Map.Entry<SummaryBucket, NavigableMap<Long, long[]>> entry : totals.entrySet()) {
+                long bucketStart = entry.getKey().floor(history.updateMillis(), zone);
+                entry.getValue().computeIfAbsent(bucketStart, start -> new long[2])[column] += history.amount();
+            }
+        }
+
+        private synchronized List<PointSummaryEntry> entries(SummaryBucket bucket, long fromMillis, long toMillis) {
+            NavigableMap<Long, long[]> range = totals.get(bucket).subMap(fromMillis, true, toMillis, false);
+            List<PointSummaryEntry> entries = new ArrayList<>(range.size());
+            range.forEach((bucketStart, sums) -> entries.add(new PointSummaryEntry(bucketStart, sums[0], sums[1])));
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.hhplus.tdd.point.history;
+
+import io.hhplus.tdd.point.PointHistory;
+
+import java.util.List;
+
+/**
+ * PointHistoryTable 의 이력 앞에 이어 붙여 읽는 메모리 이력 (저널 복구)
+ * - 1 부터 lastId 까지의 id 를 가진다. 테이블이 1 부터 매기는 id 는 tableIdOffset 만큼 밀어서 읽으므로,
+ *   이어 붙여도 유저별 id 순서가 유지되고 재시작해도 새 이력의 id 가 이전 id 보다 작아지지 않는다.
+ */
+public interface PointHistorySource {
+
+    /**
+     * @return 이 유저의 이력 (id 순서), 모르는 유저면 빈 목록
+     */
+    List<PointHistory> histories(long userId);
+
+    /**
+     * @return 이 저장소가 매긴 가장 큰 이력 id (없으면 0)
+     */
+    long lastId();
+
+    /**
+     * 테이블이 매긴 id 에 더할 값 (모든 저장소의 id 뒤에 오도록)
+     */
+    static long tableIdOffset(List<PointHistorySource> sources) {
+        return sources.stream().mapToLong(PointHistorySource::lastId).max().orElse(0);
+    }
+
+    static PointHistory shift(PointHistory history, long offset) {
+        if (offset == 0) {
+            return history;
+        }
+        return new PointHistory(
+                history.id() + offset,
+                history.userId(),
+                history.amount(),
+                history.type(),
+                history.updateMillis()
+        );
+    }
+}
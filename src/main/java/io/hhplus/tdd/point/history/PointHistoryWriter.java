@@ -0,0 +1,22 @@
+package io.hhplus.tdd.point.history;
+
+import io.hhplus.tdd.point.TransactionType;
+
+/**
+ * 포인트 이력 기록기
+ * - 같은 유저의 이력은 append 호출 순서대로 기록되어야 한다.
+ */
+public interface PointHistoryWriter {
+
+    void append(long userId, long amount, TransactionType type, long updateMillis);
+
+    /**
+     * 호출 시점까지 append 된 이력이 모두 기록될 때까지 대기한다.
+     */
+    void flush();
+
+    /**
+     * 호출 시점까지 append 된 이 유저의 이력이 모두 기록될 때까지 대기한다.
+     */
+    void flush(long userId);
+}
@@ -0,0 +1,44 @@
+package io.hhplus.tdd.point.history;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointMetrics.TableOperation;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.List;
+
+/**
+ * 호출한 스레드에서 바로 PointHistoryTable 에 기록한다.
+ */
+public class SyncPointHistoryWriter implements PointHistoryWriter {
+    private final PointHistoryTable pointHistoryTable;
+    private final List<PointHistoryListener> listeners;
+    private final PointMetrics metrics;
+
+    public SyncPointHistoryWriter(
+            PointHistoryTable pointHistoryTable,
+            List<PointHistoryListener> listeners,
+            PointMetrics metrics) {
+        this.pointHistoryTable = pointHistoryTable;
+        this.listeners = listeners;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void append(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory history = metrics.recordTable(
+                TableOperation.POINT_HISTORY_INSERT,
+                () -> pointHistoryTable.insert(userId, amount, type, updateMillis)
+        );
+        listeners.forEach(listener -> listener.onInserted(history));
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void flush(long userId) {
+    }
+}
@@ -0,0 +1,407 @@
+package io.hhplus.tdd.point.history;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointMetrics.TableOperation;
+import io.hhplus.tdd.point.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이력을 대기열에 넣고 백그라운드 워커가 PointHistoryTable 에 기록한다.
+ * - 유저 id 해시로 나눈 stripe 마다 대기열과 워커가 하나씩 있다. 한 유저의 이력은 한 stripe 에서만 기록되므로 유저별 순서가 유지된다.
+ * - 워커는 대기열에서 최대 batchSize 건을 한 번에 꺼내 기록하고, 진행 상황도 묶음마다 한 번 갱신한다.
+ *   (PointHistoryTable 에는 한 건씩 넣는 API 만 있으므로 테이블 기록 자체는 건별이다)
+ * - 대기열이 가득 차면 기다리지 않고 호출 스레드에서 바로 기록한다.
+ *   그 유저의 이력이 대기열에 남아 있으면 유저별로 따로 모아 둔 목록에서 넘겨받아 먼저 기록한다. (대기열을 훑지 않는다)
+ *   워커가 그 유저의 이력을 기록 중이면 그 묶음이 끝나기만 기다리고, 다른 유저의 이력은 기다리지 않는다.
+ * - stripe 는 유저별 대기열을 나누는 데만 쓴다. PointHistoryTable 은 동시 insert 를 견디지 못하므로
+ *   워커와 바로 기록하는 호출 스레드 모두 tableLock 하나를 잡고 insert 한다. (리스너는 잠금 밖에서 부른다)
+ * - 기록에 실패한 이력은 그 자리에서 MAX_ATTEMPTS 번까지 간격을 늘려 가며 다시 기록한다. (유저별 순서를 지키기 위해)
+ *   그래도 실패하면 버리지 않고 failed 에 남겨 종료할 때 한 번 더 기록하고, 실패 횟수는 point.history.write.failures 로 센다.
+ * - flush(userId) 는 그 유저의 이력만 기다린다.
+ * - 종료 시 남은 이력을 모두 기록한다.
+ */
+public class WriteBehindPointHistoryWriter implements PointHistoryWriter, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindPointHistoryWriter.class);
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long INITIAL_BACKOFF_MILLIS = 10;
+
+    private final PointHistoryTable pointHistoryTable;
+    private final List<PointHistoryListener> listeners;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+    private final PointMetrics metrics;
+    private final Stripe[] stripes;
+    private final Object tableLock = new Object();
+    /**
+     * 다시 기록해도 실패해 종료 때까지 남겨 둔 이력
+     */
+    private final Queue<PendingHistory> failed = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running = true;
+
+    public WriteBehindPointHistoryWriter(
+            PointHistoryTable pointHistoryTable,
+            List<PointHistoryListener> listeners,
+            int workers,
+            int queueCapacity,
+            int batchSize,
+            Duration shutdownTimeout,
+            PointMetrics metrics) {
+        this.pointHistoryTable = pointHistoryTable;
+        this.listeners = listeners;
+        this.batchSize = Math.max(1, batchSize);
+        this.shutdownTimeout = shutdownTimeout;
+        this.metrics = metrics;
+        this.stripes = new Stripe[workers];
+        int stripeCapacity = Math.max(1, queueCapacity / workers);
+        for (int i = 0; i < workers; i++) {
+            stripes[i] = new Stripe(stripeCapacity, "point-history-writer-" + i);
+        }
+    }
+
+    @Override
+    public void append(long userId, long amount, TransactionType type, long updateMillis) {
+        Stripe stripe = stripeOf(userId);
+        if (!running || !stripe.offer(userId, amount, type, updateMillis)) {
+            stripe.writeDirectly(new PendingHistory(0, userId, amount, type, updateMillis));
+        }
+    }
+
+    @Override
+    public void flush() {
+        for (Stripe stripe : stripes) {
+            stripe.awaitWritten();
+        }
+    }
+
+    @Override
+    public void flush(long userId) {
+        stripeOf(userId).awaitWritten(userId);
+    }
+
+    /**
+     * 다시 기록해도 실패해 남겨 둔 이력 수
+     */
+    public int failedCount() {
+        return failed.size();
+    }
+
+    public int pendingCount() {
+        int pending = 0;
+        for (Stripe stripe : stripes) {
+            pending += stripe.pendingCount();
+        }
+        return pending;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.notifyAll();
+            }
+        }
+        for (Stripe stripe : stripes) {
+            try {
+                stripe.worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // 워커가 제한 시간 안에 끝나지 못했거나 종료 직전에 들어온 이력은 여기서 기록한다.
+        for (Stripe stripe : stripes) {
+            stripe.drainRemaining();
+        }
+        retryFailed();
+    }
+
+    private void retryFailed() {
+        PendingHistory history;
+        while ((history = failed.poll()) != null) {
+            try {
+                write(history);
+            } catch (RuntimeException e) {
+                log.error("종료 중 포인트 이력을 끝내 기록하지 못했습니다: userId={}, type={}, amount={}, updateMillis={}",
+                        history.userId(), history.type(), history.amount(), history.updateMillis(), e);
+            }
+        }
+    }
+
+    private Stripe stripeOf(long userId) {
+        return stripes[Math.floorMod(Long.hashCode(userId), stripes.length)];
+    }
+
+    private void write(PendingHistory history) {
+        PointHistory inserted;
+        synchronized (tableLock) {
+            inserted = metrics.recordTable(
+                    TableOperation.POINT_HISTORY_INSERT,
+                    () -> pointHistoryTable.insert(
+                            history.userId(),
+                            history.amount(),
+                            history.type(),
+                            history.updateMillis()
+                    )
+            );
+        }
+        listeners.forEach(listener -> listener.onInserted(inserted));
+    }
+
+    /**
+     * 호출한 쪽에는 이미 응답했으므로 예외를 던지지 않는다. 다시 기록해도 실패하면 failed 에 남긴다.
+     */
+    private void writeQueued(PendingHistory history) {
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+        boolean interrupted = false;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    write(history);
+                    return;
+                } catch (RuntimeException e) {
+                    if (attempt >= MAX_ATTEMPTS) {
+                        metrics.recordHistoryWriteFailure(false);
+                        failed.add(history);
+                        log.error("포인트 이력 기록 실패, 종료 때 다시 기록합니다: userId={}, type={}, attempts={}",
+                                history.userId(), history.type(), attempt, e);
+                        return;
+                    }
+                    metrics.recordHistoryWriteFailure(true);
+                    log.warn("포인트 이력 기록 실패, 다시 기록합니다: userId={}, type={}, attempt={}",
+                            history.userId(), history.type(), attempt, e);
+                }
+                try {
+                    TimeUnit.MILLISECONDS.sleep(backoffMillis);
+                } catch (InterruptedException e) {
+                    // 이력은 끝까지 기록하고 인터럽트는 끝난 뒤 되돌려 둔다.
+                    interrupted = true;
+                }
+                backoffMillis *= 2;
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 대기열과 유저별 진행 상황은 stripe 모니터로 보호한다. 테이블 기록은 모니터 밖에서 tableLock 으로 한다.
+     * - 대기열의 이력은 유저별 목록(UserProgress.pending)에도 들어 있다. 꺼내 가는 쪽(워커 또는 바로 기록하는 호출 스레드)이
+     *   유저별 목록에서 지우면서 기록할 권리를 얻고, 대기열에 남은 같은 이력은 워커가 건너뛴다.
+     * - 꺼냈지만 아직 기록하지 않은 이력은 UserProgress.writing 으로 센다.
+     */
+    private final class Stripe {
+        private final int capacity;
+        private final Deque<PendingHistory> queue = new ArrayDeque<>();
+        /**
+         * 대기열에 남아 있거나 기록 중인 이력이 있는 유저만 담는다. (대기열 크기를 넘지 않는다)
+         */
+        private final Map<Long, UserProgress> progress = new HashMap<>();
+        private final Thread worker;
+        private long enqueued;
+        private long written;
+
+        private Stripe(int capacity, String name) {
+            this.capacity = capacity;
+            this.worker = new Thread(this::drainLoop, name);
+            this.worker.setDaemon(true);
+            this.worker.start();
+        }
+
+        private synchronized boolean offer(long userId, long amount, TransactionType type, long updateMillis) {
+            if (queue.size() >= capacity) {
+                return false;
+            }
+            PendingHistory history = new PendingHistory(++enqueued, userId, amount, type, updateMillis);
+            queue.addLast(history);
+            UserProgress userProgress = progress.computeIfAbsent(userId, id -> new UserProgress());
+            userProgress.pending.addLast(history);
+            userProgress.lastEnqueued = history.sequence();
+            notifyAll();
+            return true;
+        }
+
+        private synchronized int pendingCount() {
+            return (int) (enqueued - written);
+        }
+
+        /**
+         * 대기열에 남은 같은 유저의 이력을 넘겨받아 먼저 기록하고 이어서 history 를 기록한다.
+         * 호출 스레드는 그 유저의 직렬 구간 안에 있으므로 그 사이 같은 유저의 이력이 새로 들어오지 않는다.
+         */
+        private void writeDirectly(PendingHistory history) {
+            List<PendingHistory> earlier = claimPending(history.userId());
+            if (!earlier.isEmpty()) {
+                earlier.forEach(WriteBehindPointHistoryWriter.this::writeQueued);
+                markWritten(earlier);
+            }
+            write(history);
+        }
+
+        /**
+         * 워커가 이 유저의 이력을 기록 중이면 그 묶음이 끝날 때까지 기다린 뒤, 남은 이력을 모두 넘겨받는다.
+         */
+        private synchronized List<PendingHistory> claimPending(long userId) {
+            UserProgress userProgress = progress.get(userId);
+            if (userProgress == null) {
+                return List.of();
+            }
+            boolean interrupted = false;
+            while (userProgress.writing > 0) {
+                try {
+                    wait(100);
+                } catch (InterruptedException e) {
+                    // 앞선 이력보다 먼저 기록하면 순서가 어긋나므로 끝까지 기다린다.
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            List<PendingHistory> claimed = new ArrayList<>(userProgress.pending);
+            userProgress.pending.clear();
+            userProgress.writing = claimed.size();
+            return claimed;
+        }
+
+        private void drainLoop() {
+            List<PendingHistory> batch = new ArrayList<>(batchSize);
+            while (claimBatch(batch)) {
+                batch.forEach(WriteBehindPointHistoryWriter.this::writeQueued);
+                markWritten(batch);
+                batch.clear();
+            }
+        }
+
+        /**
+         * 대기열 앞에서 최대 batchSize 건을 꺼내 기록할 권리를 얻는다. 호출 스레드가 이미 넘겨받은 이력은 건너뛴다.
+         *
+         * @return 종료 중이고 대기열이 비었으면 false
+         */
+        private synchronized boolean claimBatch(List<PendingHistory> batch) {
+            while (batch.isEmpty()) {
+                if (queue.isEmpty()) {
+                    if (!running) {
+                        return false;
+                    }
+                    try {
+                        wait(100);
+                    } catch (InterruptedException e) {
+                        // 종료 요청은 running 플래그로만 받는다.
+                    }
+                    continue;
+                }
+                while (batch.size() < batchSize && !queue.isEmpty()) {
+                    PendingHistory next = queue.pollFirst();
+                    UserProgress userProgress = progress.get(next.userId());
+                    // 유저별 목록의 맨 앞이 아니면 호출 스레드가 이미 넘겨받아 기록한 이력이다.
+                    if (userProgress != null && userProgress.pending.peekFirst() == next) {
+                        userProgress.pending.pollFirst();
+                        userProgress.writing++;
+                        batch.add(next);
+                    }
+                }
+            }
+            return true;
+        }
+
+        private synchronized void markWritten(List<PendingHistory> histories) {
+            for (PendingHistory history : histories) {
+                written++;
+                UserProgress userProgress = progress.get(history.userId());
+                userProgress.lastWritten = history.sequence();
+                userProgress.writing--;
+                if (userProgress.writing == 0 && userProgress.pending.isEmpty()) {
+                    progress.remove(history.userId());
+                }
+            }
+            notifyAll();
+        }
+
+        private synchronized void awaitWritten() {
+            long target = enqueued;
+            while (written < target && worker.isAlive()) {
+                if (!waitForProgress()) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 유저의 이력은 sequence 순서대로 기록되므로 호출 시점의 마지막 sequence 까지 기록되면 끝난다.
+         */
+        private synchronized void awaitWritten(long userId) {
+            UserProgress userProgress = progress.get(userId);
+            if (userProgress == null) {
+                return;
+            }
+            long target = userProgress.lastEnqueued;
+            while (userProgress.lastWritten < target && worker.isAlive()) {
+                if (!waitForProgress()) {
+                    return;
+                }
+            }
+        }
+
+        private boolean waitForProgress() {
+            try {
+                wait(100);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void drainRemaining() {
+            List<PendingHistory> remaining = new ArrayList<>();
+            synchronized (this) {
+                for (UserProgress userProgress : progress.values()) {
+                    remaining.addAll(userProgress.pending);
+                    userProgress.writing += userProgress.pending.size();
+                    userProgress.pending.clear();
+                }
+                queue.clear();
+            }
+            if (!remaining.isEmpty()) {
+                log.warn("종료 중 남은 포인트 이력을 기록합니다: count={}", remaining.size());
+                remaining.forEach(WriteBehindPointHistoryWriter.this::writeQueued);
+                markWritten(remaining);
+            }
+        }
+    }
+
+    private static final class UserProgress {
+        /**
+         * 대기열에 있고 아직 누구도 꺼내 가지 않은 이 유저의 이력 (sequence 순)
+         */
+        private final Deque<PendingHistory> pending = new ArrayDeque<>();
+        private int writing;
+        private long lastEnqueued;
+        private long lastWritten;
+    }
+
+    /**
+     * @param sequence stripe 안에서 대기열에 들어간 순서 (바로 기록하는 이력은 0)
+     */
+    private record PendingHistory(long sequence, long userId, long amount, TransactionType type, long updateMillis) {
+    }
+}
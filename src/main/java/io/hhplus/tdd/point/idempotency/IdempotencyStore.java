@@ -0,0 +1,143 @@
+package io.hhplus.tdd.point.idempotency;
+
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.exception.IdempotencyKeyConflictException;
+import io.hhplus.tdd.point.exception.PointOverloadedException;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * (userId, Idempotency-Key) 별 충전/사용 결과
+ * - 처음 들어온 요청만 실행하고, 같은 키의 재시도는 저장된 결과를 그대로 돌려준다. (락/테이블을 거치지 않는다)
+ * - 실행 중에 들어온 같은 키의 요청은 다시 실행하지 않고 같은 결과를 기다린다.
+ * - 실패한 요청은 저장하지 않아 같은 키로 다시 시도할 수 있다. (기다리던 요청은 같은 예외를 받는다)
+ * - 최대 크기에 이르면 결과가 나온 키 중 가장 오래 사용하지 않은 키부터, ttl 이 지나면 조회 시점에 제거한다.
+ *   실행 중인 키는 제거하지 않는다. (제거하면 그 키의 재시도가 한 번 더 실행된다)
+ *   모두 실행 중이라 제거할 키가 없으면 새 키는 실행하지 않고 거절한다.
+ */
+public class IdempotencyStore {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public IdempotencyStore(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @throws IdempotencyKeyConflictException 같은 키로 종류나 금액이 다른 요청이 저장되어 있을 때
+     * @throws PointOverloadedException        새 키인데 저장소가 실행 중인 키로 가득 차 있을 때
+     */
+    public UserPoint execute(
+            long userId,
+            String idempotencyKey,
+            TransactionType type,
+            long amount,
+            Supplier<UserPoint> operation) {
+        Key key = new Key(userId, idempotencyKey);
+        Entry entry = new Entry(type, amount, new CompletableFuture<>(), System.nanoTime() + ttlNanos);
+        Entry existing;
+        synchronized (entries) {
+            existing = entries.get(key);
+            if (existing != null && existing.isExpired(System.nanoTime())) {
+                entries.remove(key);
+                evictions.increment();
+                existing = null;
+            }
+            if (existing == null) {
+                if (entries.size() >= maxSize && !evictEldestCompleted()) {
+                    rejections.increment();
+                    throw new PointOverloadedException();
+                }
+                entries.put(key, entry);
+            }
+        }
+
+        if (existing != null) {
+            if (existing.type() != type || existing.amount() != amount) {
+                throw new IdempotencyKeyConflictException();
+            }
+            replays.increment();
+            return join(existing.result());
+        }
+
+        try {
+            UserPoint result = operation.get();
+            entry.result().complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public IdempotencyStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new IdempotencyStats(replays.sum(), evictions.sum(), rejections.sum(), size);
+    }
+
+    /**
+     * entries 모니터를 잡은 상태에서 호출된다.
+     * - 실행 중인 키는 최근에 들어왔으므로 앞쪽(오래 사용하지 않은 쪽)에는 대부분 결과가 나온 키가 있다.
+     */
+    private boolean evictEldestCompleted() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().result().isDone()) {
+                iterator.remove();
+                evictions.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static UserPoint join(CompletableFuture<UserPoint> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(long userId, String idempotencyKey) {
+    }
+
+    private record Entry(TransactionType type, long amount, CompletableFuture<UserPoint> result, long expiresAtNanos) {
+        /**
+         * 실행 중인 키는 ttl 이 지나도 결과가 나올 때까지 둔다.
+         */
+        private boolean isExpired(long nowNanos) {
+            return result.isDone() && expiresAtNanos - nowNanos <= 0;
+        }
+    }
+
+    /**
+     * - replays : 저장된 결과를 돌려준(또는 실행 중인 결과를 기다린) 요청 수
+     * - rejections : 실행 중인 키로 가득 차 거절한 새 키 수
+     */
+    public record IdempotencyStats(long replays, long evictions, long rejections, int size) {
+    }
+}
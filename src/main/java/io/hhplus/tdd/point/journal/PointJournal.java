@@ -0,0 +1,339 @@
+package io.hhplus.tdd.point.journal;
+
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.journal.PointJournalRecord.Kind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * 충전/사용/이체 내역을 고정 크기 레코드로 이어 쓰는 메모리 매핑 저널
+ * - 레코드 : id(8) userId(8) toUserId(8) amount(8) updateMillis(8) kind(4) crc(4) = 48 byte
+ *   (kind 는 뒤에만 추가하므로 이전 파일도 그대로 읽는다)
+ * - 파일의 첫 레코드 자리는 형식 헤더(MAGIC)다. 헤더가 다른 파일은 잘라 내지 않고 열기를 거부한다.
+ * - 파일은 segmentSize 단위로 매핑하고, 레코드가 세그먼트 경계를 넘지 않게 한다.
+ * - append 는 자기 레코드가 디스크에 반영(force)될 때까지 기다린 뒤에 돌아온다. (응답한 변경은 OS 나 전원이 꺼져도 남는다)
+ *   force 는 기다리는 호출 중 하나(leader)가 그때까지 쓰인 레코드를 모두 담아 한 번 하고,
+ *   그동안 들어온 레코드는 다음 force 하나로 묶인다. (group fsync)
+ * - 같은 유저의 CHARGE/USE 를 잔액에 저장하지 못하면 CHARGE_CANCEL/USE_CANCEL 로 취소를 남긴다. (appendCancel)
+ * - 열 때 처음부터 읽어 id 가 이어지고 crc 가 맞는 마지막 레코드 다음을 끝으로 본다.
+ *   (쓰다 만 레코드는 버린다.)
+ */
+public class PointJournal implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(PointJournal.class);
+
+    static final int RECORD_SIZE = 48;
+    private static final int CHECKSUM_OFFSET = 44;
+    /**
+     * "PNTJRNL" + 형식 버전(2)
+     */
+    private static final long MAGIC = 0x504E544A524E4C02L;
+
+    private final FileChannel channel;
+    private final long segmentSize;
+
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private long lastId;
+    /**
+     * 현재 세그먼트에서 아직 force 하지 않은 구간의 시작 위치
+     */
+    private int unflushedFrom;
+    /**
+     * 이 id 까지는 디스크에 반영되었다.
+     */
+    private long durableId;
+    /**
+     * force 를 맡은 호출이 있는지 (한 번에 하나만 한다)
+     */
+    private boolean forcing;
+    private boolean running = true;
+
+    public PointJournal(Path path, int segmentSize) {
+        if (segmentSize < RECORD_SIZE) {
+            throw new IllegalArgumentException("segmentSize 는 레코드 크기보다 커야 합니다: " + segmentSize);
+        }
+        this.segmentSize = segmentSize - segmentSize % RECORD_SIZE;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.channel = FileChannel.open(
+                    path,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException("저널 파일을 열 수 없습니다: " + path, e);
+        }
+
+        long end;
+        try {
+            end = scan(record -> lastId = record.id());
+        } catch (RuntimeException e) {
+            closeChannel();
+            throw e;
+        }
+        this.segmentStart = end - end % this.segmentSize;
+        this.segment = map(segmentStart);
+        if (end == 0) {
+            segment.putLong(0, MAGIC);
+            segment.force(0, Long.BYTES);
+            end = RECORD_SIZE;
+        }
+        this.segment.position((int) (end - segmentStart));
+        this.unflushedFrom = segment.position();
+        this.durableId = lastId;
+        log.info("포인트 저널을 열었습니다: path={}, records={}", path, lastId);
+    }
+
+    /**
+     * @return 기록한 레코드의 id (1 부터 증가)
+     */
+    public long append(long userId, long amount, TransactionType type, long updateMillis) {
+        Kind kind = type == TransactionType.CHARGE ? Kind.CHARGE : Kind.USE;
+        return append(kind, userId, 0, amount, updateMillis);
+    }
+
+    /**
+     * 보낸 유저의 사용과 받은 유저의 충전을 한 레코드로 남긴다.
+     *
+     * @return 기록한 레코드의 id
+     */
+    public long appendTransfer(long fromUserId, long toUserId, long amount, long updateMillis) {
+        return append(Kind.TRANSFER, fromUserId, toUserId, amount, updateMillis);
+    }
+
+    /**
+     * appendTransfer 로 남겼지만 잔액을 저장하지 못해 되돌린 이체를 취소한다.
+     * (두 유저의 락을 잡은 채 남기므로 그 사이에 두 유저의 다른 레코드는 없다)
+     *
+     * @return 기록한 레코드의 id
+     */
+    public long appendTransferCancel(long fromUserId, long toUserId, long amount, long updateMillis) {
+        return append(Kind.TRANSFER_CANCEL, fromUserId, toUserId, amount, updateMillis);
+    }
+
+    /**
+     * 잔액을 저장하지 못한 CHARGE/USE 를 취소한다. 재시작하면 이 유저의 마지막 이력을 지우고 잔액을 되돌린다.
+     * (유저의 직렬 구간 안에서 남기므로 취소할 레코드가 그 유저의 마지막 레코드다. 여러 건이면 나중 것부터 취소한다)
+     *
+     * @return 기록한 레코드의 id
+     */
+    public long appendCancel(long userId, long amount, TransactionType type, long updateMillis) {
+        Kind kind = type == TransactionType.CHARGE ? Kind.CHARGE_CANCEL : Kind.USE_CANCEL;
+        return append(kind, userId, 0, amount, updateMillis);
+    }
+
+    /**
+     * 레코드를 쓰고 디스크에 반영될 때까지 기다린다.
+     */
+    private long append(Kind kind, long userId, long toUserId, long amount, long updateMillis) {
+        long id = write(kind, userId, toUserId, amount, updateMillis);
+        awaitDurable(id);
+        return id;
+    }
+
+    private synchronized long write(Kind kind, long userId, long toUserId, long amount, long updateMillis) {
+        if (!running) {
+            throw new IllegalStateException("닫힌 저널입니다.");
+        }
+        if (segment.remaining() < RECORD_SIZE) {
+            // 이전 세그먼트는 바꾸기 전에 통째로 반영해 두므로, awaitDurable 은 현재 세그먼트만 보면 된다.
+            // (진행 중인 force 가 담은 구간도 여기에 포함된다)
+            forceRange(segment, 0, segment.position());
+            segmentStart += segmentSize;
+            segment = map(segmentStart);
+            unflushedFrom = 0;
+        }
+
+        long id = lastId + 1;
+        int offset = segment.position();
+        segment.putLong(id)
+                .putLong(userId)
+                .putLong(toUserId)
+                .putLong(amount)
+                .putLong(updateMillis)
+                .putInt(kind.ordinal());
+        segment.putInt(checksum(segment, offset));
+        lastId = id;
+        return id;
+    }
+
+    /**
+     * id 가 디스크에 반영될 때까지 기다린다. 진행 중인 force 가 없으면 이 호출이 맡는다.
+     * - force 가 실패하면 그 구간을 다음 force 가 다시 담도록 되돌리고 예외를 던진다.
+     */
+    private void awaitDurable(long id) {
+        MappedByteBuffer target;
+        int from;
+        int to;
+        long upTo;
+        synchronized (this) {
+            boolean interrupted = false;
+            while (durableId < id && forcing) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    // 반영 여부를 모른 채 돌아갈 수 없으므로 끝까지 기다린다.
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (durableId >= id) {
+                return;
+            }
+            forcing = true;
+            target = segment;
+            from = unflushedFrom;
+            to = segment.position();
+            upTo = lastId;
+            unflushedFrom = to;
+        }
+
+        boolean forced = false;
+        try {
+            forceRange(target, from, to);
+            forced = true;
+        } finally {
+            synchronized (this) {
+                forcing = false;
+                if (forced) {
+                    durableId = Math.max(durableId, upTo);
+                } else if (target == segment) {
+                    unflushedFrom = Math.min(unflushedFrom, from);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 처음부터 기록된 순서대로 레코드를 읽는다.
+     */
+    public void replay(Consumer<PointJournalRecord> consumer) {
+        force();
+        scan(consumer);
+    }
+
+    public synchronized long lastId() {
+        return lastId;
+    }
+
+    /**
+     * 지금까지 쓴 레코드가 모두 디스크에 반영될 때까지 기다린다.
+     */
+    public void force() {
+        long id;
+        synchronized (this) {
+            id = lastId;
+        }
+        awaitDurable(id);
+    }
+
+    @Override
+    public void close() {
+        force();
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        closeChannel();
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("저널 파일을 닫지 못했습니다.", e);
+        }
+    }
+
+    /**
+     * 유효한 레코드를 순서대로 넘기고 마지막 유효 레코드의 끝 위치를 반환한다.
+     * 헤더가 아직 없으면 빈 저널이므로 0 을 반환한다.
+     */
+    private long scan(Consumer<PointJournalRecord> consumer) {
+        try {
+            long size = channel.size();
+            if (size < RECORD_SIZE) {
+                return 0;
+            }
+            long magic = channel.map(FileChannel.MapMode.READ_ONLY, 0, RECORD_SIZE).getLong(0);
+            if (magic == 0) {
+                return 0;
+            }
+            if (magic != MAGIC) {
+                throw new IllegalStateException("지원하지 않는 저널 형식입니다: magic=" + Long.toHexString(magic));
+            }
+
+            long expectedId = 1;
+            for (long start = 0; start < size; start += segmentSize) {
+                MappedByteBuffer buffer = channel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        start,
+                        Math.min(segmentSize, size - start)
+                );
+                if (start == 0) {
+                    buffer.position(RECORD_SIZE);
+                }
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    int offset = buffer.position();
+                    long id = buffer.getLong();
+                    long userId = buffer.getLong();
+                    long toUserId = buffer.getLong();
+                    long amount = buffer.getLong();
+                    long updateMillis = buffer.getLong();
+                    int kind = buffer.getInt();
+                    int crc = buffer.getInt();
+                    if (id != expectedId
+                            || crc != checksum(buffer, offset)
+                            || kind < 0 || kind >= Kind.values().length) {
+                        return start + offset;
+                    }
+                    consumer.accept(new PointJournalRecord(id, Kind.values()[kind], userId, toUserId, amount, updateMillis));
+                    expectedId++;
+                }
+            }
+            // 헤더 자리 + 레코드 (expectedId - 1) 건
+            return expectedId * RECORD_SIZE;
+        } catch (IOException e) {
+            throw new UncheckedIOException("저널 파일을 읽을 수 없습니다.", e);
+        }
+    }
+
+    private MappedByteBuffer map(long position) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, position, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("저널 파일을 매핑할 수 없습니다.", e);
+        }
+    }
+
+    private static void forceRange(MappedByteBuffer buffer, int from, int to) {
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CHECKSUM_OFFSET));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,28 @@
+package io.hhplus.tdd.point.journal;
+
+/**
+ * @param toUserId 이체를 받은 유저 (TRANSFER 가 아니면 0)
+ */
+public record PointJournalRecord(
+        long id,
+        Kind kind,
+        long userId,
+        long toUserId,
+        long amount,
+        long updateMillis
+) {
+
+    /**
+     * TRANSFER 는 userId 의 사용과 toUserId 의 충전을 한 레코드로 남긴다. (절반만 복구되지 않도록)
+     * TRANSFER_CANCEL 은 잔액을 저장하지 못해 되돌린 바로 앞의 같은 이체를 취소한다.
+     * CHARGE_CANCEL/USE_CANCEL 은 잔액을 저장하지 못한 그 유저의 마지막 CHARGE/USE 를 취소한다.
+     */
+    public enum Kind {
+        CHARGE,
+        USE,
+        TRANSFER,
+        TRANSFER_CANCEL,
+        CHARGE_CANCEL,
+        USE_CANCEL
+    }
+}
@@ -0,0 +1,103 @@
+package io.hhplus.tdd.point.journal;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.store.LongBalanceStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 저널을 처음부터 다시 읽어 잔액과 이력을 메모리에 다시 만든다.
+ * - 느린 테이블을 거치지 않으므로 레코드 수가 많아도 시작 시간이 크게 늘지 않는다.
+ * - 이력 id 는 저널 순서대로 1 부터 매기므로 유저별 순서는 그대로 유지된다.
+ *   재시작한 테이블의 id 는 복구한 이력 수만큼 밀어서 읽으므로(PointHistorySource.tableIdOffset) 항상 그 뒤에 온다.
+ *   (저널은 재시작해도 이어 쓰므로 복구한 이력 수는 줄지 않고, 새 이력의 id 는 재시작 전의 id 보다 크다)
+ * - TRANSFER 는 보낸 유저의 사용, 받은 유저의 충전 순서로 이력 두 건이 된다.
+ *   TRANSFER_CANCEL 은 두 유저의 잔액을 되돌리고 그 이체로 만든 마지막 이력을 지운다.
+ * - CHARGE_CANCEL/USE_CANCEL 은 그 유저의 잔액을 되돌리고 마지막 이력을 지운다.
+ */
+public class PointJournalRecovery {
+    private static final Logger log = LoggerFactory.getLogger(PointJournalRecovery.class);
+
+    /**
+     * 잔액 저장소는 유저가 늘면 커지므로 시작 크기만 정한다.
+     */
+    private static final int INITIAL_USERS = 1024;
+
+    private final PointJournal journal;
+
+    public PointJournalRecovery(PointJournal journal) {
+        this.journal = journal;
+    }
+
+    public RecoveredPoints recover() {
+        long startedAt = System.nanoTime();
+        LongBalanceStore balances = new LongBalanceStore(INITIAL_USERS, false);
+        Map<Long, List<PointHistory>> histories = new HashMap<>();
+        long[] historyCount = new long[1];
+
+        journal.replay(record -> {
+            switch (record.kind()) {
+                case CHARGE -> apply(balances, histories, ++historyCount[0],
+                        record.userId(), TransactionType.CHARGE, record.amount(), record.updateMillis());
+                case USE -> apply(balances, histories, ++historyCount[0],
+                        record.userId(), TransactionType.USE, record.amount(), record.updateMillis());
+                case TRANSFER -> {
+                    apply(balances, histories, ++historyCount[0],
+                            record.userId(), TransactionType.USE, record.amount(), record.updateMillis());
+                    apply(balances, histories, ++historyCount[0],
+                            record.toUserId(), TransactionType.CHARGE, record.amount(), record.updateMillis());
+                }
+                case TRANSFER_CANCEL -> {
+                    undo(balances, histories, record.userId(), record.amount());
+                    undo(balances, histories, record.toUserId(), -record.amount());
+                }
+                case CHARGE_CANCEL -> undo(balances, histories, record.userId(), -record.amount());
+                case USE_CANCEL -> undo(balances, histories, record.userId(), record.amount());
+            }
+        });
+
+        log.info("포인트 저널 복구 완료: records={}, histories={}, users={}, took={}ms",
+                journal.lastId(), historyCount[0], balances.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        return new RecoveredPoints(balances, histories, historyCount[0]);
+    }
+
+    /**
+     * 이 유저의 마지막 이력을 지우고 잔액에 delta 를 더한다. (지운 이력의 id 는 다시 쓰지 않는다)
+     */
+    private static void undo(
+            LongBalanceStore balances,
+            Map<Long, List<PointHistory>> histories,
+            long userId,
+            long delta) {
+        UserPoint current = balances.get(userId);
+        List<PointHistory> restored = histories.get(userId);
+        if (current == null || restored == null || restored.isEmpty()) {
+            log.warn("취소할 이력이 없는 저널 레코드를 건너뜁니다: userId={}", userId);
+            return;
+        }
+        restored.remove(restored.size() - 1);
+        balances.put(userId, current.point() + delta, current.updateMillis());
+    }
+
+    private static void apply(
+            LongBalanceStore balances,
+            Map<Long, List<PointHistory>> histories,
+            long historyId,
+            long userId,
+            TransactionType type,
+            long amount,
+            long updateMillis) {
+        UserPoint current = balances.get(userId);
+        long point = current == null ? 0 : current.point();
+        balances.put(userId, type == TransactionType.CHARGE ? point + amount : point - amount, updateMillis);
+        histories.computeIfAbsent(userId, id -> new ArrayList<>())
+                .add(new PointHistory(historyId, userId, amount, type, updateMillis));
+    }
+}
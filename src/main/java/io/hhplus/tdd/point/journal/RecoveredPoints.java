@@ -0,0 +1,65 @@
+package io.hhplus.tdd.point.journal;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.UserPointListener;
+import io.hhplus.tdd.point.UserPointSource;
+import io.hhplus.tdd.point.history.PointHistorySource;
+import io.hhplus.tdd.point.store.LongBalanceStore;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 저널에서 복구한 잔액과 이력 (테이블에는 쓰지 않는다)
+ * - 잔액은 UserPointSource 로 테이블보다 먼저 조회되고, 복구된 유저의 잔액이 저장되면 함께 바뀐다.
+ * - 이력은 PointHistorySource 로 테이블의 이력 앞에 이어 붙여 조회된다. id 는 저널 순서대로 1 부터 매긴다.
+ */
+public class RecoveredPoints implements UserPointSource, UserPointListener, PointHistorySource {
+    private final LongBalanceStore balances;
+    private final Map<Long, List<PointHistory>> histories;
+    private final long historyCount;
+
+    RecoveredPoints(LongBalanceStore balances, Map<Long, List<PointHistory>> histories, long historyCount) {
+        this.balances = balances;
+        this.histories = histories;
+        this.historyCount = historyCount;
+    }
+
+    @Override
+    public UserPoint find(long userId) {
+        return balances.get(userId);
+    }
+
+    /**
+     * 복구된 유저만 갱신한다. (그 외 유저는 테이블이 기준이다)
+     */
+    @Override
+    public void onWritten(UserPoint userPoint) {
+        if (balances.get(userPoint.id()) != null) {
+            balances.put(userPoint.id(), userPoint.point(), userPoint.updateMillis());
+        }
+    }
+
+    public void forEachBalance(LongBalanceStore.BalanceVisitor visitor) {
+        balances.forEach(visitor);
+    }
+
+    @Override
+    public List<PointHistory> histories(long userId) {
+        return histories.getOrDefault(userId, List.of());
+    }
+
+    @Override
+    public long lastId() {
+        return historyCount;
+    }
+
+    public long historyCount() {
+        return historyCount;
+    }
+
+    public int userCount() {
+        return balances.size();
+    }
+}
@@ -0,0 +1,468 @@
+package io.hhplus.tdd.point.ledger;
+
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.exception.PointOverloadedException;
+import io.hhplus.tdd.point.exception.PointTimeoutException;
+import io.hhplus.tdd.point.execution.PartitionedPointExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+
+/**
+ * 유저별 잔액을 메모리에 두고 compare-and-set 으로 갱신한다. (락 없음)
+ * - 검증은 CAS 직전의 잔액으로 하고, CAS 에 실패하면 새 잔액으로 다시 검증한다.
+ * - 저널을 넘기면 유저별 모니터 안에서 검증, 저널 기록, 반영을 차례로 한다. 저널은 version 순서대로 응답 전에 남고,
+ *   저널 기록이 실패한 변경은 반영하지 않는다. (같은 유저끼리만 줄을 서고, 테이블 기록은 여전히 기다리지 않는다)
+ * - 반영된 변경은 version 을 받아 유저의 대기 목록에 들어가고, 유저 파티션 스레드가 version 순서대로 기록한다.
+ *   (CAS 와 대기 목록 추가 사이에 순서가 바뀔 수 있어 이어지는 version 까지만 기록한다)
+ * - 한 번 기록할 때 이어지는 변경을 모두 모아 잔액은 마지막 값만 저장하고, 이력은 변경마다 남긴다.
+ * - 유저마다 기록 작업은 하나만 파티션에 올라가 있다. 파티션이 받지 않거나 버린 작업(종료 중)은 그 자리에서 기록해
+ *   version 이 비어 기다리는 쪽이 멈추지 않게 한다.
+ * - 기록이 실패하면 그 변경들을 대기 목록에 되돌리고 committedVersion 을 올리지 않은 채
+ *   RETRY_INITIAL_MILLIS 부터 두 배씩(최대 RETRY_MAX_MILLIS) 기다렸다가 다시 올린다. (파티션 스레드는 기다리지 않는다)
+ *   그동안 반영된 변경은 뒤에 쌓이고, 다음 시도에서 함께 기록한다.
+ * - 기록하지 못한 변경이 maxBacklog 개인 유저의 변경은 반영하지 않고 거절한다. (기록이 실패하는 동안에도 같다)
+ * - 유저는 처음 사용할 때 한 번만 테이블에서 잔액을 읽어 오고, 이후로는 메모리 값이 기준이다.
+ *   적재한 유저가 maxUsers 의 7/8 에 이르면 백그라운드에서 모두 기록된 유저를 3/4 까지 내린다. (다음 사용 때 다시 읽는다)
+ *   maxUsers 까지 찼을 때 새 유저의 조회는 적재하지 않고 테이블 값으로 답하고(올라와 있지 않은 유저는 테이블이 최신이다),
+ *   변경은 진행 중인 정리를 기다렸다가 그래도 자리가 없으면(모두 기록 대기 중) 거절한다.
+ * - 기록이 실패 중인 유저는 기록 작업이 올라가 있으므로 내리지 않는다.
+ */
+public class BalanceLedger {
+    private static final Logger log = LoggerFactory.getLogger(BalanceLedger.class);
+    /**
+     * 메모리에서 내린 유저의 상태. 이 상태를 본 스레드는 맵에서 다시 찾는다.
+     */
+    private static final Balance RETIRED = new Balance(0, 0, -1);
+    private static final long RETRY_INITIAL_MILLIS = 10;
+    private static final long RETRY_MAX_MILLIS = 1_000;
+
+    private final PartitionedPointExecutor applier;
+    private final int maxUsers;
+    private final int maxBacklog;
+    private final Map<Long, UserLedger> ledgers = new ConcurrentHashMap<>();
+    /**
+     * 진행 중이거나 마지막으로 끝난 정리 (한 번에 하나만 돈다)
+     */
+    private final AtomicReference<CompletableFuture<Void>> eviction = new AtomicReference<>();
+
+    public BalanceLedger(PartitionedPointExecutor applier, int maxUsers, int maxBacklog) {
+        this.applier = applier;
+        this.maxUsers = maxUsers;
+        this.maxBacklog = maxBacklog;
+    }
+
+    public UserPoint get(long userId, LongFunction<UserPoint> loader) {
+        while (true) {
+            UserLedger ledger = ledgerOf(userId, loader, false);
+            if (ledger == null) {
+                return loader.apply(userId);
+            }
+            Balance balance = ledger.current();
+            if (balance != RETIRED) {
+                return new UserPoint(userId, balance.point, balance.updateMillis);
+            }
+        }
+    }
+
+    /**
+     * 테이블을 읽지 않는다. 아직 적재하지 않은 유저면 null
+     */
+    public UserPoint getIfLoaded(long userId) {
+        UserLedger ledger = ledgers.get(userId);
+        Balance balance = ledger == null ? null : ledger.current();
+        return balance == null || balance == RETIRED ? null : new UserPoint(userId, balance.point, balance.updateMillis);
+    }
+
+    /**
+     * @param check     반영 전 잔액과 금액으로 검증하고, 반영할 수 없으면 예외를 던진다.
+     * @param committer 파티션 스레드에서 version 순서대로 호출된다.
+     * @throws PointOverloadedException 이 유저의 기록 대기가 maxBacklog 개이거나, 정리한 뒤에도 새 유저를 올릴 자리가 없는 경우
+     */
+    public UserPoint apply(
+            long userId,
+            TransactionType type,
+            long amount,
+            LongFunction<UserPoint> loader,
+            BalanceCheck check,
+            Committer committer) {
+        return apply(userId, type, amount, loader, check, null, committer);
+    }
+
+    /**
+     * @param journaler null 이 아니면 반영하기 전에 version 순서대로 호출된다. 예외를 던지면 반영하지 않는다.
+     */
+    public UserPoint apply(
+            long userId,
+            TransactionType type,
+            long amount,
+            LongFunction<UserPoint> loader,
+            BalanceCheck check,
+            Journaler journaler,
+            Committer committer) {
+        UserLedger ledger = ledgerOf(userId, loader);
+        while (true) {
+            Balance current = ledger.current();
+            if (current == RETIRED) {
+                ledger = ledgerOf(userId, loader);
+                continue;
+            }
+            UserPoint applied = journaler == null
+                    ? tryApply(userId, ledger, current, type, amount, check, committer)
+                    : applyJournaled(userId, ledger, type, amount, check, journaler, committer);
+            if (applied != null) {
+                return applied;
+            }
+        }
+    }
+
+    /**
+     * 호출 시점까지 반영된 이 유저의 변경이 모두 기록될 때까지 대기한다.
+     *
+     * @throws PointTimeoutException 제한 시간 안에 기록되지 않았거나 기다리는 중 인터럽트된 경우
+     */
+    public void awaitCommitted(long userId, long timeout, TimeUnit unit) {
+        UserLedger ledger = ledgers.get(userId);
+        if (ledger != null) {
+            ledger.awaitCommitted(unit.toNanos(timeout));
+        }
+    }
+
+    public int size() {
+        return ledgers.size();
+    }
+
+    /**
+     * @return CAS 에 실패했으면 null
+     */
+    private UserPoint tryApply(
+            long userId,
+            UserLedger ledger,
+            Balance current,
+            TransactionType type,
+            long amount,
+            BalanceCheck check,
+            Committer committer) {
+        if (current.version - ledger.committedVersion >= maxBacklog) {
+            throw new PointOverloadedException();
+        }
+        check.validate(current.point, amount);
+
+        long point = type == TransactionType.CHARGE ? current.point + amount : current.point - amount;
+        long updateMillis = Math.max(System.currentTimeMillis(), current.updateMillis);
+        Balance updated = new Balance(point, updateMillis, current.version + 1);
+        if (!ledger.state.compareAndSet(current, updated)) {
+            return null;
+        }
+        if (ledger.add(new Commit(updated.version, point, type, amount, updateMillis))) {
+            schedule(userId, ledger, committer);
+        }
+        return new UserPoint(userId, point, updateMillis);
+    }
+
+    /**
+     * 같은 유저의 반영은 모니터 안에서만 일어나므로 CAS 없이 바꾼다. (retire 도 같은 모니터를 잡는다)
+     *
+     * @return 내려진 유저면 null
+     */
+    private UserPoint applyJournaled(
+            long userId,
+            UserLedger ledger,
+            TransactionType type,
+            long amount,
+            BalanceCheck check,
+            Journaler journaler,
+            Committer committer) {
+        long point;
+        long updateMillis;
+        boolean schedule;
+        synchronized (ledger) {
+            Balance current = ledger.current();
+            if (current == RETIRED) {
+                return null;
+            }
+            if (current.version - ledger.committedVersion >= maxBacklog) {
+                throw new PointOverloadedException();
+            }
+            check.validate(current.point, amount);
+            updateMillis = Math.max(System.currentTimeMillis(), current.updateMillis);
+            journaler.append(userId, type, amount, updateMillis);
+
+            point = type == TransactionType.CHARGE ? current.point + amount : current.point - amount;
+            ledger.state.set(new Balance(point, updateMillis, current.version + 1));
+            schedule = ledger.add(new Commit(current.version + 1, point, type, amount, updateMillis));
+        }
+        if (schedule) {
+            schedule(userId, ledger, committer);
+        }
+        return new UserPoint(userId, point, updateMillis);
+    }
+
+    /**
+     * 파티션이 받지 않았거나 종료하며 버린 기록 작업은 그 자리(호출/종료 스레드)에서 기록한다.
+     */
+    private void schedule(long userId, UserLedger ledger, Committer committer) {
+        applier.submit(userId, () -> {
+            commit(userId, ledger, committer);
+            return null;
+        }).exceptionally(e -> {
+            log.warn("원장 기록 작업을 파티션에서 실행하지 못해 바로 기록합니다: userId={}", userId, e);
+            commit(userId, ledger, committer);
+            return null;
+        });
+    }
+
+    /**
+     * 기록이 실패했으면 기다렸다가 기록 작업을 다시 올린다. (기록 작업은 계속 올라가 있는 것으로 본다)
+     */
+    private void commit(long userId, UserLedger ledger, Committer committer) {
+        long retryMillis = ledger.commitPending(userId, committer);
+        if (retryMillis > 0) {
+            CompletableFuture.delayedExecutor(retryMillis, TimeUnit.MILLISECONDS)
+                    .execute(() -> schedule(userId, ledger, committer));
+        }
+    }
+
+    private UserLedger ledgerOf(long userId, LongFunction<UserPoint> loader) {
+        return ledgerOf(userId, loader, true);
+    }
+
+    /**
+     * @param waitForRoom false 면 자리가 없을 때 기다리지 않고 null 을 반환한다.
+     */
+    private UserLedger ledgerOf(long userId, LongFunction<UserPoint> loader, boolean waitForRoom) {
+        UserLedger ledger = ledgers.get(userId);
+        if (ledger == null) {
+            if (!hasRoom()) {
+                if (!waitForRoom) {
+                    return null;
+                }
+                awaitRoom();
+            }
+            ledger = ledgers.computeIfAbsent(userId, id -> new UserLedger());
+        }
+        if (ledger.state.get() == null) {
+            // 느린 테이블 조회를 맵 잠금 밖에서, 유저당 한 번만 한다.
+            synchronized (ledger) {
+                if (ledger.state.get() == null) {
+                    UserPoint loaded = loader.apply(userId);
+                    ledger.state.set(new Balance(loaded.point(), loaded.updateMillis(), 0));
+                }
+            }
+        }
+        return ledger;
+    }
+
+    /**
+     * 새 유저를 올릴 자리가 있는지. 7/8 에 이르렀으면 정리를 시작한다. (false 면 eviction 에 정리가 들어 있다)
+     */
+    private boolean hasRoom() {
+        int size = ledgers.size();
+        if (size < maxUsers - Math.max(1, maxUsers / 8)) {
+            return true;
+        }
+        startEviction();
+        return size < maxUsers;
+    }
+
+    /**
+     * 진행 중인 정리를 기다린다. 그 정리가 시작된 뒤에 찬 자리라면 한 번 더 정리한다.
+     *
+     * @throws PointOverloadedException 정리한 뒤에도 자리가 없는 경우
+     */
+    private void awaitRoom() {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            eviction.get().join();
+            if (hasRoom()) {
+                return;
+            }
+        }
+        throw new PointOverloadedException();
+    }
+
+    private void startEviction() {
+        CompletableFuture<Void> running = eviction.get();
+        if (running != null && !running.isDone()) {
+            return;
+        }
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        if (eviction.compareAndSet(running, started)) {
+            CompletableFuture.runAsync(this::evictCommitted)
+                    .whenComplete((ignored, e) -> {
+                        if (e != null) {
+                            log.error("원장 정리 실패", e);
+                        }
+                        started.complete(null);
+                    });
+        }
+    }
+
+    /**
+     * 모두 기록된 유저를 내려 maxUsers 의 3/4 까지 줄인다. (startEviction 이 한 번에 하나만 돌린다)
+     * - 내린 유저의 잔액은 테이블에 기록되어 있으므로 다음 사용 때 다시 읽어 온다.
+     */
+    private void evictCommitted() {
+        int target = maxUsers - Math.max(1, maxUsers / 4);
+        int evicted = 0;
+        for (Map.Entry<Long, UserLedger> entry : ledgers.entrySet()) {
+            if (ledgers.size() <= target) {
+                break;
+            }
+            if (entry.getValue().retire()) {
+                ledgers.remove(entry.getKey(), entry.getValue());
+                evicted++;
+            }
+        }
+        log.info("원장에서 기록이 끝난 유저를 내렸습니다: evicted={}, remaining={}", evicted, ledgers.size());
+    }
+
+    @FunctionalInterface
+    public interface BalanceCheck {
+        void validate(long currentPoint, long amount);
+    }
+
+    @FunctionalInterface
+    public interface Journaler {
+        void append(long userId, TransactionType type, long amount, long updateMillis);
+    }
+
+    @FunctionalInterface
+    public interface Committer {
+        /**
+         * @param point   changes 를 모두 반영한 잔액
+         * @param changes 반영 순서대로의 변경 (이력으로 남긴다)
+         */
+        void commit(long userId, long point, List<Change> changes);
+    }
+
+    public record Change(TransactionType type, long amount, long updateMillis) {
+    }
+
+    private record Balance(long point, long updateMillis, long version) {
+    }
+
+    private record Commit(long version, long point, TransactionType type, long amount, long updateMillis) {
+    }
+
+    private static final class UserLedger {
+        private final AtomicReference<Balance> state = new AtomicReference<>();
+        /**
+         * 아래 필드는 이 객체의 모니터로 보호한다.
+         */
+        private final PriorityQueue<Commit> pending = new PriorityQueue<>(
+                (left, right) -> Long.compare(left.version, right.version)
+        );
+        private boolean scheduled;
+        // 이어서 실패한 기록 횟수 (다시 올릴 때까지 기다리는 시간을 정한다)
+        private int failures;
+        // 반영 시 backlog 를 잴 때는 모니터 없이 읽는다.
+        private volatile long committedVersion;
+
+        private Balance current() {
+            return state.get();
+        }
+
+        /**
+         * @return 기록 작업을 새로 올려야 하는지
+         */
+        private synchronized boolean add(Commit commit) {
+            pending.add(commit);
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        /**
+         * 이어지는 version 이 남아 있는 동안 모아서 기록한다. 비어 있는 version 이 들어오면 그 스레드가 다시 올린다.
+         *
+         * @return 기록이 실패했으면 다시 올릴 때까지 기다릴 시간(ms), 모두 기록했으면 0
+         */
+        private long commitPending(long userId, Committer committer) {
+            while (true) {
+                List<Commit> batch = new ArrayList<>();
+                synchronized (this) {
+                    long next = committedVersion + 1;
+                    while (!pending.isEmpty() && pending.peek().version == next) {
+                        batch.add(pending.poll());
+                        next++;
+                    }
+                    if (batch.isEmpty()) {
+                        scheduled = false;
+                        return 0;
+                    }
+                }
+
+                Commit last = batch.get(batch.size() - 1);
+                try {
+                    committer.commit(userId, last.point, batch.stream()
+                            .map(commit -> new Change(commit.type, commit.amount, commit.updateMillis))
+                            .toList());
+                } catch (RuntimeException e) {
+                    // 기록하지 않은 변경을 건너뛰면 테이블과 이력에서 빠지므로, 되돌려 두고 다시 시도한다.
+                    int attempts;
+                    synchronized (this) {
+                        pending.addAll(batch);
+                        attempts = ++failures;
+                    }
+                    long retryMillis = Math.min(RETRY_MAX_MILLIS, RETRY_INITIAL_MILLIS << Math.min(attempts - 1, 16));
+                    log.error("원장 반영 실패, {}ms 뒤 다시 시도합니다: userId={}, versions={}..{}, failures={}",
+                            retryMillis, userId, batch.get(0).version, last.version, attempts, e);
+                    return retryMillis;
+                }
+                synchronized (this) {
+                    committedVersion = last.version;
+                    failures = 0;
+                    notifyAll();
+                    // 기록을 기다린 쪽이 바로 내릴 수 있도록 이어서 기록할 것이 없으면 여기서 끝낸다.
+                    if (pending.isEmpty() || pending.peek().version != committedVersion + 1) {
+                        scheduled = false;
+                        return 0;
+                    }
+                }
+            }
+        }
+
+        /**
+         * 모두 기록되었고 기록 작업도 없으면 RETIRED 로 바꾼다.
+         * 이후 CAS 는 실패하므로 반영이 이 객체에 남지 않는다.
+         */
+        private synchronized boolean retire() {
+            Balance current = state.get();
+            return current != null
+                    && current != RETIRED
+                    && !scheduled
+                    && committedVersion == current.version
+                    && state.compareAndSet(current, RETIRED);
+        }
+
+        private synchronized void awaitCommitted(long timeoutNanos) {
+            Balance current = state.get();
+            long target = current == null || current == RETIRED ? 0 : current.version;
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (committedVersion < target) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new PointTimeoutException("포인트 기록을 기다리는 중 타임아웃이 발생했습니다.");
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new PointTimeoutException("포인트 기록을 기다리는 중 중단되었습니다.");
+                }
+            }
+        }
+    }
+}
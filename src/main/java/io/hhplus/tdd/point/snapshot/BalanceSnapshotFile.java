@@ -0,0 +1,182 @@
+package io.hhplus.tdd.point.snapshot;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.store.LongBalanceStore;
+import io.hhplus.tdd.point.store.LongBalanceStore.BalanceVisitor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * 잔액 스냅샷 파일
+ * - header : magic(4) version(4) count(8)
+ * - body : userId(8) point(8) updateMillis(8) 가 count 개
+ * - footer : body 다음 header 순서로 계산한 crc(4)
+ * 임시 파일에 모두 쓴 뒤 이름을 바꿔 교체하므로 읽는 쪽은 항상 완성된 파일만 본다.
+ * 잔액을 하나씩 흘려 쓰고 count 는 다 쓴 뒤에 알게 되므로 header 를 마지막에 채운다.
+ */
+public final class BalanceSnapshotFile {
+    private static final int MAGIC = 0x50_4E_54_53;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 24;
+    private static final int CHUNK_ENTRIES = 4096;
+
+    private BalanceSnapshotFile() {
+    }
+
+    /**
+     * @param balances 쓰는 동안 바뀌지 않는 목록
+     */
+    public static void write(Path path, Collection<UserPoint> balances) {
+        write(path, visitor -> balances.forEach(balance ->
+                visitor.visit(balance.id(), balance.point(), balance.updateMillis())));
+    }
+
+    /**
+     * 저장소를 세그먼트 단위로 복사하면서 쓴다. UserPoint 를 만들지 않는다.
+     */
+    public static void write(Path path, LongBalanceStore balances) {
+        write(path, balances::forEach);
+    }
+
+    private static void write(Path path, Consumer<BalanceVisitor> source) {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(
+                    temp,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                CRC32C crc = new CRC32C();
+                ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_ENTRIES * ENTRY_SIZE);
+                long[] count = new long[1];
+
+                channel.position(HEADER_SIZE);
+                source.accept((userId, point, updateMillis) -> {
+                    if (buffer.remaining() < ENTRY_SIZE) {
+                        writeChunk(channel, buffer, crc, path);
+                    }
+                    buffer.putLong(userId).putLong(point).putLong(updateMillis);
+                    count[0]++;
+                });
+                writeChunk(channel, buffer, crc, path);
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(count[0]);
+                crc.update(header.flip().duplicate());
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                buffer.putInt((int) crc.getValue());
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("잔액 스냅샷을 쓸 수 없습니다: " + path, e);
+        }
+    }
+
+    /**
+     * 파일이 없으면 0, 손상된 파일이면 예외
+     * - 파일 크기와 상관없이 CHUNK_ENTRIES 개씩 읽는다. crc 를 먼저 확인하고 다시 읽으면서 넘겨주므로
+     *   손상된 파일의 잔액은 하나도 넘기지 않는다.
+     *
+     * @return 읽은 잔액 수
+     */
+    public static long read(Path path, Consumer<UserPoint> consumer) {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (size < HEADER_SIZE + 4) {
+                throw new IllegalStateException("잔액 스냅샷 형식이 아닙니다: " + path);
+            }
+            readFully(channel, header, 0, path);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IllegalStateException("잔액 스냅샷 형식이 아닙니다: " + path);
+            }
+            long count = header.getLong();
+            long bodySize = size - HEADER_SIZE - 4;
+            if (count < 0 || bodySize % ENTRY_SIZE != 0 || count != bodySize / ENTRY_SIZE) {
+                throw new IllegalStateException("잔액 스냅샷 크기가 맞지 않습니다: " + path);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_ENTRIES * ENTRY_SIZE);
+            CRC32C crc = new CRC32C();
+            for (long position = HEADER_SIZE; position < HEADER_SIZE + bodySize; position += buffer.limit()) {
+                readChunk(channel, buffer, position, HEADER_SIZE + bodySize, path);
+                crc.update(buffer);
+            }
+            crc.update(header.flip());
+            ByteBuffer footer = ByteBuffer.allocate(4);
+            readFully(channel, footer, size - 4, path);
+            if ((int) crc.getValue() != footer.flip().getInt()) {
+                throw new IllegalStateException("잔액 스냅샷이 손상되었습니다: " + path);
+            }
+
+            for (long position = HEADER_SIZE; position < HEADER_SIZE + bodySize; position += buffer.limit()) {
+                readChunk(channel, buffer, position, HEADER_SIZE + bodySize, path);
+                while (buffer.hasRemaining()) {
+                    consumer.accept(new UserPoint(buffer.getLong(), buffer.getLong(), buffer.getLong()));
+                }
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("잔액 스냅샷을 읽을 수 없습니다: " + path, e);
+        }
+    }
+
+    /**
+     * position 부터 end 전까지 buffer 크기만큼 읽어 읽기 상태(flip)로 둔다.
+     */
+    private static void readChunk(FileChannel channel, ByteBuffer buffer, long position, long end, Path path)
+            throws IOException {
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), end - position));
+        readFully(channel, buffer, position, path);
+        buffer.flip();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position, Path path) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IllegalStateException("잔액 스냅샷이 중간에 끝났습니다: " + path);
+            }
+            position += read;
+        }
+    }
+
+    private static void writeChunk(FileChannel channel, ByteBuffer buffer, CRC32C crc, Path path) {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("잔액 스냅샷을 쓸 수 없습니다: " + path, e);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,103 @@
+package io.hhplus.tdd.point.snapshot;
+
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.UserPointListener;
+import io.hhplus.tdd.point.UserPointSource;
+import io.hhplus.tdd.point.store.LongBalanceStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서비스가 저장한 모든 잔액을 주기적으로 스냅샷 파일에 남기고, 시작할 때 다시 읽어 온다.
+ * - 잔액이 저장될 때마다 유저별 최신 값만 기억하고, 스냅샷은 그 복사본을 백그라운드에서 쓴다.
+ * - 읽어 온 잔액은 테이블에 쓰지 않고 이 저장소에서 바로 조회된다. (find, 테이블에는 다음 저장 때 반영)
+ * - 최신 값은 유저마다 객체를 두지 않는 LongBalanceStore 에 둔다. (유저 수만큼 계속 커지는 구조)
+ * - 종료할 때 마지막 스냅샷을 한 번 더 쓴다.
+ */
+public class BalanceSnapshotter implements UserPointListener, UserPointSource, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(BalanceSnapshotter.class);
+
+    private final Path path;
+    private final PointMetrics metrics;
+    private final LongBalanceStore balances;
+    private final ScheduledExecutorService scheduler;
+
+    public BalanceSnapshotter(Path path, Duration interval, LongBalanceStore balances, PointMetrics metrics) {
+        this.path = path;
+        this.balances = balances;
+        this.metrics = metrics;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onWritten(UserPoint userPoint) {
+        // 같은 유저의 저장은 순서대로 들어오므로 나중 값이 최신이다.
+        balances.put(userPoint.id(), userPoint.point(), userPoint.updateMillis());
+    }
+
+    /**
+     * 스냅샷의 잔액을 메모리 저장소로만 읽어 온다. 요청을 받기 전에 한 번만 호출한다.
+     * 느린 테이블을 거치지 않으므로 유저 수가 많아도 시작 시간이 거의 늘지 않는다.
+     *
+     * @return 읽은 잔액 수
+     */
+    public long restore() {
+        long startedAt = System.nanoTime();
+        long count = BalanceSnapshotFile.read(path,
+                balance -> balances.put(balance.id(), balance.point(), balance.updateMillis()));
+        long elapsed = System.nanoTime() - startedAt;
+        metrics.recordSnapshotLoad(count, elapsed);
+        log.info("잔액 스냅샷 적재 완료: path={}, users={}, took={}ms", path, count, elapsed / 1_000_000);
+        return count;
+    }
+
+    /**
+     * 스냅샷에서 읽어 왔거나 그 뒤 저장된 이 유저의 최신 잔액, 모르면 null
+     */
+    @Override
+    public UserPoint find(long userId) {
+        return balances.get(userId);
+    }
+
+    public void snapshot() {
+        long startedAt = System.nanoTime();
+        BalanceSnapshotFile.write(path, balances);
+        metrics.recordSnapshotWrite(balances.size(), balances.memoryBytes(), System.nanoTime() - startedAt);
+    }
+
+    public int size() {
+        return balances.size();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotQuietly();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.error("잔액 스냅샷 기록 실패: path={}", path, e);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package io.hhplus.tdd.point.store;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.nio.ByteBuffer;
+
+/**
+ * userId(long) -> (point, updateMillis) 를 객체 없이 저장하는 open addressing 해시 테이블
+ * - 슬롯은 key(8) point(8) updateMillis(8) = 24 byte 이고, key 0 을 빈 슬롯으로 쓴다. (userId 는 1 이상)
+ *   userId 는 양수이므로 key 의 부호 비트를 참조 비트(REFERENCED)로 쓴다.
+ * - offHeap 이면 direct ByteBuffer 에 두어 힙과 GC 대상에서 뺀다.
+ * - 세그먼트마다 잠금을 따로 두고, 사용률이 3/4 을 넘은 세그먼트만 두 배로 늘린다.
+ * - maxUsers 를 주면 세그먼트마다 maxUsers / 세그먼트 수 까지만 두고, 찬 세그먼트에 새 유저가 오면 CLOCK 으로 하나를 지운다.
+ *   get/put 이 참조 비트를 켜고, 시곗바늘은 켜진 비트를 끄며 지나가다가 꺼진 유저를 지운다.
+ *   (마지막으로 지나간 뒤 다시 쓰인 유저는 한 바퀴 더 남는다. 값이 없으면 모른다는 뜻인 캐시 용도로만 쓴다)
+ * - UserPoint 는 get 으로 밖에 내보낼 때만 만든다.
+ */
+public class LongBalanceStore {
+    static final int SLOT_SIZE = 24;
+    private static final long REFERENCED = Long.MIN_VALUE;
+    private static final long KEY_MASK = Long.MAX_VALUE;
+    private static final int SEGMENT_COUNT = 64;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    public LongBalanceStore(int expectedUsers, boolean offHeap) {
+        this(expectedUsers, offHeap, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxUsers 이보다 많아지지 않도록 지운다. (세그먼트 단위로 나누므로 최소 세그먼트 수만큼은 둔다)
+     */
+    public LongBalanceStore(int expectedUsers, boolean offHeap, int maxUsers) {
+        int perSegment = Math.max(MIN_SEGMENT_CAPACITY, expectedUsers / SEGMENT_COUNT * 4 / 3 + 1);
+        int capacity = Integer.highestOneBit(perSegment - 1) << 1;
+        int maxPerSegment = Math.max(1, maxUsers / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(capacity, offHeap, maxPerSegment);
+        }
+    }
+
+    public void put(long userId, long point, long updateMillis) {
+        checkId(userId);
+        long hash = mix(userId);
+        segmentOf(hash).put(userId, hash, point, updateMillis);
+    }
+
+    /**
+     * @return 저장된 적이 없으면 null
+     */
+    public UserPoint get(long userId) {
+        checkId(userId);
+        long hash = mix(userId);
+        return segmentOf(hash).get(userId, hash);
+    }
+
+    /**
+     * 세그먼트가 차서 지운 유저 수
+     */
+    public long evictionCount() {
+        long evictions = 0;
+        for (Segment segment : segments) {
+            evictions += segment.evictions();
+        }
+        return evictions;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 슬롯 배열이 차지하는 메모리 (빈 슬롯 포함)
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.memoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * 세그먼트 단위로 복사한 뒤 잠금 없이 방문한다.
+     * 방문 중에 바뀐 값은 반영되지 않을 수 있지만 한 유저의 값이 섞이지는 않는다.
+     */
+    public void forEach(BalanceVisitor visitor) {
+        for (Segment segment : segments) {
+            ByteBuffer copied = segment.copy();
+            for (int offset = 0; offset < copied.capacity(); offset += SLOT_SIZE) {
+                long key = copied.getLong(offset) & KEY_MASK;
+                if (key != 0) {
+                    visitor.visit(key, copied.getLong(offset + 8), copied.getLong(offset + 16));
+                }
+            }
+        }
+    }
+
+    private Segment segmentOf(long hash) {
+        // 상위 비트로 세그먼트를, 하위 비트로 슬롯을 고른다.
+        return segments[(int) (hash >>> 58)];
+    }
+
+    private static void checkId(long userId) {
+        if (userId <= 0) {
+            throw new IllegalArgumentException("유효하지 않은 ID입니다.");
+        }
+    }
+
+    private static long mix(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    @FunctionalInterface
+    public interface BalanceVisitor {
+        void visit(long userId, long point, long updateMillis);
+    }
+
+    private static final class Segment {
+        private final boolean offHeap;
+        private final int maxSize;
+        private ByteBuffer slots;
+        private int mask;
+        private int size;
+        // 다음에 지울 유저를 찾기 시작할 슬롯
+        private int hand;
+        private long evictions;
+
+        private Segment(int capacity, boolean offHeap, int maxSize) {
+            this.offHeap = offHeap;
+            this.maxSize = maxSize;
+            this.slots = allocate(capacity);
+            this.mask = capacity - 1;
+        }
+
+        private synchronized void put(long userId, long hash, long point, long updateMillis) {
+            int offset = find(userId, hash);
+            if (slots.getLong(offset) == 0) {
+                if (size >= maxSize) {
+                    evictOne();
+                    offset = find(userId, hash);
+                }
+                if ((size + 1) * 4L > (mask + 1) * 3L) {
+                    grow();
+                    offset = find(userId, hash);
+                }
+                size++;
+            }
+            slots.putLong(offset, userId | REFERENCED);
+            slots.putLong(offset + 8, point);
+            slots.putLong(offset + 16, updateMillis);
+        }
+
+        private synchronized UserPoint get(long userId, long hash) {
+            int offset = find(userId, hash);
+            long key = slots.getLong(offset);
+            if (key == 0) {
+                return null;
+            }
+            if (key > 0) {
+                slots.putLong(offset, key | REFERENCED);
+            }
+            return new UserPoint(userId, slots.getLong(offset + 8), slots.getLong(offset + 16));
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized long memoryBytes() {
+            return (long) slots.capacity();
+        }
+
+        private synchronized long evictions() {
+            return evictions;
+        }
+
+        private synchronized ByteBuffer copy() {
+            ByteBuffer copied = ByteBuffer.allocate(slots.capacity());
+            copied.put(slots.duplicate().clear());
+            return copied;
+        }
+
+        /**
+         * userId 가 있는 슬롯, 없으면 처음 만나는 빈 슬롯의 위치 (linear probing)
+         */
+        private int find(long userId, long hash) {
+            int index = (int) hash & mask;
+            while (true) {
+                int offset = index * SLOT_SIZE;
+                long key = slots.getLong(offset) & KEY_MASK;
+                if (key == userId || key == 0) {
+                    return offset;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        /**
+         * 참조 비트가 켜진 유저는 비트만 끄고 지나간다. 모두 켜져 있어도 두 바퀴 안에 하나를 지운다.
+         */
+        private void evictOne() {
+            int capacity = mask + 1;
+            for (int i = 0; i < capacity * 2; i++) {
+                int index = (hand + i) & mask;
+                int offset = index * SLOT_SIZE;
+                long key = slots.getLong(offset);
+                if (key < 0) {
+                    slots.putLong(offset, key & KEY_MASK);
+                } else if (key != 0) {
+                    removeAt(index);
+                    hand = (index + 1) & mask;
+                    evictions++;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 지운 자리 뒤로 이어진 슬롯 중 원래 자리가 지운 자리 이전인 유저를 당겨 와 탐색이 끊기지 않게 한다. (backward shift)
+         */
+        private void removeAt(int hole) {
+            int index = hole;
+            while (true) {
+                index = (index + 1) & mask;
+                int offset = index * SLOT_SIZE;
+                long key = slots.getLong(offset);
+                if (key == 0) {
+                    break;
+                }
+                int home = (int) mix(key & KEY_MASK) & mask;
+                boolean reachable = hole <= index
+                        ? hole < home && home <= index
+                        : hole < home || home <= index;
+                if (!reachable) {
+                    int target = hole * SLOT_SIZE;
+                    slots.putLong(target, key);
+                    slots.putLong(target + 8, slots.getLong(offset + 8));
+                    slots.putLong(target + 16, slots.getLong(offset + 16));
+                    hole = index;
+                }
+            }
+            int offset = hole * SLOT_SIZE;
+            slots.putLong(offset, 0);
+            slots.putLong(offset + 8, 0);
+            slots.putLong(offset + 16, 0);
+            size--;
+        }
+
+        private void grow() {
+            ByteBuffer previous = slots;
+            int capacity = (mask + 1) * 2;
+            slots = allocate(capacity);
+            mask = capacity - 1;
+            for (int offset = 0; offset < previous.capacity(); offset += SLOT_SIZE) {
+                long key = previous.getLong(offset);
+                if (key != 0) {
+                    int target = find(key & KEY_MASK, mix(key & KEY_MASK));
+                    slots.putLong(target, key);
+                    slots.putLong(target + 8, previous.getLong(offset + 8));
+                    slots.putLong(target + 16, previous.getLong(offset + 16));
+                }
+            }
+        }
+
+        private ByteBuffer allocate(int capacity) {
+            int bytes = Math.multiplyExact(capacity, SLOT_SIZE);
+            return offHeap ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes);
+        }
+    }
+}
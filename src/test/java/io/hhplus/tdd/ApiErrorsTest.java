@@ -0,0 +1,65 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.exception.IdempotencyKeyConflictException;
+import io.hhplus.tdd.point.exception.InsufficientPointException;
+import io.hhplus.tdd.point.exception.InvalidPointRequestException;
+import io.hhplus.tdd.point.exception.PointOverloadedException;
+import io.hhplus.tdd.point.exception.PointTimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiErrorsTest {
+
+    @Test
+    void testValidationErrorsAreBadRequest() {
+        // given
+        InvalidPointRequestException invalid = new InvalidPointRequestException("유효하지 않은 ID입니다.");
+
+        // when
+        ErrorResponse response = ApiErrors.response(invalid);
+
+        // then
+        assertEquals(400, ApiErrors.status(invalid));
+        assertEquals(new ErrorResponse("400", "유효하지 않은 ID입니다."), response);
+        assertEquals(400, ApiErrors.status(new InsufficientPointException()));
+    }
+
+    @Test
+    void testOtherIllegalArgumentIsInternalError() {
+        // when: 검증이 아닌 곳에서 난 IllegalArgumentException (내부 저장소, 설정 등)
+        ErrorResponse response = ApiErrors.response(new IllegalArgumentException("segmentSize 는 레코드 크기보다 커야 합니다: 8"));
+
+        // then
+        assertEquals(new ErrorResponse("500", "에러가 발생했습니다."), response);
+    }
+
+    @Test
+    void testOnlyOverloadAndTimeoutAreRetryable() {
+        // given
+        int overloaded = ApiErrors.status(new PointOverloadedException());
+        int timeout = ApiErrors.status(new PointTimeoutException("포인트 충전 처리 중 타임아웃이 발생했습니다."));
+        int conflict = ApiErrors.status(new IdempotencyKeyConflictException());
+
+        // then
+        assertEquals(429, overloaded);
+        assertEquals(429, ApiErrors.status(new RejectedExecutionException()), "스레드 풀이 가득 찬 경우");
+        assertEquals(503, timeout);
+        assertEquals(422, conflict);
+        assertTrue(ApiErrors.isRetryable(overloaded));
+        assertTrue(ApiErrors.isRetryable(timeout));
+        assertFalse(ApiErrors.isRetryable(conflict));
+    }
+
+    @Test
+    void testUnexpectedErrorHidesMessage() {
+        // when
+        ErrorResponse response = ApiErrors.response(new IllegalStateException("내부 상태"));
+
+        // then
+        assertEquals(new ErrorResponse("500", "에러가 발생했습니다."), response);
+    }
+}
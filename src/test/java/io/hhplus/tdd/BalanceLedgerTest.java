@@ -0,0 +1,357 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointValidator;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.execution.PartitionedPointExecutor;
+import io.hhplus.tdd.point.exception.InsufficientPointException;
+import io.hhplus.tdd.point.exception.PointOverloadedException;
+import io.hhplus.tdd.point.exception.PointTimeoutException;
+import io.hhplus.tdd.point.ledger.BalanceLedger;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceLedgerTest {
+    private final PointValidator validator = new PointValidator();
+
+    @Test
+    void testConcurrentChargesAreCommittedInVersionOrder() throws InterruptedException {
+        // given
+        PartitionedPointExecutor applier = new PartitionedPointExecutor(4, Duration.ofSeconds(5));
+        BalanceLedger ledger = new BalanceLedger(applier, 100, 10_000);
+        List<Long> committed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger histories = new AtomicInteger();
+        int threadCount = 8;
+        int iterations = 500;
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    for (int j = 0; j < iterations; j++) {
+                        ledger.apply(1L, TransactionType.CHARGE, 1L, UserPoint::empty,
+                                validator::validateAmountOverflow,
+                                (userId, point, changes) -> {
+                                    committed.add(point);
+                                    histories.addAndGet(changes.size());
+                                });
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(30, TimeUnit.SECONDS);
+        executorService.shutdown();
+        ledger.awaitCommitted(1L, 5, TimeUnit.SECONDS);
+
+        // then
+        long total = (long) threadCount * iterations;
+        assertEquals(total, ledger.get(1L, UserPoint::empty).point());
+        assertEquals(total, histories.get(), "이력은 변경마다 남김");
+        for (int i = 1; i < committed.size(); i++) {
+            assertTrue(committed.get(i - 1) < committed.get(i), "반영 순서대로 기록");
+        }
+        assertEquals(total, (long) committed.get(committed.size() - 1));
+        applier.close();
+    }
+
+    @Test
+    void testJournalIsWrittenInVersionOrderBeforeReturning() throws InterruptedException {
+        // given
+        PartitionedPointExecutor applier = new PartitionedPointExecutor(4, Duration.ofSeconds(5));
+        BalanceLedger ledger = new BalanceLedger(applier, 100, 10_000);
+        List<Long> journaled = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger journaledBalance = new AtomicInteger();
+        List<Long> missing = Collections.synchronizedList(new ArrayList<>());
+        int threadCount = 8;
+        int iterations = 200;
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    for (int j = 0; j < iterations; j++) {
+                        UserPoint applied = ledger.apply(1L, TransactionType.CHARGE, 1L, UserPoint::empty,
+                                validator::validateAmountOverflow,
+                                (userId, type, amount, updateMillis) -> journaled.add((long) journaledBalance.incrementAndGet()),
+                                (userId, point, changes) -> {
+                                });
+                        if (!journaled.contains(applied.point())) {
+                            missing.add(applied.point());
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(30, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then: 응답한 잔액은 모두 이미 저널에 있고, 저널 순서가 반영 순서와 같다.
+        long total = (long) threadCount * iterations;
+        assertEquals(List.of(), missing);
+        assertEquals(total, journaled.size());
+        assertEquals(total, ledger.get(1L, UserPoint::empty).point());
+        applier.close();
+    }
+
+    @Test
+    void testFailedJournalIsNotApplied() {
+        // given
+        PartitionedPointExecutor applier = new PartitionedPointExecutor(1, Duration.ofSeconds(5));
+        BalanceLedger ledger = new BalanceLedger(applier, 100, 10_000);
+        List<Long> committed = Collections.synchronizedList(new ArrayList<>());
+        BalanceLedger.Committer committer = (userId, point, changes) -> committed.add(point);
+        ledger.apply(1L, TransactionType.CHARGE, 100L, UserPoint::empty, validator::validateAmountOverflow,
+                (userId, type, amount, updateMillis) -> {
+                }, committer);
+
+        // when
+        assertThrows(IllegalStateException.class, () -> ledger.apply(
+                1L, TransactionType.CHARGE, 50L, UserPoint::empty, validator::validateAmountOverflow,
+                (userId, type, amount, updateMillis) -> {
+                    throw new IllegalStateException("닫힌 저널입니다.");
+                }, committer));
+        ledger.awaitCommitted(1L, 5, TimeUnit.SECONDS);
+
+        // then
+        assertEquals(100L, ledger.get(1L, UserPoint::empty).point());
+        assertEquals(List.of(100L), committed);
+        applier.close();
+    }
+
+    @Test
+    void testUseIsValidatedAgainstLatestBalance() throws InterruptedException {
+        // given: 10건 중 5건만 사용할 수 있는 잔액
+        PartitionedPointExecutor applier = new PartitionedPointExecutor(1, Duration.ofSeconds(5));
+        BalanceLedger ledger = new BalanceLedger(applier, 100, 10_000);
+        ledger.apply(1L, TransactionType.CHARGE, 500L, UserPoint::empty,
+                validator::validateAmountOverflow, (userId, point, changes) -> {
+                });
+
+        int threadCount = 10;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger insufficient = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    ledger.apply(1L, TransactionType.USE, 100L, UserPoint::empty,
+                            validator::validateBalance, (userId, point, changes) -> {
+                            });
+                    succeeded.incrementAndGet();
+                } catch (InsufficientPointException e) {
+                    insufficient.incrementAndGet();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(10, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertEquals(5, succeeded.get());
+        assertEquals(5, insufficient.get());
+        assertEquals(0L, ledger.get(1L, UserPoint::empty).point());
+        applier.close();
+    }
+
+    @Test
+    void testPendingCommitsAreCoalesced() throws InterruptedException {
+        // given: 첫 기록이 끝나지 않은 동안 10건이 더 반영됨
+        PartitionedPointExecutor applier = new PartitionedPointExecutor(1, Duration.ofSeconds(5));
+        BalanceLedger ledger = new BalanceLedger(applier, 100, 10_000);
+        CountDownLatch firstCommit = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> points = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> changeCounts = Collections.synchronizedList(new ArrayList<>());
+        BalanceLedger.Committer committer = (userId, point, changes) -> {
+            firstCommit.countDown();
+            await(release);
+            points.add(point);
+            changeCounts.add(changes.size());
+        };
+
+        // when
+        ledger.apply(1L, TransactionType.CHARGE, 1L, UserPoint::empty, validator::validateAmountOverflow, committer);
+        assertTrue(firstCommit.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            ledger.apply(1L, TransactionType.CHARGE, 1L, UserPoint::empty, validator::validateAmountOverflow, committer);
+        }
+        release.countDown();
+        ledger.awaitCommitted(1L, 5, TimeUnit.SECONDS);
+
+        // then: 잔액은 두 번만 저장하고 이력은 11건
+        assertEquals(List.of(1L, 11L), points);
+        assertEquals(List.of(1, 10), changeCounts);
+        applier.close();
+    }
+
+    @Test
+    void testAwaitCommittedThrowsOnTimeout() throws InterruptedException {
+        // given: 기록이 끝나지 않음
+        PartitionedPointExecutor applier = new PartitionedPointExecutor(1, Duration.ofSeconds(5));
+        BalanceLedger ledger = new BalanceLedger(applier, 100, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        ledger.apply(1L, TransactionType.CHARGE, 1L, UserPoint::empty, validator::validateAmountOverflow,
+                (userId, point, changes) -> await(release));
+
+        // when & then
+        assertThrows(PointTimeoutException.class, () -> ledger.awaitCommitted(1L, 50, TimeUnit.MILLISECONDS));
+        release.countDown();
+        ledger.awaitCommitted(1L, 5, TimeUnit.SECONDS);
+        applier.close();
+    }
+
+    @Test
+    void testBacklogIsBounded() {
+        // given: 기록 대기 최대 2건, 기록이 끝나지 않음
+        PartitionedPointExecutor applier = new PartitionedPointExecutor(1, Duration.ofSeconds(5));
+        BalanceLedger ledger = new BalanceLedger(applier, 100, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        BalanceLedger.Committer committer = (userId, point, changes) -> await(release);
+        ledger.apply(1L, TransactionType.CHARGE, 1L, UserPoint::empty, validator::validateAmountOverflow, committer);
+        ledger.apply(1L, TransactionType.CHARGE, 1L, UserPoint::empty, validator::validateAmountOverflow, committer);
+
+        // when & then
+        assertThrows(PointOverloadedException.class, () -> ledger.apply(
+                1L, TransactionType.CHARGE, 1L, UserPoint::empty, validator::validateAmountOverflow, committer));
+        assertEquals(2L, ledger.get(1L, UserPoint::empty).point(), "거절한 변경은 반영하지 않음");
+        release.countDown();
+        ledger.awaitCommitted(1L, 5, TimeUnit.SECONDS);
+        ledger.apply(1L, TransactionType.CHARGE, 1L, UserPoint::empty, validator::validateAmountOverflow, committer);
+        applier.close();
+    }
+
+    @Test
+    void testRejectedCommitIsWrittenWithoutStallingVersions() {
+        // given: 파티션이 종료되어 기록 작업을 받지 않음
+        PartitionedPointExecutor applier = new PartitionedPointExecutor(1, Duration.ofSeconds(5));
+        applier.close();
+        BalanceLedger ledger = new BalanceLedger(applier, 100, 10_000);
+        List<Long> committed = Collections.synchronizedList(new ArrayList<>());
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            ledger.apply(1L, TransactionType.CHARGE, 1L, UserPoint::empty, validator::validateAmountOverflow,
+                    (userId, point, changes) -> committed.add(point));
+        }
+
+        // then
+        assertDoesNotThrow(() -> ledger.awaitCommitted(1L, 1, TimeUnit.SECONDS), "비어 있는 version 이 없어야 함");
+        assertEquals(List.of(1L, 2L, 3L), committed);
+    }
+
+    @Test
+    void testCommittedUsersAreEvictedWhenFull() {
+        // given: 최대 2명
+        PartitionedPointExecutor applier = new PartitionedPointExecutor(1, Duration.ofSeconds(5));
+        BalanceLedger ledger = new BalanceLedger(applier, 2, 10_000);
+        AtomicInteger loads = new AtomicInteger();
+        LongFunction<UserPoint> loader = userId -> {
+            loads.incrementAndGet();
+            return UserPoint.empty(userId);
+        };
+        for (long userId = 1; userId <= 2; userId++) {
+            ledger.apply(userId, TransactionType.CHARGE, 100L, loader, validator::validateAmountOverflow,
+                    (id, point, changes) -> {
+                    });
+            ledger.awaitCommitted(userId, 5, TimeUnit.SECONDS);
+        }
+
+        // when
+        ledger.get(3L, loader);
+
+        // then
+        assertTrue(ledger.size() <= 2, "기록이 끝난 유저를 내려 자리를 만듦: size=" + ledger.size());
+        assertEquals(3, loads.get());
+        applier.close();
+    }
+
+    @Test
+    void testFailedCommitIsRetriedWithoutAdvancing() {
+        // given: 최대 1명, 유저 1의 기록이 두 번 실패한 뒤 성공
+        PartitionedPointExecutor applier = new PartitionedPointExecutor(1, Duration.ofSeconds(5));
+        BalanceLedger ledger = new BalanceLedger(applier, 1, 10_000);
+        AtomicInteger attempts = new AtomicInteger();
+        List<Long> committed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch failing = new CountDownLatch(1);
+        BalanceLedger.Committer committer = (id, point, changes) -> {
+            if (attempts.incrementAndGet() <= 2) {
+                failing.countDown();
+                throw new IllegalStateException("테이블 기록 실패");
+            }
+            committed.add(point);
+        };
+
+        // when
+        ledger.apply(1L, TransactionType.CHARGE, 100L, UserPoint::empty, validator::validateAmountOverflow, committer);
+        await(failing);
+
+        // then: 실패한 동안은 기록된 것으로 보지 않고, 다시 시도해 잔액을 기록한다.
+        assertThrows(PointTimeoutException.class, () -> ledger.awaitCommitted(1L, 1, TimeUnit.MILLISECONDS));
+        ledger.awaitCommitted(1L, 5, TimeUnit.SECONDS);
+        assertEquals(3, attempts.get());
+        assertEquals(List.of(100L), committed);
+        applier.close();
+    }
+
+    @Test
+    void testReadsSkipFullLedgerAndWritesWaitForEviction() {
+        // given: 최대 1명, 유저 1의 기록이 끝나지 않아 내릴 수 없음
+        PartitionedPointExecutor applier = new PartitionedPointExecutor(1, Duration.ofSeconds(5));
+        BalanceLedger ledger = new BalanceLedger(applier, 1, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        LongFunction<UserPoint> loader = userId -> new UserPoint(userId, 500L, 0L);
+        ledger.apply(1L, TransactionType.CHARGE, 100L, loader, validator::validateAmountOverflow,
+                (id, point, changes) -> await(release));
+
+        // when & then: 조회는 적재하지 않고 테이블 값으로 답하고, 변경은 정리를 기다린 뒤에야 거절한다.
+        assertEquals(500L, ledger.get(2L, loader).point());
+        assertEquals(1, ledger.size());
+        assertThrows(PointOverloadedException.class, () -> ledger.apply(
+                2L, TransactionType.CHARGE, 1L, loader, validator::validateAmountOverflow, (id, point, changes) -> {
+                }));
+
+        // 기록이 끝나면 정리가 유저 1을 내리고 유저 2를 올린다.
+        release.countDown();
+        ledger.awaitCommitted(1L, 5, TimeUnit.SECONDS);
+        assertEquals(501L, ledger.apply(2L, TransactionType.CHARGE, 1L, loader, validator::validateAmountOverflow,
+                (id, point, changes) -> {
+                }).point());
+        applier.close();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
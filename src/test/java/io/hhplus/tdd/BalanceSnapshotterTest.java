@@ -0,0 +1,133 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.snapshot.BalanceSnapshotFile;
+import io.hhplus.tdd.point.snapshot.BalanceSnapshotter;
+import io.hhplus.tdd.point.store.LongBalanceStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceSnapshotterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRestoreLoadsLatestSnapshotIntoMemory() {
+        // given: 같은 유저는 마지막 잔액만 남는다.
+        Path path = directory.resolve("balances.snapshot");
+        BalanceSnapshotter snapshotter = new BalanceSnapshotter(path, Duration.ofHours(1), new LongBalanceStore(16, false), new PointMetrics(new SimpleMeterRegistry()));
+        snapshotter.onWritten(new UserPoint(1L, 100L, 1L));
+        snapshotter.onWritten(new UserPoint(2L, 200L, 2L));
+        snapshotter.onWritten(new UserPoint(1L, 150L, 3L));
+        snapshotter.close();
+
+        // when: 재시작
+        BalanceSnapshotter restarted = new BalanceSnapshotter(path, Duration.ofHours(1), new LongBalanceStore(16, false), new PointMetrics(new SimpleMeterRegistry()));
+        long restored = restarted.restore();
+
+        // then
+        assertEquals(2L, restored);
+        assertEquals(new UserPoint(1L, 150L, 3L), restarted.find(1L));
+        assertEquals(new UserPoint(2L, 200L, 2L), restarted.find(2L));
+        assertNull(restarted.find(3L), "스냅샷에 없는 유저는 테이블에서 읽도록 null");
+        assertEquals(2, restarted.size(), "다음 스냅샷에도 적재한 잔액이 포함");
+        restarted.close();
+    }
+
+    @Test
+    void testWrittenBalanceReplacesRestoredBalance() {
+        // given
+        Path path = directory.resolve("balances.snapshot");
+        BalanceSnapshotFile.write(path, List.of(new UserPoint(1L, 100L, 1L)));
+        BalanceSnapshotter snapshotter = new BalanceSnapshotter(path, Duration.ofHours(1), new LongBalanceStore(16, false), new PointMetrics(new SimpleMeterRegistry()));
+        snapshotter.restore();
+
+        // when
+        snapshotter.onWritten(new UserPoint(1L, 70L, 5L));
+
+        // then
+        assertEquals(new UserPoint(1L, 70L, 5L), snapshotter.find(1L));
+        snapshotter.close();
+    }
+
+    @Test
+    void testSnapshotReplacesFileAtomically() throws IOException {
+        // given
+        Path path = directory.resolve("balances.snapshot");
+        BalanceSnapshotFile.write(path, List.of(new UserPoint(1L, 100L, 1L)));
+
+        // when
+        BalanceSnapshotFile.write(path, List.of(new UserPoint(1L, 300L, 2L), new UserPoint(2L, 50L, 2L)));
+
+        // then
+        List<UserPoint> read = new ArrayList<>();
+        assertEquals(2L, BalanceSnapshotFile.read(path, read::add));
+        assertEquals(List.of(new UserPoint(1L, 300L, 2L), new UserPoint(2L, 50L, 2L)), read);
+        assertFalse(Files.exists(path.resolveSibling("balances.snapshot.tmp")), "임시 파일은 남지 않음");
+    }
+
+    @Test
+    void testCorruptedSnapshotIsRejected() throws IOException {
+        // given
+        Path path = directory.resolve("balances.snapshot");
+        BalanceSnapshotFile.write(path, List.of(new UserPoint(1L, 100L, 1L)));
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[20] ^= 0x01;
+        Files.write(path, bytes);
+
+        // when & then
+        assertThrows(IllegalStateException.class, () -> BalanceSnapshotFile.read(path, balance -> {
+        }));
+    }
+
+    @Test
+    void testLargeSnapshotIsReadInChunks() {
+        // given: 한 번에 읽는 개수(4096)보다 많은 잔액
+        Path path = directory.resolve("balances.snapshot");
+        List<UserPoint> balances = new ArrayList<>();
+        for (long userId = 1; userId <= 10_000; userId++) {
+            balances.add(new UserPoint(userId, userId * 10, userId));
+        }
+        BalanceSnapshotFile.write(path, balances);
+
+        // when
+        List<UserPoint> read = new ArrayList<>();
+        long count = BalanceSnapshotFile.read(path, read::add);
+
+        // then
+        assertEquals(10_000L, count);
+        assertEquals(balances, read);
+    }
+
+    @Test
+    void testSnapshotWithWrongCountIsRejectedBeforeReading() throws IOException {
+        // given: header 의 count 가 파일 크기보다 훨씬 큼
+        Path path = directory.resolve("balances.snapshot");
+        BalanceSnapshotFile.write(path, List.of(new UserPoint(1L, 100L, 1L)));
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[8] = 0x7F;
+        Files.write(path, bytes);
+        List<UserPoint> read = new ArrayList<>();
+
+        // when
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> BalanceSnapshotFile.read(path, read::add));
+
+        // then
+        assertTrue(exception.getMessage().startsWith("잔액 스냅샷 크기가 맞지 않습니다"), exception.getMessage());
+        assertEquals(List.of(), read);
+    }
+}
@@ -0,0 +1,169 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.exception.IdempotencyKeyConflictException;
+import io.hhplus.tdd.point.exception.PointOverloadedException;
+import io.hhplus.tdd.point.exception.PointTimeoutException;
+import io.hhplus.tdd.point.idempotency.IdempotencyStore;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    @Test
+    void testConcurrentDuplicatesRunOnceAndShareResult() throws InterruptedException {
+        // given
+        IdempotencyStore store = new IdempotencyStore(100, Duration.ofMinutes(1));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int threadCount = 5;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        List<UserPoint> results = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(threadCount);
+
+        // when: 첫 요청이 실행 중일 때 같은 키의 요청이 들어옴
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    results.add(store.execute(1L, "key-1", TransactionType.CHARGE, 100L, () -> {
+                        executions.incrementAndGet();
+                        running.countDown();
+                        await(release);
+                        return new UserPoint(1L, 100L, 1L);
+                    }));
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        running.await(5, TimeUnit.SECONDS);
+        release.countDown();
+        done.await(5, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertEquals(1, executions.get());
+        assertEquals(threadCount, results.size());
+        assertTrue(results.stream().allMatch(result -> result.equals(new UserPoint(1L, 100L, 1L))));
+        assertEquals(threadCount - 1L, store.stats().replays());
+    }
+
+    @Test
+    void testRetryReturnsStoredResultAndRejectsDifferentRequest() {
+        // given
+        IdempotencyStore store = new IdempotencyStore(100, Duration.ofMinutes(1));
+        store.execute(1L, "key-1", TransactionType.USE, 100L, () -> new UserPoint(1L, 900L, 1L));
+
+        // when
+        UserPoint retried = store.execute(1L, "key-1", TransactionType.USE, 100L,
+                () -> fail("저장된 결과가 있으면 다시 실행하지 않음"));
+
+        // then
+        assertEquals(new UserPoint(1L, 900L, 1L), retried);
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> store.execute(1L, "key-1", TransactionType.USE, 200L, () -> fail("실행하지 않음")));
+        assertEquals(new UserPoint(2L, 50L, 2L),
+                store.execute(2L, "key-1", TransactionType.USE, 100L, () -> new UserPoint(2L, 50L, 2L)),
+                "키는 유저별로 구분");
+    }
+
+    @Test
+    void testFailedRequestIsNotStored() {
+        // given
+        IdempotencyStore store = new IdempotencyStore(100, Duration.ofMinutes(1));
+        assertThrows(PointTimeoutException.class, () -> store.execute(1L, "key-1", TransactionType.CHARGE, 100L, () -> {
+            throw new PointTimeoutException("포인트 충전 처리 중 타임아웃이 발생했습니다.");
+        }));
+
+        // when
+        UserPoint retried = store.execute(1L, "key-1", TransactionType.CHARGE, 100L, () -> new UserPoint(1L, 100L, 1L));
+
+        // then
+        assertEquals(new UserPoint(1L, 100L, 1L), retried);
+        assertEquals(0L, store.stats().replays());
+    }
+
+    @Test
+    void testInFlightEntryIsNotEvicted() throws Exception {
+        // given: 최대 2개, key-1 이 실행 중
+        IdempotencyStore store = new IdempotencyStore(2, Duration.ofMinutes(1));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        var first = executorService.submit(() -> store.execute(1L, "key-1", TransactionType.CHARGE, 100L, () -> {
+            executions.incrementAndGet();
+            running.countDown();
+            await(release);
+            return new UserPoint(1L, 100L, 1L);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // when: 결과가 나온 키로 저장소를 채운 뒤 새 키가 들어오고, 실행 중인 key-1 을 재시도
+        store.execute(1L, "key-2", TransactionType.CHARGE, 10L, () -> new UserPoint(1L, 10L, 1L));
+        store.execute(1L, "key-3", TransactionType.CHARGE, 10L, () -> new UserPoint(1L, 20L, 1L));
+        var retried = executorService.submit(() -> store.execute(1L, "key-1", TransactionType.CHARGE, 100L, () -> {
+            executions.incrementAndGet();
+            return new UserPoint(1L, 200L, 1L);
+        }));
+        release.countDown();
+
+        // then
+        assertEquals(new UserPoint(1L, 100L, 1L), first.get(5, TimeUnit.SECONDS));
+        assertEquals(new UserPoint(1L, 100L, 1L), retried.get(5, TimeUnit.SECONDS), "실행 중인 결과를 기다려 받음");
+        assertEquals(1, executions.get(), "실행 중인 키는 제거되지 않아 재시도가 다시 실행되지 않음");
+        assertEquals(1L, store.stats().evictions(), "결과가 나온 key-2 를 제거");
+        assertEquals(2, store.stats().size());
+        executorService.shutdown();
+    }
+
+    @Test
+    void testNewKeyIsRejectedWhenFullOfInFlightEntries() throws Exception {
+        // given: 최대 1개, key-1 이 실행 중
+        IdempotencyStore store = new IdempotencyStore(1, Duration.ofMinutes(1));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        var first = executorService.submit(() -> store.execute(1L, "key-1", TransactionType.CHARGE, 100L, () -> {
+            running.countDown();
+            await(release);
+            return new UserPoint(1L, 100L, 1L);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // when
+        assertThrows(PointOverloadedException.class,
+                () -> store.execute(1L, "key-2", TransactionType.CHARGE, 10L, () -> fail("실행하지 않음")));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertEquals(1L, store.stats().rejections());
+        assertEquals(0L, store.stats().evictions());
+        assertEquals(new UserPoint(1L, 10L, 1L),
+                store.execute(1L, "key-2", TransactionType.CHARGE, 10L, () -> new UserPoint(1L, 10L, 1L)),
+                "key-1 의 결과가 나오면 자리를 내줌");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package io.hhplus.tdd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 포인트 충전/사용 부하 하네스
+ * - threads 개 스레드가 duration 동안 쉬지 않고 요청을 보낸다. (유저는 users 명 중 skew 분포로 고른다)
+ * - 요청마다 지연은 히스토그램에, 결과(성공/잔액 부족/타임아웃/거절/에러)는 건수로 남긴다.
+ * - 끝나면 요청을 받은 유저마다 잔액이 이력 합계(충전 - 사용)와 같은지 확인한다.
+ * - 설정은 시스템 프로퍼티(load.*)로 받고, 결과는 JSON 으로 load.output 디렉터리에 남긴다.
+ */
+final class LoadHarness {
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .findAndRegisterModules()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+
+    private LoadHarness() {
+    }
+
+    /**
+     * ZIPF: 순위 k(1부터)인 유저가 1/k^s 에 비례해 뽑힌다. (첫 유저가 가장 뜨겁다)
+     * UNIFORM: 모든 유저가 같은 확률로 뽑힌다.
+     */
+    enum Skew {
+        ZIPF, UNIFORM
+    }
+
+    enum Outcome {
+        SUCCESS, INSUFFICIENT, TIMEOUT, REJECTED, ERROR
+    }
+
+    /**
+     * 부하를 받는 쪽 (서비스 직접 호출 / HTTP)
+     * - charge/use 는 알려진 실패를 Outcome 으로 돌려주고, 그 밖의 예외는 ERROR 로 센다.
+     */
+    interface Target {
+        Outcome charge(long userId, long amount) throws Exception;
+
+        Outcome use(long userId, long amount) throws Exception;
+
+        long balance(long userId) throws Exception;
+
+        /**
+         * 이력의 충전 합계 - 사용 합계
+         */
+        long historyTotal(long userId) throws Exception;
+    }
+
+    record Config(
+            int users,
+            int threads,
+            Duration duration,
+            double chargeRatio,
+            Skew skew,
+            double zipfExponent,
+            long maxAmount,
+            long firstUserId
+    ) {
+        /**
+         * -Dload.users=1000 -Dload.threads=64 -Dload.duration=30s -Dload.charge-ratio=0.7
+         * -Dload.skew=zipf -Dload.zipf-exponent=1.0 -Dload.max-amount=1000
+         */
+        static Config fromSystemProperties(long firstUserId) {
+            return new Config(
+                    Integer.getInteger("load.users", 100),
+                    Integer.getInteger("load.threads", 32),
+                    Duration.parse("PT" + System.getProperty("load.duration", "10s")),
+                    Double.parseDouble(System.getProperty("load.charge-ratio", "0.7")),
+                    Skew.valueOf(System.getProperty("load.skew", "zipf").toUpperCase()),
+                    Double.parseDouble(System.getProperty("load.zipf-exponent", "1.0")),
+                    Long.getLong("load.max-amount", 1_000L),
+                    firstUserId
+            );
+        }
+    }
+
+    record Latency(double p50, double p95, double p99, double p999, double max) {
+    }
+
+    /**
+     * 지연은 밀리초, 처리량은 초당 요청 수
+     */
+    record Report(
+            String target,
+            Instant finishedAt,
+            Config config,
+            long requests,
+            long elapsedMillis,
+            double throughputPerSecond,
+            Latency latencyMillis,
+            Map<Outcome, Long> outcomes,
+            int checkedUsers,
+            long checkMillis,
+            List<Long> inconsistentUsers,
+            boolean balanceConsistent
+    ) {
+        long count(Outcome outcome) {
+            return outcomes.get(outcome);
+        }
+    }
+
+    static Report run(String name, Config config, Target target) throws Exception {
+        UserPicker picker = config.skew() == Skew.ZIPF
+                ? new ZipfPicker(config.users(), config.zipfExponent())
+                : random -> random.nextInt(config.users());
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads());
+        List<Future<Worker>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        long deadline = start + config.duration().toNanos();
+        try {
+            for (int i = 0; i < config.threads(); i++) {
+                Worker worker = new Worker(config, picker, target, ThreadLocalRandom.current().nextLong());
+                futures.add(executor.submit(() -> worker.run(deadline)));
+            }
+            Histogram latency = new Histogram();
+            long[] outcomes = new long[Outcome.values().length];
+            BitSet touched = new BitSet(config.users());
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                latency.add(worker.latency);
+                for (int i = 0; i < outcomes.length; i++) {
+                    outcomes[i] += worker.outcomes[i];
+                }
+                touched.or(worker.touched);
+            }
+            long elapsedNanos = System.nanoTime() - start;
+
+            // 응답 뒤에 반영되는 모드(ledger, write-behind)는 확인하는 동안 밀린 반영을 기다린다.
+            long checkStart = System.nanoTime();
+            List<Long> inconsistentUsers = new ArrayList<>();
+            for (int index = touched.nextSetBit(0); index >= 0; index = touched.nextSetBit(index + 1)) {
+                long userId = config.firstUserId() + index;
+                if (target.balance(userId) != target.historyTotal(userId)) {
+                    inconsistentUsers.add(userId);
+                }
+            }
+            long checkNanos = System.nanoTime() - checkStart;
+
+            Map<Outcome, Long> outcomeCounts = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                outcomeCounts.put(outcome, outcomes[outcome.ordinal()]);
+            }
+            long requests = Arrays.stream(outcomes).sum();
+            return new Report(
+                    name,
+                    Instant.now(),
+                    config,
+                    requests,
+                    elapsedNanos / 1_000_000,
+                    requests * 1e9 / elapsedNanos,
+                    latency.toMillis(),
+                    outcomeCounts,
+                    touched.cardinality(),
+                    checkNanos / 1_000_000,
+                    inconsistentUsers,
+                    inconsistentUsers.isEmpty()
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * load.output (기본 build/reports/load) 아래 {target}.json 으로 남기고 표준 출력에도 쓴다.
+     */
+    static Path write(Report report) throws IOException {
+        Path directory = Path.of(System.getProperty("load.output", "build/reports/load"));
+        Files.createDirectories(directory);
+        Path file = directory.resolve(report.target() + ".json");
+        JSON.writeValue(file.toFile(), report);
+        System.out.println(JSON.writeValueAsString(report));
+        return file;
+    }
+
+    private static final class Worker {
+        private final Config config;
+        private final UserPicker picker;
+        private final Target target;
+        private final SplittableRandom random;
+        private final Histogram latency = new Histogram();
+        private final long[] outcomes = new long[Outcome.values().length];
+        private final BitSet touched;
+
+        private Worker(Config config, UserPicker picker, Target target, long seed) {
+            this.config = config;
+            this.picker = picker;
+            this.target = target;
+            this.random = new SplittableRandom(seed);
+            this.touched = new BitSet(config.users());
+        }
+
+        private Worker run(long deadline) {
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                int index = picker.next(random);
+                long userId = config.firstUserId() + index;
+                long amount = 1 + random.nextLong(config.maxAmount());
+                boolean charge = random.nextDouble() < config.chargeRatio();
+
+                long started = System.nanoTime();
+                Outcome outcome;
+                try {
+                    outcome = charge ? target.charge(userId, amount) : target.use(userId, amount);
+                } catch (Exception e) {
+                    outcome = Outcome.ERROR;
+                }
+                latency.record(System.nanoTime() - started);
+                outcomes[outcome.ordinal()]++;
+                touched.set(index);
+            }
+            return this;
+        }
+    }
+
+    @FunctionalInterface
+    private interface UserPicker {
+        /**
+         * 0 부터 users - 1 사이의 유저 순번
+         */
+        int next(SplittableRandom random);
+    }
+
+    /**
+     * 누적 확률표를 미리 만들어 두고 균등 난수를 이진 탐색으로 순번에 대응시킨다.
+     */
+    private static final class ZipfPicker implements UserPicker {
+        private final double[] cumulative;
+
+        private ZipfPicker(int users, double exponent) {
+            cumulative = new double[users];
+            double sum = 0;
+            for (int rank = 1; rank <= users; rank++) {
+                sum += 1 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = sum;
+            }
+            for (int i = 0; i < users; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        @Override
+        public int next(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            int rank = index >= 0 ? index : -index - 1;
+            return Math.min(rank, cumulative.length - 1);
+        }
+    }
+
+    /**
+     * 마이크로초 단위 로그-선형 히스토그램 (상대 오차 약 1.6%)
+     * - 128us 미만은 1us 간격, 그 이상은 2의 거듭제곱 구간마다 64칸으로 나눈다.
+     * - 스레드마다 하나씩 쓰고 끝난 뒤 합친다.
+     */
+    private static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 6;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+
+        private final long[] counts = new long[LINEAR_LIMIT + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS];
+        private long total;
+        private long maxMicros;
+
+        private void record(long nanos) {
+            long micros = Math.max(0, nanos / 1_000);
+            counts[index(micros)]++;
+            total++;
+            maxMicros = Math.max(maxMicros, micros);
+        }
+
+        private void add(Histogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            total += other.total;
+            maxMicros = Math.max(maxMicros, other.maxMicros);
+        }
+
+        private Latency toMillis() {
+            return new Latency(
+                    percentile(0.50) / 1_000.0,
+                    percentile(0.95) / 1_000.0,
+                    percentile(0.99) / 1_000.0,
+                    percentile(0.999) / 1_000.0,
+                    maxMicros / 1_000.0
+            );
+        }
+
+        private long percentile(double quantile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(value(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+
+        private static int index(long micros) {
+            if (micros < LINEAR_LIMIT) {
+                return (int) micros;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+            int subBucket = (int) (micros >>> shift) - SUB_BUCKETS;
+            return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + subBucket;
+        }
+
+        /**
+         * 칸의 가운데 값
+         */
+        private static long value(int index) {
+            if (index < LINEAR_LIMIT) {
+                return index;
+            }
+            int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+            long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+            return (subBucket << shift) + (1L << (shift - 1));
+        }
+    }
+}
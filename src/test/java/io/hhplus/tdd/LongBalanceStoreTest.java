@@ -0,0 +1,125 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.store.LongBalanceStore;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongBalanceStoreTest {
+
+    @Test
+    void testKeepsLatestBalanceAcrossGrowth() {
+        // given: 초기 크기보다 훨씬 많은 유저
+        LongBalanceStore store = new LongBalanceStore(0, false);
+        int users = 10_000;
+
+        // when
+        for (long userId = 1; userId <= users; userId++) {
+            store.put(userId, userId, 1L);
+        }
+        store.put(7L, 700L, 2L);
+
+        // then
+        assertEquals(users, store.size());
+        assertEquals(new UserPoint(7L, 700L, 2L), store.get(7L));
+        assertEquals(new UserPoint(users, users, 1L), store.get(users));
+        assertNull(store.get(users + 1L));
+        assertTrue(store.memoryBytes() * 3 >= users * 24L * 4, "사용률 75% 이하 유지");
+    }
+
+    @Test
+    void testOffHeapVisitsEveryBalance() {
+        // given
+        LongBalanceStore store = new LongBalanceStore(16, true);
+        store.put(1L, 100L, 1L);
+        store.put(2L, 200L, 2L);
+        store.put(1L, 150L, 3L);
+
+        // when
+        Map<Long, UserPoint> visited = new HashMap<>();
+        store.forEach((userId, point, updateMillis) -> visited.put(userId, new UserPoint(userId, point, updateMillis)));
+
+        // then
+        assertEquals(Map.of(1L, new UserPoint(1L, 150L, 3L), 2L, new UserPoint(2L, 200L, 2L)), visited);
+        assertThrows(IllegalArgumentException.class, () -> store.put(0L, 1L, 1L));
+    }
+
+    @Test
+    void testBoundedStoreEvictsAndKeepsRemainingBalancesReachable() {
+        // given: 최대 640명 (세그먼트당 10명)
+        LongBalanceStore store = new LongBalanceStore(0, false, 640);
+        int users = 10_000;
+
+        // when
+        for (long userId = 1; userId <= users; userId++) {
+            store.put(userId, userId * 10, userId);
+        }
+
+        // then
+        assertTrue(store.size() <= 640, "최대 크기를 넘지 않음: " + store.size());
+        assertEquals(users - store.size(), store.evictionCount());
+        Map<Long, UserPoint> visited = new HashMap<>();
+        store.forEach((userId, point, updateMillis) -> visited.put(userId, new UserPoint(userId, point, updateMillis)));
+        assertEquals(store.size(), visited.size());
+        visited.forEach((userId, userPoint) -> assertEquals(userPoint, store.get(userId), "지운 뒤에도 남은 유저를 찾을 수 있음"));
+        assertEquals(new UserPoint(users, users * 10L, users), store.get(users), "가장 최근 유저는 남음");
+    }
+
+    @Test
+    void testBoundedStoreKeepsUserReadBetweenEvictions() {
+        // given: 최대 640명 (세그먼트당 10명)
+        LongBalanceStore store = new LongBalanceStore(0, false, 640);
+        store.put(1L, 100L, 1L);
+
+        // when: 새 유저가 계속 들어오는 동안 유저 1 은 계속 읽힘
+        for (long userId = 2; userId <= 10_000; userId++) {
+            store.put(userId, userId * 10, userId);
+            assertNotNull(store.get(1L), "읽힌 유저는 시곗바늘이 지나가도 남음: " + userId);
+        }
+
+        // then
+        assertTrue(store.evictionCount() > 0);
+        assertEquals(new UserPoint(1L, 100L, 1L), store.get(1L));
+    }
+
+    @Test
+    void testConcurrentPutsOfDistinctUsers() throws InterruptedException {
+        // given
+        LongBalanceStore store = new LongBalanceStore(0, false);
+        int threadCount = 8;
+        int perThread = 5_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            long base = (long) i * perThread;
+            executorService.submit(() -> {
+                try {
+                    for (long userId = base + 1; userId <= base + perThread; userId++) {
+                        store.put(userId, userId * 10, userId);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(10, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertEquals(threadCount * perThread, store.size());
+        long[] sum = new long[1];
+        store.forEach((userId, point, updateMillis) -> sum[0] += point - userId * 10);
+        assertEquals(0L, sum[0]);
+    }
+}
@@ -0,0 +1,74 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.execution.PartitionedPointExecutor;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedPointExecutorTest {
+
+    @Test
+    void testSameUserTasksRunInSubmitOrder() {
+        // given
+        PartitionedPointExecutor executor = new PartitionedPointExecutor(4, Duration.ofSeconds(5));
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+
+        // when
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int order = i;
+            results.add(executor.submit(1L, () -> {
+                executed.add(order);
+                return order;
+            }));
+        }
+        results.forEach(CompletableFuture::join);
+
+        // then
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) executed.get(i), "제출 순서대로 실행");
+        }
+        executor.close();
+    }
+
+    @Test
+    void testCloseDrainsQueuedTasks() throws InterruptedException {
+        // given: 첫 작업이 파티션을 붙잡고 있는 동안 작업이 쌓임
+        PartitionedPointExecutor executor = new PartitionedPointExecutor(1, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(1L, () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 0;
+        });
+        started.await(5, TimeUnit.SECONDS);
+        List<CompletableFuture<Integer>> queued = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            int value = i;
+            queued.add(executor.submit(value, () -> value));
+        }
+        assertEquals(List.of(10), executor.queueDepths());
+
+        // when
+        release.countDown();
+        executor.close();
+
+        // then
+        assertTrue(queued.stream().allMatch(CompletableFuture::isDone), "종료 전에 쌓인 작업을 모두 처리");
+        assertEquals(List.of(0), executor.queueDepths());
+    }
+}
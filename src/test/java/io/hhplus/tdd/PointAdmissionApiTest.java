@@ -0,0 +1,124 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPointLockManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 락 대기 요청의 조기 거절 (429 대기열 초과, 503 예상 대기 시간 초과)
+ * - 테스트 스레드가 유저 락을 직접 잡아 요청이 락을 기다리는 상황을 만든다.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "point.admission.max-queue-depth=2",
+                "point.admission.timeout=100ms",
+                "point.hot-user.enabled=false"
+        }
+)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class PointAdmissionApiTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Autowired
+    private PointService pointService;
+
+    @Autowired
+    private UserPointLockManager lockManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testFullQueueIsRejectedWith429() throws Exception {
+        // given: 테스트 스레드가 락을 잡고 다른 스레드 하나가 기다리는 중 (최대 2)
+        long userId = 1L;
+        assertTrue(lockManager.tryLock(userId, 1, TimeUnit.SECONDS));
+        Thread waiter = new Thread(() -> {
+            try {
+                if (lockManager.tryLock(userId, 10, TimeUnit.SECONDS)) {
+                    lockManager.unlock(userId);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        awaitQueued(userId);
+
+        // when
+        HttpResponse<String> rejected = patch("/point/" + userId + "/charge", "100").get(5, TimeUnit.SECONDS);
+        lockManager.unlock(userId);
+        waiter.join();
+
+        // then
+        assertEquals(429, rejected.statusCode());
+        assertTrue(rejected.headers().firstValue("Retry-After").isPresent(), "Retry-After 를 내려줘야 함");
+        assertEquals(0L, pointService.getUserPoint(userId).point(), "거절한 요청은 반영하지 않아야 함");
+    }
+
+    @Test
+    void testEstimatedWaitPastDeadlineIsRejectedWith503() throws Exception {
+        // given: 평균 점유 시간(1.6s 한 번, 가중치 1/8 → 200ms)이 제한 시간(100ms)보다 긴 상태에서 락이 잡혀 있음
+        long userId = 2L;
+        assertTrue(lockManager.tryLock(userId, 1, TimeUnit.SECONDS));
+        Thread.sleep(1600);
+        lockManager.unlock(userId);
+        // 첫 요청의 초기화 시간이 락 점유 시간에 섞이지 않도록 다른 유저로 한 번 호출해 둔다.
+        client.send(HttpRequest.newBuilder(uri("/point/" + (userId + 1))).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(lockManager.tryLock(userId, 1, TimeUnit.SECONDS));
+
+        // when
+        HttpResponse<String> rejected = patch("/point/" + userId + "/charge", "100").get(5, TimeUnit.SECONDS);
+        lockManager.unlock(userId);
+
+        // then
+        assertEquals(503, rejected.statusCode());
+        assertTrue(rejected.headers().firstValue("Retry-After").isPresent(), "Retry-After 를 내려줘야 함");
+        assertEquals(1.0, meterRegistry.get("point.lock.early.rejections").counter().count(), "락을 기다리지 않고 거절");
+        assertEquals(0.0, meterRegistry.get("point.lock.timeouts").counter().count());
+        assertEquals(0L, pointService.getUserPoint(userId).point(), "거절한 요청은 반영하지 않아야 함");
+    }
+
+    private void awaitQueued(long userId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            boolean queued = lockManager.heldLocks(10).stream()
+                    .anyMatch(lock -> lock.userId() == userId && lock.queuedThreads() > 0);
+            if (queued) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("다른 스레드가 락을 기다리기 시작하지 않았습니다.");
+    }
+
+    private CompletableFuture<HttpResponse<String>> patch(String path, String body) {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
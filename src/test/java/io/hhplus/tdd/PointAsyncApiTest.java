@@ -0,0 +1,161 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 비동기 API 의 처리 기한과 이력 스트리밍
+ * - 요청 스레드 풀을 1개로 줄여 대기열에서 기한을 넘기는 상황을 만든다.
+ * - 이력 스트리밍 스레드 풀은 스레드 1개, 대기열 1개로 줄인다.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "point.request-executor.threads=1",
+                "point.admission.timeout=500ms",
+                "point.history.stream-threads=1",
+                "point.history.stream-queue-capacity=1"
+        }
+)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class PointAsyncApiTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Autowired
+    private PointService pointService;
+
+    @Autowired
+    @Qualifier("pointRequestExecutor")
+    private ExecutorService pointRequestExecutor;
+
+    @Autowired
+    @Qualifier("pointStreamExecutor")
+    private ExecutorService pointStreamExecutor;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testRequestQueuedPastDeadlineFailsWithoutRunning() throws Exception {
+        // given: 유일한 요청 스레드가 다른 작업에 묶여 있음
+        long userId = 1L;
+        CountDownLatch release = new CountDownLatch(1);
+        pointRequestExecutor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // when: 대기열에서 기한(500ms)을 다 쓴 뒤에야 실행 차례가 옴
+        CompletableFuture<HttpResponse<String>> queued = patch("/point/" + userId + "/charge", "100");
+        Thread.sleep(800);
+        release.countDown();
+        HttpResponse<String> response = queued.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertEquals(503, response.statusCode());
+        assertTrue(response.headers().firstValue("Retry-After").isPresent(), "Retry-After 를 내려줘야 함");
+        assertEquals(0L, pointService.getUserPoint(userId).point(), "기한이 지난 요청은 반영하지 않아야 함");
+    }
+
+    @Test
+    void testHistoryStreamWritesOneHistoryPerLine() throws Exception {
+        // given
+        long userId = 3L;
+        pointService.chargePoint(userId, 1000L);
+        pointService.usePoint(userId, 300L);
+
+        // when
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(uri("/point/" + userId + "/histories/stream")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+
+        // then
+        assertEquals(200, response.statusCode());
+        String[] lines = response.body().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"amount\":1000"), lines[0]);
+        assertTrue(lines[1].contains("\"type\":\"USE\""), lines[1]);
+        assertTrue(response.body().endsWith("\n"), "마지막 줄도 줄바꿈으로 끝나야 함");
+    }
+
+    @Test
+    void testHistoryStreamDoesNotUseRequestExecutor() throws Exception {
+        // given: 유일한 요청 스레드가 다른 작업에 묶여 있음
+        long userId = 4L;
+        pointService.chargePoint(userId, 1000L);
+        CountDownLatch release = new CountDownLatch(1);
+        pointRequestExecutor.execute(() -> await(release));
+
+        // when
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(uri("/point/" + userId + "/histories/stream")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        release.countDown();
+
+        // then
+        assertEquals(200, response.statusCode());
+        assertEquals(1, response.body().split("\n").length);
+    }
+
+    @Test
+    void testHistoryStreamIsRejectedWhenStreamExecutorIsFull() throws Exception {
+        // given: 스트리밍 스레드와 대기열이 모두 차 있음
+        long userId = 5L;
+        pointService.chargePoint(userId, 1000L);
+        CountDownLatch release = new CountDownLatch(1);
+        pointStreamExecutor.execute(() -> await(release));
+        pointStreamExecutor.execute(() -> await(release));
+
+        // when
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(uri("/point/" + userId + "/histories/stream")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        release.countDown();
+
+        // then
+        assertEquals(429, response.statusCode());
+        assertTrue(response.headers().firstValue("Retry-After").isPresent(), "Retry-After 를 내려줘야 함");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> patch(String path, String body) {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
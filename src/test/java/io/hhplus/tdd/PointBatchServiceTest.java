@@ -0,0 +1,107 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointBatchService;
+import io.hhplus.tdd.point.PointCommand;
+import io.hhplus.tdd.point.PointCommandResult;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.RequestDeadline;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPointLockManager;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class PointBatchServiceTest {
+
+    @Autowired
+    private PointBatchService pointBatchService;
+
+    @Autowired
+    private PointService pointService;
+
+    @Autowired
+    private UserPointLockManager lockManager;
+
+    @Test
+    void testBatchReturnsResultPerCommandInRequestOrder() {
+        // given
+        List<PointCommand> commands = List.of(
+                new PointCommand(1L, TransactionType.CHARGE, 1000L),
+                new PointCommand(2L, TransactionType.CHARGE, 500L),
+                new PointCommand(1L, TransactionType.USE, 300L),
+                new PointCommand(2L, TransactionType.USE, 800L),
+                new PointCommand(1L, TransactionType.USE, 700L)
+        );
+
+        // when
+        List<PointCommandResult> results = pointBatchService.execute(commands);
+
+        // then
+        assertEquals(commands.size(), results.size());
+        assertEquals(1000L, results.get(0).userPoint().point());
+        assertEquals(500L, results.get(1).userPoint().point());
+        assertEquals(700L, results.get(2).userPoint().point(), "같은 유저는 요청 순서대로 처리");
+        assertEquals("포인트가 부족합니다.", results.get(3).error().message());
+        assertEquals(0L, results.get(4).userPoint().point());
+
+        assertEquals(0L, pointService.getUserPoint(1L).point());
+        assertEquals(500L, pointService.getUserPoint(2L).point());
+        assertEquals(3, pointService.getPointHistory(1L).size());
+    }
+
+    @Test
+    void testFailedCommandUsesSameCodeAsSingleApi() {
+        // given
+        List<PointCommand> commands = List.of(
+                new PointCommand(1L, TransactionType.CHARGE, 0L),
+                new PointCommand(2L, null, 100L),
+                new PointCommand(3L, TransactionType.USE, 100L)
+        );
+
+        // when
+        List<PointCommandResult> results = pointBatchService.execute(commands);
+
+        // then
+        assertEquals(new ErrorResponse("400", "충전 포인트는 0보다 커야 합니다."), results.get(0).error());
+        assertEquals(new ErrorResponse("400", "거래 종류가 필요합니다."), results.get(1).error());
+        assertEquals(new ErrorResponse("400", "포인트가 부족합니다."), results.get(2).error());
+    }
+
+    @Test
+    void testBatchFailsRemainingCommandsOnceDeadlinePasses() throws InterruptedException {
+        // given
+        assertTrue(lockManager.tryLock(1L, 1, TimeUnit.SECONDS));
+        List<PointCommand> commands = List.of(
+                new PointCommand(1L, TransactionType.CHARGE, 1000L),
+                new PointCommand(2L, TransactionType.CHARGE, 500L),
+                new PointCommand(1L, TransactionType.CHARGE, 300L)
+        );
+        List<PointCommandResult> results;
+
+        // when
+        long startNanos = System.nanoTime();
+        try {
+            results = RequestDeadline.callWithin(startNanos + TimeUnit.MILLISECONDS.toNanos(300),
+                    () -> pointBatchService.execute(commands));
+        } finally {
+            lockManager.unlock(1L);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        // then
+        assertTrue(elapsedMillis < 2000, "admission.timeout 이 아니라 일괄 처리 기한까지만 기다림: " + elapsedMillis + "ms");
+        assertEquals("503", results.get(0).error().code());
+        assertEquals(500L, results.get(1).userPoint().point());
+        assertEquals("503", results.get(2).error().code(), "기한이 지난 뒤의 건은 실행하지 않음");
+        assertEquals(0L, pointService.getUserPoint(1L).point());
+    }
+}
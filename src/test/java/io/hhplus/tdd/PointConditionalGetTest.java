@@ -0,0 +1,112 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 잔액/이력 조회의 ETag, Last-Modified 조건부 응답
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class PointConditionalGetTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Autowired
+    private PointService pointService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testBalanceNotModifiedUntilChanged() throws Exception {
+        // given
+        long userId = 1L;
+        pointService.chargePoint(userId, 1000L);
+        HttpResponse<String> first = get("/point/" + userId, null, null);
+        String eTag = first.headers().firstValue("ETag").orElseThrow();
+
+        // when
+        HttpResponse<String> unchanged = get("/point/" + userId, "If-None-Match", eTag);
+        pointService.usePoint(userId, 300L);
+        HttpResponse<String> changed = get("/point/" + userId, "If-None-Match", eTag);
+
+        // then
+        assertEquals(200, first.statusCode());
+        assertTrue(first.headers().firstValue("Last-Modified").isPresent(), "Last-Modified 를 내려줘야 함");
+        assertEquals(304, unchanged.statusCode());
+        assertEquals("", unchanged.body(), "304 는 본문이 없어야 함");
+        assertEquals(eTag, unchanged.headers().firstValue("ETag").orElseThrow());
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(eTag, changed.headers().firstValue("ETag").orElseThrow());
+        assertTrue(changed.body().contains("\"point\":700"), "바뀐 잔액을 내려줘야 함: " + changed.body());
+        assertEquals(1.0, notModifiedCount("balance"), "저장된 버전만 보고 응답해야 함");
+    }
+
+    @Test
+    void testHistoryNotModifiedUntilAppended() throws Exception {
+        // given
+        long userId = 2L;
+        pointService.chargePoint(userId, 1000L);
+        HttpResponse<String> first = get("/point/" + userId + "/histories", null, null);
+        String eTag = first.headers().firstValue("ETag").orElseThrow();
+        String lastModified = first.headers().firstValue("Last-Modified").orElseThrow();
+
+        // when
+        HttpResponse<String> unchanged = get("/point/" + userId + "/histories", "If-None-Match", eTag);
+        HttpResponse<String> notModifiedSince = get("/point/" + userId + "/histories", "If-Modified-Since", lastModified);
+        pointService.chargePoint(userId, 500L);
+        HttpResponse<String> changed = get("/point/" + userId + "/histories", "If-None-Match", eTag);
+
+        // then
+        assertEquals(200, first.statusCode());
+        assertEquals(304, unchanged.statusCode());
+        assertEquals(304, notModifiedSince.statusCode());
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(eTag, changed.headers().firstValue("ETag").orElseThrow());
+        assertTrue(changed.body().contains("\"amount\":500"), "새 이력을 내려줘야 함: " + changed.body());
+        assertEquals(2.0, notModifiedCount("history"), "저장된 버전만 보고 응답해야 함");
+    }
+
+    @Test
+    void testUserWithoutHistoryHasStableETag() throws Exception {
+        // given
+        long userId = 3L;
+        HttpResponse<String> first = get("/point/" + userId + "/histories", null, null);
+        String eTag = first.headers().firstValue("ETag").orElseThrow();
+
+        // when
+        HttpResponse<String> unchanged = get("/point/" + userId + "/histories", "If-None-Match", eTag);
+
+        // then
+        assertEquals(200, first.statusCode());
+        assertEquals("[]", first.body());
+        assertEquals(304, unchanged.statusCode());
+    }
+
+    private HttpResponse<String> get(String path, String header, String value) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+        if (header != null) {
+            request.header(header, value);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private double notModifiedCount(String resource) {
+        return meterRegistry.counter("point.not.modified", "resource", resource).count();
+    }
+}
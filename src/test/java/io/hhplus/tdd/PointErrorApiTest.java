@@ -0,0 +1,86 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * 오류 응답의 상태 코드
+ * - 검증에서 거절한 요청만 400 이고, 그 밖의 IllegalArgumentException 은 500 이다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class PointErrorApiTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @SpyBean
+    private PointService pointService;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testInvalidRequestIsRejectedWith400() throws Exception {
+        // when
+        HttpResponse<String> invalidId = patch("/point/0/charge", "100");
+        HttpResponse<String> invalidAmount = patch("/point/1/charge", "0");
+
+        // then
+        assertEquals(400, invalidId.statusCode());
+        assertTrue(invalidId.body().contains("유효하지 않은 ID입니다."), invalidId.body());
+        assertEquals(400, invalidAmount.statusCode());
+        assertTrue(invalidAmount.body().contains("충전 포인트는 0보다 커야 합니다."), invalidAmount.body());
+    }
+
+    @Test
+    void testInsufficientPointIsRejectedWith400() throws Exception {
+        // when
+        HttpResponse<String> response = patch("/point/1/use", "100");
+
+        // then
+        assertEquals(400, response.statusCode());
+        assertTrue(response.body().contains("포인트가 부족합니다."), response.body());
+    }
+
+    @Test
+    void testInternalIllegalArgumentIsInternalError() throws Exception {
+        // given: 검증을 통과한 뒤 내부에서 IllegalArgumentException 이 난다.
+        doThrow(new IllegalArgumentException("내부 오류"))
+                .when(pointService).getPointSummary(eq(1L), any(), any(), any());
+
+        // when
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(uri("/point/1/summary")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // then
+        assertEquals(500, response.statusCode());
+        assertTrue(response.body().contains("에러가 발생했습니다."), response.body());
+        assertFalse(response.body().contains("내부 오류"), "내부 메시지는 내보내지 않아야 함");
+    }
+
+    private HttpResponse<String> patch(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
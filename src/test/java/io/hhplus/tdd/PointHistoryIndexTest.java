@@ -0,0 +1,109 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.history.PointHistoryIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointHistoryIndexTest {
+
+    @Test
+    void testFindPageReturnsNewestFirstWithNextCursor() {
+        // given: 테이블에 먼저 2건, 적재 이후 3건 기록
+        PointHistoryTable table = new PointHistoryTable();
+        PointHistoryIndex index = new PointHistoryIndex(table, List.of(), new PointMetrics(new SimpleMeterRegistry()));
+        table.insert(1L, 100L, TransactionType.CHARGE, 1L);
+        table.insert(2L, 100L, TransactionType.CHARGE, 2L);
+        table.insert(1L, 200L, TransactionType.CHARGE, 3L);
+        assertEquals(2, index.findAll(1L).size());
+
+        for (long amount = 300; amount <= 500; amount += 100) {
+            PointHistory history = table.insert(1L, amount, TransactionType.USE, amount);
+            index.onInserted(history);
+        }
+
+        // when
+        PointHistoryPage first = index.findPage(1L, null, 2);
+        PointHistoryPage second = index.findPage(1L, first.nextCursor(), 2);
+        PointHistoryPage last = index.findPage(1L, second.nextCursor(), 2);
+
+        // then
+        assertEquals(List.of(500L, 400L), amounts(first));
+        assertEquals(List.of(300L, 200L), amounts(second));
+        assertEquals(List.of(100L), amounts(last));
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    void testOnInsertedIgnoresHistoryAlreadyLoadedFromTable() {
+        // given
+        PointHistoryTable table = new PointHistoryTable();
+        PointHistoryIndex index = new PointHistoryIndex(table, List.of(), new PointMetrics(new SimpleMeterRegistry()));
+        PointHistory history = table.insert(1L, 100L, TransactionType.CHARGE, 1L);
+        index.findAll(1L);
+
+        // when
+        index.onInserted(history);
+
+        // then
+        assertEquals(1, index.findAll(1L).size());
+    }
+
+    @Test
+    void testPagesAcrossSegmentsKeepEveryField() {
+        // given: 세그먼트(1024건) 여러 개에 걸친 이력
+        PointHistoryTable table = new PointHistoryTable();
+        PointHistoryIndex index = new PointHistoryIndex(table, List.of(), new PointMetrics(new SimpleMeterRegistry()));
+        index.findAll(1L);
+        int count = 2_500;
+        for (long id = 1; id <= count; id++) {
+            TransactionType type = id % 2 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+            index.onInserted(new PointHistory(id, 1L, id * 10, type, id + 1_000));
+        }
+
+        // when: 세그먼트 경계(1024)를 사이에 둔 페이지
+        PointHistoryPage page = index.findPage(1L, 1026L, 4);
+
+        // then
+        assertEquals(count, index.findAll(1L).size());
+        assertEquals(count, index.recordCount());
+        assertEquals(List.of(
+                new PointHistory(1025L, 1L, 10250L, TransactionType.CHARGE, 2025L),
+                new PointHistory(1024L, 1L, 10240L, TransactionType.USE, 2024L),
+                new PointHistory(1023L, 1L, 10230L, TransactionType.CHARGE, 2023L),
+                new PointHistory(1022L, 1L, 10220L, TransactionType.USE, 2022L)
+        ), page.histories());
+        assertEquals(Long.valueOf(1022L), page.nextCursor());
+    }
+
+    @Test
+    void testStreamReturnsHistoriesInTimeRangeOldestFirst() {
+        // given
+        PointHistoryTable table = new PointHistoryTable();
+        PointHistoryIndex index = new PointHistoryIndex(table, List.of(), new PointMetrics(new SimpleMeterRegistry()));
+        table.insert(1L, 100L, TransactionType.CHARGE, 100L);
+        table.insert(1L, 200L, TransactionType.USE, 200L);
+        table.insert(1L, 300L, TransactionType.CHARGE, 300L);
+
+        // when: 200 이상 300 미만 / 전체
+        List<PointHistory> ranged = index.stream(1L, 200L, 300L).toList();
+        List<PointHistory> all = index.stream(1L, Long.MIN_VALUE, Long.MAX_VALUE).toList();
+
+        // then
+        assertEquals(List.of(new PointHistory(2L, 1L, 200L, TransactionType.USE, 200L)), ranged);
+        assertEquals(index.findAll(1L), all);
+    }
+
+    private List<Long> amounts(PointHistoryPage page) {
+        return page.histories().stream().map(PointHistory::amount).toList();
+    }
+}
@@ -0,0 +1,77 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointSummary;
+import io.hhplus.tdd.point.PointSummaryEntry;
+import io.hhplus.tdd.point.SummaryBucket;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.history.PointHistoryRollup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointHistoryRollupTest {
+    private static final long JAN_31_23H = Instant.parse("2024-01-31T23:30:00Z").toEpochMilli();
+    private static final long FEB_01 = Instant.parse("2024-02-01T00:00:00Z").toEpochMilli();
+    private static final long FEB_01_10H = Instant.parse("2024-02-01T10:00:00Z").toEpochMilli();
+    private static final long FEB_02 = Instant.parse("2024-02-02T00:00:00Z").toEpochMilli();
+
+    @Test
+    void testSummarizesTableHistoriesAndLaterInsertsByBucket() {
+        // given: 첫 조회 전 테이블에 있던 이력 2건
+        PointHistoryTable table = new PointHistoryTable();
+        PointHistoryRollup rollup = new PointHistoryRollup(table, List.of(), new PointMetrics(new SimpleMeterRegistry()), utc());
+        table.insert(1L, 1000L, TransactionType.CHARGE, JAN_31_23H);
+        table.insert(1L, 300L, TransactionType.USE, FEB_01_10H);
+        rollup.summarize(1L, SummaryBucket.DAY, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        // when: 적재 이후 기록된 이력 (이미 적재된 이력의 중복 알림은 무시)
+        rollup.onInserted(table.insert(1L, 500L, TransactionType.CHARGE, FEB_01_10H));
+        rollup.onInserted(new PointHistory(2L, 1L, 300L, TransactionType.USE, FEB_01_10H));
+
+        // then
+        PointSummary daily = rollup.summarize(1L, SummaryBucket.DAY, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(List.of(
+                new PointSummaryEntry(Instant.parse("2024-01-31T00:00:00Z").toEpochMilli(), 1000L, 0L),
+                new PointSummaryEntry(FEB_01, 500L, 300L)
+        ), daily.entries());
+        assertEquals(1500L, daily.totalCharged());
+        assertEquals(300L, daily.totalUsed());
+
+        PointSummary monthly = rollup.summarize(1L, SummaryBucket.MONTH, FEB_01, Long.MAX_VALUE);
+        assertEquals(List.of(new PointSummaryEntry(FEB_01, 500L, 300L)), monthly.entries());
+    }
+
+    @Test
+    void testRangeStartsFromBucketContainingFrom() {
+        // given
+        PointHistoryTable table = new PointHistoryTable();
+        PointHistoryRollup rollup = new PointHistoryRollup(table, List.of(), new PointMetrics(new SimpleMeterRegistry()), utc());
+        table.insert(1L, 100L, TransactionType.CHARGE, FEB_01);
+        table.insert(1L, 200L, TransactionType.CHARGE, FEB_01_10H);
+        table.insert(1L, 400L, TransactionType.CHARGE, FEB_02);
+
+        // when: 2/1 10시부터 2/2 전까지 (일 단위면 2/1 전체)
+        PointSummary hourly = rollup.summarize(1L, SummaryBucket.HOUR, FEB_01_10H, FEB_02);
+        PointSummary daily = rollup.summarize(1L, SummaryBucket.DAY, FEB_01_10H, FEB_02);
+
+        // then
+        assertEquals(List.of(new PointSummaryEntry(FEB_01_10H, 200L, 0L)), hourly.entries());
+        assertEquals(List.of(new PointSummaryEntry(FEB_01, 300L, 0L)), daily.entries());
+    }
+
+    private PointProperties utc() {
+        PointProperties properties = new PointProperties();
+        properties.getSummary().setZone(ZoneId.of("UTC"));
+        return properties;
+    }
+}
@@ -0,0 +1,344 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointValidator;
+import io.hhplus.tdd.point.PointVersions;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.UserPointLockManager;
+import io.hhplus.tdd.point.cache.UserPointCache;
+import io.hhplus.tdd.point.execution.PartitionedPointExecutor;
+import io.hhplus.tdd.point.execution.UserPointCombiner;
+import io.hhplus.tdd.point.history.PointHistoryIndex;
+import io.hhplus.tdd.point.history.PointHistoryRollup;
+import io.hhplus.tdd.point.history.PointHistorySource;
+import io.hhplus.tdd.point.history.SyncPointHistoryWriter;
+import io.hhplus.tdd.point.idempotency.IdempotencyStore;
+import io.hhplus.tdd.point.journal.PointJournal;
+import io.hhplus.tdd.point.journal.PointJournalRecord;
+import io.hhplus.tdd.point.journal.PointJournalRecord.Kind;
+import io.hhplus.tdd.point.journal.PointJournalRecovery;
+import io.hhplus.tdd.point.journal.RecoveredPoints;
+import io.hhplus.tdd.point.ledger.BalanceLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PointJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecordsSurviveReopenAcrossSegments() {
+        // given: 세그먼트 하나에 레코드 2건 (100 byte -> 96 byte, 첫 세그먼트는 헤더 + 1건)
+        Path path = directory.resolve("point.journal");
+        PointJournal journal = new PointJournal(path, 100);
+        for (long amount = 1; amount <= 5; amount++) {
+            journal.append(1L, amount, TransactionType.CHARGE, amount);
+        }
+        journal.close();
+
+        // when
+        PointJournal reopened = new PointJournal(path, 100);
+        reopened.append(2L, 6L, TransactionType.USE, 6L);
+        List<PointJournalRecord> records = new ArrayList<>();
+        reopened.replay(records::add);
+        reopened.close();
+
+        // then
+        assertEquals(6L, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).id(), "기록 순서대로 id 증가");
+        }
+        assertEquals(new PointJournalRecord(6L, Kind.USE, 2L, 0L, 6L, 6L), records.get(5));
+    }
+
+    @Test
+    void testTornRecordIsDiscarded() throws IOException {
+        // given
+        Path path = directory.resolve("point.journal");
+        PointJournal journal = new PointJournal(path, 4096);
+        journal.append(1L, 100L, TransactionType.CHARGE, 1L);
+        journal.append(1L, 200L, TransactionType.CHARGE, 2L);
+        journal.close();
+
+        // when: 두 번째 레코드의 금액 일부가 깨진 채 남음 (헤더 48 + 레코드 48 + 금액 위치 24)
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 48 + 48 + 28);
+        }
+        PointJournal reopened = new PointJournal(path, 4096);
+
+        // then: 깨진 레코드 자리부터 다시 쓴다.
+        assertEquals(1L, reopened.lastId());
+        assertEquals(2L, reopened.append(1L, 300L, TransactionType.CHARGE, 3L));
+        reopened.close();
+    }
+
+    @Test
+    void testRecoveryRebuildsBalancesAndHistoriesInMemory() {
+        // given
+        Path path = directory.resolve("point.journal");
+        PointJournal journal = new PointJournal(path, 4096);
+        journal.append(1L, 1000L, TransactionType.CHARGE, 1L);
+        journal.append(2L, 500L, TransactionType.CHARGE, 2L);
+        journal.append(1L, 300L, TransactionType.USE, 3L);
+        journal.close();
+
+        // when: 재시작 후 테이블을 거치지 않고 복구
+        PointJournal reopened = new PointJournal(path, 4096);
+        RecoveredPoints recovered = new PointJournalRecovery(reopened).recover();
+        reopened.close();
+
+        // then
+        assertEquals(700L, recovered.find(1L).point());
+        assertEquals(500L, recovered.find(2L).point());
+        assertNull(recovered.find(3L), "저널에 없는 유저는 모름");
+        List<PointHistory> histories = recovered.histories(1L);
+        assertEquals(2, histories.size());
+        assertEquals(TransactionType.USE, histories.get(1).type(), "유저별 순서 유지");
+        assertEquals(3L, histories.get(1).updateMillis());
+        assertEquals(3L, recovered.historyCount());
+    }
+
+    @Test
+    void testTransferIsRecoveredFromOneRecord() {
+        // given
+        Path path = directory.resolve("point.journal");
+        PointJournal journal = new PointJournal(path, 4096);
+        journal.append(1L, 1000L, TransactionType.CHARGE, 1L);
+        long transferId = journal.appendTransfer(1L, 2L, 400L, 2L);
+        journal.close();
+
+        // when
+        PointJournal reopened = new PointJournal(path, 4096);
+        RecoveredPoints recovered = new PointJournalRecovery(reopened).recover();
+        reopened.close();
+
+        // then: 레코드는 하나, 두 유저의 잔액과 이력은 함께 복구
+        assertEquals(2L, transferId);
+        assertEquals(600L, recovered.find(1L).point());
+        assertEquals(400L, recovered.find(2L).point());
+        assertEquals(new PointHistory(2L, 1L, 400L, TransactionType.USE, 2L), recovered.histories(1L).get(1));
+        assertEquals(new PointHistory(3L, 2L, 400L, TransactionType.CHARGE, 2L), recovered.histories(2L).get(0));
+    }
+
+    @Test
+    void testCancelledTransferIsNotRecovered() {
+        // given: 잔액을 저장하지 못해 되돌린 이체
+        Path path = directory.resolve("point.journal");
+        PointJournal journal = new PointJournal(path, 4096);
+        journal.append(1L, 1000L, TransactionType.CHARGE, 1L);
+        journal.appendTransfer(1L, 2L, 400L, 2L);
+        journal.appendTransferCancel(1L, 2L, 400L, 2L);
+        journal.close();
+
+        // when
+        PointJournal reopened = new PointJournal(path, 4096);
+        RecoveredPoints recovered = new PointJournalRecovery(reopened).recover();
+        reopened.close();
+
+        // then
+        assertEquals(1000L, recovered.find(1L).point());
+        assertEquals(0L, recovered.find(2L).point());
+        assertEquals(List.of(TransactionType.CHARGE),
+                recovered.histories(1L).stream().map(PointHistory::type).toList());
+        assertEquals(List.of(), recovered.histories(2L));
+    }
+
+    @Test
+    void testCancelledChargeAndUseAreNotRecovered() {
+        // given: 잔액을 저장하지 못해 취소한 충전/사용 (여러 건이면 나중 것부터 취소)
+        Path path = directory.resolve("point.journal");
+        PointJournal journal = new PointJournal(path, 4096);
+        journal.append(1L, 1000L, TransactionType.CHARGE, 1L);
+        journal.append(1L, 300L, TransactionType.USE, 2L);
+        journal.append(1L, 500L, TransactionType.CHARGE, 2L);
+        journal.appendCancel(1L, 500L, TransactionType.CHARGE, 2L);
+        journal.appendCancel(1L, 300L, TransactionType.USE, 2L);
+        journal.close();
+
+        // when
+        PointJournal reopened = new PointJournal(path, 4096);
+        RecoveredPoints recovered = new PointJournalRecovery(reopened).recover();
+        reopened.close();
+
+        // then
+        assertEquals(1000L, recovered.find(1L).point());
+        assertEquals(List.of(TransactionType.CHARGE),
+                recovered.histories(1L).stream().map(PointHistory::type).toList());
+    }
+
+    @Test
+    void testConcurrentAppendsShareForcesAndAllReturnDurable() throws InterruptedException {
+        // given
+        Path path = directory.resolve("point.journal");
+        PointJournal journal = new PointJournal(path, 4096);
+        int threads = 8;
+        int appendsPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // when
+        for (int t = 0; t < threads; t++) {
+            long userId = t + 1;
+            executor.submit(() -> {
+                try {
+                    for (int i = 0; i < appendsPerThread; i++) {
+                        journal.append(userId, 1L, TransactionType.CHARGE, i);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // then: 세그먼트를 여러 번 넘겨도 모든 레코드가 순서대로 남는다.
+        List<PointJournalRecord> records = new ArrayList<>();
+        journal.replay(records::add);
+        journal.close();
+        assertEquals(threads * appendsPerThread, records.size());
+        assertEquals(threads * appendsPerThread, records.get(records.size() - 1).id());
+    }
+
+    @Test
+    void testFailedBalanceStoreCancelsJournaledCharge() {
+        // given: 저널에는 남겼지만 잔액 저장이 실패하는 충전
+        Path path = directory.resolve("point.journal");
+        PointJournal journal = new PointJournal(path, 4096);
+        UserPointTable userPointTable = mock(UserPointTable.class);
+        when(userPointTable.selectById(1L)).thenReturn(new UserPoint(1L, 0L, 0L));
+        when(userPointTable.insertOrUpdate(1L, 100L)).thenThrow(new IllegalStateException("저장 실패"));
+        PointService pointService = newPointService(userPointTable, journal);
+
+        // when
+        assertThrows(IllegalStateException.class, () -> pointService.chargePoint(1L, 100L));
+        journal.close();
+
+        // then: 재시작하면 충전은 반영되지 않는다.
+        PointJournal reopened = new PointJournal(path, 4096);
+        List<PointJournalRecord> records = new ArrayList<>();
+        reopened.replay(records::add);
+        RecoveredPoints recovered = new PointJournalRecovery(reopened).recover();
+        reopened.close();
+        assertEquals(List.of(Kind.CHARGE, Kind.CHARGE_CANCEL), records.stream().map(PointJournalRecord::kind).toList());
+        assertEquals(0L, recovered.find(1L).point());
+        assertEquals(List.of(), recovered.histories(1L));
+    }
+
+    @Test
+    void testRecoveredHistoriesPrecedeTableHistories() {
+        // given
+        Path path = directory.resolve("point.journal");
+        PointJournal journal = new PointJournal(path, 4096);
+        journal.append(1L, 1000L, TransactionType.CHARGE, 1L);
+        journal.append(1L, 300L, TransactionType.USE, 2L);
+        journal.close();
+        PointJournal reopened = new PointJournal(path, 4096);
+        RecoveredPoints recovered = new PointJournalRecovery(reopened).recover();
+        reopened.close();
+
+        // when: 재시작한 테이블은 그대로 두고 id 를 1 부터 매긴다.
+        PointHistoryTable table = new PointHistoryTable();
+        PointHistory inserted = table.insert(1L, 200L, TransactionType.CHARGE, 3L);
+        PointHistoryIndex index = new PointHistoryIndex(
+                table, List.of(recovered), new PointMetrics(new SimpleMeterRegistry()));
+
+        // then: 테이블 id 는 복구한 이력 수만큼 밀려서 복구한 이력 뒤에 온다.
+        assertEquals(1L, inserted.id());
+        assertEquals(2L, recovered.lastId());
+        List<PointHistory> histories = index.findAll(1L);
+        assertEquals(List.of(1L, 2L, 3L), histories.stream().map(PointHistory::id).toList());
+        assertEquals(List.of(1000L, 300L, 200L), histories.stream().map(PointHistory::amount).toList());
+    }
+
+    @Test
+    void testRecoveredIdsKeepIncreasingAcrossRestarts() {
+        // given: 첫 재시작 후 테이블에 기록된 이력 (id 는 복구한 이력 뒤)
+        Path path = directory.resolve("point.journal");
+        PointJournal journal = new PointJournal(path, 4096);
+        journal.append(1L, 1000L, TransactionType.CHARGE, 1L);
+        journal.close();
+        PointJournal first = new PointJournal(path, 4096);
+        RecoveredPoints firstRecovered = new PointJournalRecovery(first).recover();
+        first.append(1L, 300L, TransactionType.USE, 2L);
+        long firstTableId = PointHistorySource.tableIdOffset(List.of(firstRecovered)) + 1;
+        first.close();
+
+        // when: 다시 재시작
+        PointJournal second = new PointJournal(path, 4096);
+        RecoveredPoints secondRecovered = new PointJournalRecovery(second).recover();
+        second.close();
+
+        // then: 이전 이력의 id 는 그대로고, 새 테이블 이력은 재시작 전의 어떤 id 보다도 뒤에 온다.
+        assertEquals(List.of(1L, 2L), secondRecovered.histories(1L).stream().map(PointHistory::id).toList());
+        assertTrue(PointHistorySource.tableIdOffset(List.of(secondRecovered)) + 1 > firstTableId);
+    }
+
+    @Test
+    void testUnknownFormatIsRejected() throws IOException {
+        // given: 헤더 없이 레코드부터 쓴 파일 (id 1 로 시작)
+        Path path = directory.resolve("point.journal");
+        Files.write(path, ByteBuffer.allocate(96).putLong(0, 1L).array());
+
+        // when & then: 잘라 내지 않고 열기를 거부한다.
+        assertThrows(IllegalStateException.class, () -> new PointJournal(path, 4096));
+        assertEquals(96L, Files.size(path));
+    }
+
+    private static PointService newPointService(UserPointTable userPointTable, PointJournal journal) {
+        PointMetrics metrics = new PointMetrics(new SimpleMeterRegistry());
+        PointProperties properties = new PointProperties();
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        PointHistoryIndex historyIndex = new PointHistoryIndex(pointHistoryTable, List.of(), metrics);
+        UserPointLockManager lockManager = new UserPointLockManager(metrics, properties);
+        PartitionedPointExecutor partitionExecutor = new PartitionedPointExecutor(1, Duration.ofSeconds(1));
+        return new PointService(
+                userPointTable,
+                new PointValidator(),
+                lockManager,
+                new SyncPointHistoryWriter(pointHistoryTable, List.of(historyIndex), metrics),
+                historyIndex,
+                new PointHistoryRollup(pointHistoryTable, List.of(), metrics, properties),
+                new UserPointCache(100, false),
+                List.of(),
+                new PointVersions(1_000),
+                List.of(),
+                Optional.of(journal),
+                new UserPointCombiner(lockManager),
+                partitionExecutor,
+                new BalanceLedger(partitionExecutor, 1_000, 1_000),
+                new IdempotencyStore(100, Duration.ofMinutes(1)),
+                Runnable::run,
+                Runnable::run,
+                metrics,
+                properties
+        );
+    }
+}
@@ -0,0 +1,186 @@
+package io.hhplus.tdd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.LoadHarness.Outcome;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.exception.InsufficientPointException;
+import io.hhplus.tdd.point.exception.PointOverloadedException;
+import io.hhplus.tdd.point.exception.PointTimeoutException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 부하 테스트 (기본 test 태스크에서는 빠지고 ./gradlew loadTest 로 실행)
+ * - 같은 부하를 서비스 직접 호출과 HTTP(PointController) 로 각각 보낸다.
+ * - 결과는 build/reports/load/{service,http}.json 에 남는다.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class PointLoadTest {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @Autowired
+    private PointService pointService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testServiceLoad() throws Exception {
+        // given
+        LoadHarness.Config config = LoadHarness.Config.fromSystemProperties(1L);
+
+        // when
+        LoadHarness.Report report = LoadHarness.run("service", config, new ServiceTarget());
+        LoadHarness.write(report);
+
+        // then
+        assertEquals(0L, report.count(Outcome.ERROR), "예상하지 못한 예외가 없어야 함");
+        assertTrue(report.balanceConsistent(), "잔액과 이력 합계가 달라진 유저: " + report.inconsistentUsers());
+    }
+
+    @Test
+    void testHttpLoad() throws Exception {
+        // given
+        LoadHarness.Config config = LoadHarness.Config.fromSystemProperties(1L);
+
+        // when
+        LoadHarness.Report report = LoadHarness.run("http", config, new HttpTarget());
+        LoadHarness.write(report);
+
+        // then
+        assertEquals(0L, report.count(Outcome.ERROR), "예상하지 못한 응답이 없어야 함");
+        assertTrue(report.balanceConsistent(), "잔액과 이력 합계가 달라진 유저: " + report.inconsistentUsers());
+    }
+
+    private static long historyTotal(List<PointHistory> histories) {
+        return histories.stream()
+                .mapToLong(history -> history.type() == TransactionType.CHARGE ? history.amount() : -history.amount())
+                .sum();
+    }
+
+    private class ServiceTarget implements LoadHarness.Target {
+
+        @Override
+        public Outcome charge(long userId, long amount) {
+            return call(() -> pointService.chargePoint(userId, amount));
+        }
+
+        @Override
+        public Outcome use(long userId, long amount) {
+            return call(() -> pointService.usePoint(userId, amount));
+        }
+
+        @Override
+        public long balance(long userId) {
+            return pointService.getUserPoint(userId).point();
+        }
+
+        @Override
+        public long historyTotal(long userId) {
+            return PointLoadTest.historyTotal(pointService.getPointHistory(userId));
+        }
+
+        private Outcome call(Runnable request) {
+            try {
+                request.run();
+                return Outcome.SUCCESS;
+            } catch (InsufficientPointException e) {
+                return Outcome.INSUFFICIENT;
+            } catch (PointTimeoutException e) {
+                return Outcome.TIMEOUT;
+            } catch (PointOverloadedException e) {
+                return Outcome.REJECTED;
+            }
+        }
+    }
+
+    /**
+     * 응답 상태로 결과를 나눈다. (400: 잔액 부족, 429: 거절, 503 또는 클라이언트 타임아웃: 타임아웃)
+     */
+    private class HttpTarget implements LoadHarness.Target {
+        private final HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        @Override
+        public Outcome charge(long userId, long amount) throws Exception {
+            return call(() -> patch(userId + "/charge", amount));
+        }
+
+        @Override
+        public Outcome use(long userId, long amount) throws Exception {
+            return call(() -> patch(userId + "/use", amount));
+        }
+
+        @Override
+        public long balance(long userId) throws Exception {
+            return objectMapper.readValue(get(String.valueOf(userId)), UserPoint.class).point();
+        }
+
+        @Override
+        public long historyTotal(long userId) throws Exception {
+            PointHistory[] histories = objectMapper.readValue(get(userId + "/histories"), PointHistory[].class);
+            return PointLoadTest.historyTotal(List.of(histories));
+        }
+
+        private Outcome call(Callable<Integer> request) throws Exception {
+            int status;
+            try {
+                status = request.call();
+            } catch (HttpTimeoutException e) {
+                return Outcome.TIMEOUT;
+            }
+            return switch (status) {
+                case 200 -> Outcome.SUCCESS;
+                case 400 -> Outcome.INSUFFICIENT;
+                case 429 -> Outcome.REJECTED;
+                case 503 -> Outcome.TIMEOUT;
+                default -> Outcome.ERROR;
+            };
+        }
+
+        private int patch(String path, long amount) throws Exception {
+            HttpRequest request = request(path)
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(String.valueOf(amount)))
+                    .build();
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        private String get(String path) throws Exception {
+            HttpResponse<String> response = client.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), response.body());
+            return response.body();
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/point/" + path))
+                    .timeout(REQUEST_TIMEOUT);
+        }
+    }
+}
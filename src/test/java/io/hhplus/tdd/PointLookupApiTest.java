@@ -0,0 +1,74 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 여러 유저의 포인트 조회 (GET /point?ids=, POST /point/lookup)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class PointLookupApiTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Autowired
+    private PointService pointService;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testLookupReturnsEachUserOnceInRequestOrder() throws Exception {
+        // given
+        pointService.chargePoint(1L, 100L);
+        pointService.chargePoint(2L, 200L);
+
+        // when
+        HttpResponse<String> response = post("/point/lookup", "[2, 1, 2]");
+
+        // then
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().matches("\\[\\{\"id\":2,\"point\":200,.*\\},\\{\"id\":1,\"point\":100,.*\\}\\]"),
+                "중복 없이 요청 순서대로: " + response.body());
+    }
+
+    @Test
+    void testInvalidIdsAreRejectedWith400() throws Exception {
+        // given
+        String tooMany = LongStream.rangeClosed(1, PointValidator.MAX_BATCH_SIZE + 1)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(",", "[", "]"));
+
+        // when
+        HttpResponse<String> nullId = post("/point/lookup", "[1, null]");
+        HttpResponse<String> overCap = post("/point/lookup", tooMany);
+
+        // then
+        assertEquals(400, nullId.statusCode());
+        assertTrue(nullId.body().contains("유효하지 않은 ID입니다."), nullId.body());
+        assertEquals(400, overCap.statusCode());
+        assertTrue(overCap.body().contains("일괄 처리 건수는"), overCap.body());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,73 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.exception.InsufficientPointException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "point.execution.mode=combining")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class PointServiceCombiningTest {
+
+    @Autowired
+    private PointService pointService;
+
+    @Test
+    void testConcurrentUsePointValidatesEachRequest() throws InterruptedException {
+        // given: 10건 중 5건만 사용할 수 있는 잔액
+        long userId = 1L;
+        int threadCount = 10;
+        long useAmount = 100L;
+        pointService.chargePoint(userId, useAmount * 5);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        List<UserPoint> results = Collections.synchronizedList(new ArrayList<>());
+        List<Exception> exceptions = Collections.synchronizedList(new ArrayList<>());
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    results.add(pointService.usePoint(userId, useAmount));
+                } catch (Exception e) {
+                    exceptions.add(e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(10, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        UserPoint finalPoint = pointService.getUserPoint(userId);
+        List<PointHistory> histories = pointService.getPointHistory(userId);
+
+        assertEquals(5, results.size(), "잔액만큼만 성공");
+        assertEquals(5, exceptions.size(), "나머지는 잔액 부족");
+        assertTrue(exceptions.stream().allMatch(e -> e instanceof InsufficientPointException));
+        assertEquals(0L, finalPoint.point(), "최종 포인트 확인");
+        assertEquals(6, histories.size(), "이력 개수 확인 (초기 충전 포함)");
+        assertEquals(
+                List.of(0L, 100L, 200L, 300L, 400L),
+                results.stream().map(UserPoint::point).sorted().toList(),
+                "요청마다 자신이 반영된 직후의 잔액을 받음"
+        );
+    }
+}
@@ -4,20 +4,36 @@ import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.database.UserPointTable;
 import io.hhplus.tdd.point.UserPoint;
 import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointProperties;
 import io.hhplus.tdd.point.PointService;
 import io.hhplus.tdd.point.TransactionType;
 import io.hhplus.tdd.point.PointValidator;
+import io.hhplus.tdd.point.PointVersions;
 import io.hhplus.tdd.point.UserPointLockManager;
+import io.hhplus.tdd.point.cache.UserPointCache;
 import io.hhplus.tdd.point.exception.InsufficientPointException;
+import io.hhplus.tdd.point.exception.InvalidPointRequestException;
+import io.hhplus.tdd.point.execution.PartitionedPointExecutor;
+import io.hhplus.tdd.point.execution.UserPointCombiner;
+import io.hhplus.tdd.point.history.PointHistoryIndex;
+import io.hhplus.tdd.point.history.PointHistoryRollup;
+import io.hhplus.tdd.point.history.SyncPointHistoryWriter;
+import io.hhplus.tdd.point.idempotency.IdempotencyStore;
+import io.hhplus.tdd.point.ledger.BalanceLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -38,9 +54,38 @@ class PointServiceTest {
 
     private PointService pointService;
 
+    // pointTaskExecutor 에 넘긴 작업 수
+    private final AtomicInteger taskExecutions = new AtomicInteger();
+
     @BeforeEach
     void setUp() {
-        pointService = new PointService(userPointTable, pointHistoryTable, validator, lockManager);
+        PointMetrics metrics = new PointMetrics(new SimpleMeterRegistry());
+        PointHistoryIndex historyIndex = new PointHistoryIndex(pointHistoryTable, List.of(), metrics);
+        PartitionedPointExecutor partitionExecutor = new PartitionedPointExecutor(1, Duration.ofSeconds(1));
+        pointService = new PointService(
+                userPointTable,
+                validator,
+                lockManager,
+                new SyncPointHistoryWriter(pointHistoryTable, List.of(historyIndex), metrics),
+                historyIndex,
+                new PointHistoryRollup(pointHistoryTable, List.of(), metrics, new PointProperties()),
+                new UserPointCache(100, false),
+                List.of(),
+                new PointVersions(1_000),
+                List.of(),
+                Optional.empty(),
+                new UserPointCombiner(lockManager),
+                partitionExecutor,
+                new BalanceLedger(partitionExecutor, 1_000, 1_000),
+                new IdempotencyStore(100, Duration.ofMinutes(1)),
+                command -> {
+                    taskExecutions.incrementAndGet();
+                    command.run();
+                },
+                Runnable::run,
+                metrics,
+                new PointProperties()
+        );
     }
 
     // 1. getUserPoint 테스트
@@ -48,11 +93,11 @@ class PointServiceTest {
     void testGetUserPointWithNegativeId() {
         // given
         long negativeId = -1L;
-        doThrow(new IllegalArgumentException("유효하지 않은 ID입니다."))
+        doThrow(new InvalidPointRequestException("유효하지 않은 ID입니다."))
                 .when(validator).validateId(negativeId);
 
         // when
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+        InvalidPointRequestException exception = assertThrows(InvalidPointRequestException.class, () -> {
             pointService.getUserPoint(negativeId);
         });
 
@@ -61,17 +106,55 @@ class PointServiceTest {
         verify(validator).validateId(negativeId);
     }
 
+    @Test
+    void testGetUserPointsReadsEachIdOnceInFirstSeenOrder() {
+        // given
+        when(userPointTable.selectById(anyLong())).thenAnswer(invocation -> {
+            long id = invocation.getArgument(0);
+            return new UserPoint(id, id * 100, 0L);
+        });
+
+        // when
+        List<UserPoint> points = pointService.getUserPoints(List.of(3L, 1L, 3L, 2L, 1L));
+
+        // then
+        assertEquals(List.of(3L, 1L, 2L), points.stream().map(UserPoint::id).toList(), "처음 나온 순서대로 한 번씩");
+        assertEquals(List.of(300L, 100L, 200L), points.stream().map(UserPoint::point).toList());
+        assertEquals(3, taskExecutions.get(), "유저마다 pointTaskExecutor 에서 조회");
+        verify(validator).validateIds(List.of(3L, 1L, 3L, 2L, 1L));
+        verify(userPointTable).selectById(3L);
+        verify(userPointTable).selectById(1L);
+        verify(userPointTable).selectById(2L);
+    }
+
+    @Test
+    void testGetUserPointsWithTooManyIds() {
+        // given
+        List<Long> ids = List.of(1L, 2L);
+        doThrow(new InvalidPointRequestException("일괄 처리 건수는 1 이상 1000 이하여야 합니다."))
+                .when(validator).validateIds(ids);
+
+        // when
+        InvalidPointRequestException exception = assertThrows(InvalidPointRequestException.class, () -> {
+            pointService.getUserPoints(ids);
+        });
+
+        // then
+        assertEquals("일괄 처리 건수는 1 이상 1000 이하여야 합니다.", exception.getMessage());
+        assertEquals(0, taskExecutions.get(), "검증에 실패하면 조회하지 않음");
+    }
+
     // 2. chargePoint 테스트들
     @Test
     void testChargePointWithInvalidId() {
         // given
         long invalidId = -1L;
         long amount = 1000L;
-        doThrow(new IllegalArgumentException("유효하지 않은 ID입니다."))
+        doThrow(new InvalidPointRequestException("유효하지 않은 ID입니다."))
                 .when(validator).validateId(invalidId);
 
         // when
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+        InvalidPointRequestException exception = assertThrows(InvalidPointRequestException.class, () -> {
             pointService.chargePoint(invalidId, amount);
         });
 
@@ -85,11 +168,11 @@ class PointServiceTest {
         // given
         long userId = 1L;
         long amount = 0L;
-        doThrow(new IllegalArgumentException("충전 포인트는 0보다 커야 합니다."))
+        doThrow(new InvalidPointRequestException("충전 포인트는 0보다 커야 합니다."))
                 .when(validator).validateChargeAmount(amount);
 
         // when
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+        InvalidPointRequestException exception = assertThrows(InvalidPointRequestException.class, () -> {
             pointService.chargePoint(userId, amount);
         });
 
@@ -103,11 +186,11 @@ class PointServiceTest {
         // given
         long userId = 1L;
         long amount = -1000L;
-        doThrow(new IllegalArgumentException("충전 포인트는 0보다 커야 합니다."))
+        doThrow(new InvalidPointRequestException("충전 포인트는 0보다 커야 합니다."))
                 .when(validator).validateChargeAmount(amount);
 
         // when
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+        InvalidPointRequestException exception = assertThrows(InvalidPointRequestException.class, () -> {
             pointService.chargePoint(userId, amount);
         });
 
@@ -122,11 +205,11 @@ class PointServiceTest {
         // given
         long invalidId = -1L;
         long amount = 1000L;
-        doThrow(new IllegalArgumentException("유효하지 않은 ID입니다."))
+        doThrow(new InvalidPointRequestException("유효하지 않은 ID입니다."))
                 .when(validator).validateId(invalidId);
 
         // when
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+        InvalidPointRequestException exception = assertThrows(InvalidPointRequestException.class, () -> {
             pointService.usePoint(invalidId, amount);
         });
 
@@ -140,11 +223,11 @@ class PointServiceTest {
         // given
         long userId = 1L;
         long amount = 0L;
-        doThrow(new IllegalArgumentException("사용 포인트는 0보다 커야 합니다."))
+        doThrow(new InvalidPointRequestException("사용 포인트는 0보다 커야 합니다."))
                 .when(validator).validateUseAmount(amount);
 
         // when
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+        InvalidPointRequestException exception = assertThrows(InvalidPointRequestException.class, () -> {
             pointService.usePoint(userId, amount);
         });
 
@@ -158,11 +241,11 @@ class PointServiceTest {
         // given
         long userId = 1L;
         long amount = -1000L;
-        doThrow(new IllegalArgumentException("사용 포인트는 0보다 커야 합니다."))
+        doThrow(new InvalidPointRequestException("사용 포인트는 0보다 커야 합니다."))
                 .when(validator).validateUseAmount(amount);
 
         // when
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+        InvalidPointRequestException exception = assertThrows(InvalidPointRequestException.class, () -> {
             pointService.usePoint(userId, amount);
         });
 
@@ -180,7 +263,7 @@ class PointServiceTest {
 
         UserPoint currentPoint = new UserPoint(userId, currentAmount, System.currentTimeMillis());
         when(userPointTable.selectById(userId)).thenReturn(currentPoint);
-        when(lockManager.tryLock(userId, 5, TimeUnit.SECONDS)).thenReturn(true);
+        when(lockManager.tryLock(eq(userId), anyLong(), eq(TimeUnit.NANOSECONDS))).thenReturn(true);
         doThrow(new InsufficientPointException())
                 .when(validator).validateBalance(currentAmount, useAmount);
 
@@ -192,7 +275,7 @@ class PointServiceTest {
         // then
         assertEquals("포인트가 부족합니다.", exception.getMessage());
         verify(validator).validateBalance(currentAmount, useAmount);
-        verify(lockManager).tryLock(userId, 5, TimeUnit.SECONDS);
+        verify(lockManager).tryLock(eq(userId), anyLong(), eq(TimeUnit.NANOSECONDS));
         verify(lockManager).unlock(userId);
     }
 
@@ -201,11 +284,11 @@ class PointServiceTest {
     void testGetPointHistoryWithInvalidId() {
         // given
         long invalidId = -1L;
-        doThrow(new IllegalArgumentException("유효하지 않은 ID입니다."))
+        doThrow(new InvalidPointRequestException("유효하지 않은 ID입니다."))
                 .when(validator).validateId(invalidId);
 
         // when
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+        InvalidPointRequestException exception = assertThrows(InvalidPointRequestException.class, () -> {
             pointService.getPointHistory(invalidId);
         });
 
@@ -247,4 +330,28 @@ class PointServiceTest {
         assertEquals(expectedHistories, histories);
         verify(pointHistoryTable).selectAllByUserId(userId);
     }
+
+    @Test
+    void testTransferKeepsOriginalFailureWhenRollbackFails() throws InterruptedException {
+        // given: 받는 쪽 저장이 실패하고, 보낸 쪽을 되돌리는 저장도 실패함
+        when(userPointTable.selectById(1L)).thenReturn(new UserPoint(1L, 1000L, 0L));
+        when(userPointTable.selectById(2L)).thenReturn(new UserPoint(2L, 0L, 0L));
+        when(lockManager.tryLock(anyLong(), anyLong(), eq(TimeUnit.NANOSECONDS))).thenReturn(true);
+        when(userPointTable.insertOrUpdate(1L, 900L)).thenReturn(new UserPoint(1L, 900L, 1L));
+        when(userPointTable.insertOrUpdate(2L, 100L)).thenThrow(new IllegalStateException("받는 쪽 저장 실패"));
+        when(userPointTable.insertOrUpdate(1L, 1000L)).thenThrow(new IllegalStateException("되돌리기 실패"));
+
+        // when
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> pointService.transfer(1L, 2L, 100L));
+
+        // then: 원래 예외에 되돌리기 실패가 붙고, 한쪽만 바뀐 잔액은 캐시에 보이지 않는다.
+        assertEquals("받는 쪽 저장 실패", exception.getMessage());
+        assertEquals(1, exception.getSuppressed().length);
+        assertEquals("되돌리기 실패", exception.getSuppressed()[0].getMessage());
+        assertEquals(1000L, pointService.getUserPoint(1L).point());
+        verify(pointHistoryTable, never()).insert(anyLong(), anyLong(), any(), anyLong());
+        verify(lockManager).unlock(1L);
+        verify(lockManager).unlock(2L);
+    }
 }
@@ -0,0 +1,99 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointTransferResult;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class PointTransferTest {
+
+    @Autowired
+    private PointService pointService;
+
+    @Autowired
+    @Qualifier("pointTaskExecutor")
+    private ExecutorService pointTaskExecutor;
+
+    @Test
+    void testConcurrentOppositeTransfersDoNotDeadlock() throws InterruptedException {
+        // given
+        long userA = 1L;
+        long userB = 2L;
+        int threadCount = 10;
+        long amount = 100L;
+        pointService.chargePoint(userA, 1000L);
+        pointService.chargePoint(userB, 1000L);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        List<Exception> exceptions = Collections.synchronizedList(new ArrayList<>());
+
+        // when: A -> B, B -> A 이체를 절반씩 동시에 실행
+        for (int i = 0; i < threadCount; i++) {
+            boolean fromA = i % 2 == 0;
+            executorService.submit(() -> {
+                try {
+                    pointService.transfer(fromA ? userA : userB, fromA ? userB : userA, amount);
+                } catch (Exception e) {
+                    exceptions.add(e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        // then
+        assertTrue(latch.await(30, TimeUnit.SECONDS), "교착 없이 모두 끝나야 함");
+        executorService.shutdown();
+        assertTrue(exceptions.isEmpty(), "모든 요청이 성공해야 함");
+        assertEquals(1000L, pointService.getUserPoint(userA).point());
+        assertEquals(1000L, pointService.getUserPoint(userB).point());
+        assertEquals(threadCount / 2 * 2 + 1, pointService.getPointHistory(userA).size(), "이체마다 이력 1건 (초기 충전 포함)");
+        assertEquals(threadCount / 2 * 2 + 1, pointService.getPointHistory(userB).size());
+    }
+
+    @Test
+    void testTransferDoesNotWaitForTaskExecutor() throws Exception {
+        // given: pointTaskExecutor 의 스레드가 모두 다른 작업에 묶여 있음
+        long fromId = 1L;
+        long toId = 2L;
+        pointService.chargePoint(fromId, 1000L);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 32; i++) {
+            pointTaskExecutor.submit(() -> {
+                release.await();
+                return null;
+            });
+        }
+
+        // when
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<PointTransferResult> transfer = caller.submit(() -> pointService.transfer(fromId, toId, 300L));
+
+            // then
+            assertEquals(700L, transfer.get(10, TimeUnit.SECONDS).from().point(), "이체는 pointTaskExecutor 를 기다리지 않아야 함");
+            assertEquals(300L, pointService.getUserPoint(toId).point());
+        } finally {
+            release.countDown();
+            caller.shutdown();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.cache.UserPointCache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPointCacheTest {
+
+    @Test
+    void testGetLoadsOnceThenHits() {
+        // given
+        UserPointCache cache = new UserPointCache(10, false);
+
+        // when
+        cache.get(1L, id -> new UserPoint(id, 100L, 0L));
+        UserPoint cached = cache.get(1L, id -> {
+            throw new AssertionError("캐시에 있으면 테이블을 조회하지 않아야 함");
+        });
+
+        // then
+        assertEquals(100L, cached.point());
+        assertEquals(1L, cache.stats().hits());
+        assertEquals(1L, cache.stats().misses());
+    }
+
+    @Test
+    void testLoadedValueIsDroppedWhenWrittenDuringLoad() {
+        // given
+        UserPointCache cache = new UserPointCache(10, false);
+
+        // when: 조회하는 동안 새 잔액이 기록됨
+        cache.get(1L, id -> {
+            cache.put(new UserPoint(id, 500L, 1L));
+            return new UserPoint(id, 100L, 0L);
+        });
+
+        // then
+        assertEquals(500L, cache.get(1L, id -> new UserPoint(id, 0L, 0L)).point());
+    }
+
+    @Test
+    void testKeepsAtMostMaxSizeAndReloadsEvictedUsers() {
+        // given: 세그먼트(64개)마다 2명까지
+        UserPointCache cache = new UserPointCache(128, false);
+
+        // when
+        for (long id = 1; id <= 1_000; id++) {
+            cache.put(new UserPoint(id, id * 10, 0L));
+        }
+
+        // then
+        UserPointCache.CacheStats stats = cache.stats();
+        assertTrue(stats.size() <= 128, "최대 크기를 넘지 않아야 함: " + stats.size());
+        assertEquals(1_000 - stats.size(), stats.evictions());
+        for (long id = 1; id <= 1_000; id++) {
+            long expected = id * 10;
+            assertEquals(expected, cache.get(id, userId -> new UserPoint(userId, expected, 0L)).point(),
+                    "남은 유저는 캐시에서, 지워진 유저는 다시 읽어 온 값");
+        }
+    }
+
+    @Test
+    void testOffHeapStoresSameValues() {
+        // given
+        UserPointCache cache = new UserPointCache(10, true);
+
+        // when
+        cache.put(new UserPoint(1L, 100L, 5L));
+
+        // then
+        assertEquals(new UserPoint(1L, 100L, 5L), cache.get(1L, id -> {
+            throw new AssertionError("캐시에 있으면 테이블을 조회하지 않아야 함");
+        }));
+    }
+}
@@ -0,0 +1,113 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.UserPointLockManager;
+import io.hhplus.tdd.point.execution.PendingMutation;
+import io.hhplus.tdd.point.execution.UserPointCombiner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPointCombinerTest {
+
+    @Test
+    void testWaitersDoNotCountTowardsLockQueueDepth() throws InterruptedException {
+        // given: 락 대기 최대 2명, 한 번 반영에 50ms
+        PointProperties properties = new PointProperties();
+        properties.getAdmission().setMaxQueueDepth(2);
+        UserPointLockManager lockManager = new UserPointLockManager(new PointMetrics(new SimpleMeterRegistry()), properties);
+        UserPointCombiner combiner = new UserPointCombiner(lockManager);
+        long[] balance = new long[1];
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        UserPointCombiner.BatchApplier applier = (userId, batch) -> {
+            sleep(50);
+            batchSizes.add(batch.size());
+            for (PendingMutation mutation : batch) {
+                balance[0] += mutation.amount();
+                mutation.complete(new UserPoint(userId, balance[0], 0));
+            }
+        };
+
+        int threadCount = 20;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        List<Exception> exceptions = Collections.synchronizedList(new ArrayList<>());
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    combiner.submit(1L, TransactionType.CHARGE, 100L, 5, TimeUnit.SECONDS, applier);
+                } catch (Exception e) {
+                    exceptions.add(e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executorService.shutdown();
+
+        // then
+        assertEquals(List.of(), exceptions, "leader 만 락을 잡으므로 대기 요청 수 제한에 걸리지 않음");
+        assertEquals(threadCount * 100L, balance[0]);
+        assertEquals(threadCount, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.size() < threadCount, "여러 요청이 한 번에 반영되어야 함: " + batchSizes);
+        assertEquals(0, lockManager.size());
+    }
+
+    @Test
+    void testTimedOutWaiterIsRemovedAndLeadershipIsHandedOff() throws Exception {
+        // given: 첫 leader 의 반영이 300ms 걸리는 동안 제한 시간 100ms 요청과 2s 요청이 기다림
+        UserPointLockManager lockManager = new UserPointLockManager(new PointMetrics(new SimpleMeterRegistry()), new PointProperties());
+        UserPointCombiner combiner = new UserPointCombiner(lockManager);
+        CountDownLatch leading = new CountDownLatch(1);
+        List<Long> applied = Collections.synchronizedList(new ArrayList<>());
+        UserPointCombiner.BatchApplier applier = (userId, batch) -> {
+            leading.countDown();
+            sleep(300);
+            for (PendingMutation mutation : batch) {
+                applied.add(mutation.amount());
+                mutation.complete(new UserPoint(userId, mutation.amount(), 0));
+            }
+        };
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+        // when
+        var first = executorService.submit(() -> combiner.submit(1L, TransactionType.CHARGE, 1L, 5, TimeUnit.SECONDS, applier));
+        assertTrue(leading.await(5, TimeUnit.SECONDS));
+        var timedOut = executorService.submit(() -> combiner.submit(1L, TransactionType.CHARGE, 2L, 100, TimeUnit.MILLISECONDS, applier));
+        var waiting = executorService.submit(() -> combiner.submit(1L, TransactionType.CHARGE, 3L, 2, TimeUnit.SECONDS, applier));
+
+        // then
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS).point());
+        Exception thrown = assertThrows(Exception.class, () -> timedOut.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, thrown.getCause());
+        assertEquals(3L, waiting.get(5, TimeUnit.SECONDS).point(), "leader 가 물러난 뒤 남은 요청이 leader 를 넘겨받아 처리");
+        assertEquals(List.of(1L, 3L), applied, "포기한 요청은 반영하지 않음");
+        executorService.shutdown();
+        assertEquals(0, lockManager.size());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
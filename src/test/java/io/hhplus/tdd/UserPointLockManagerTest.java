@@ -0,0 +1,370 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.HotUser;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.UserPointLockManager;
+import io.hhplus.tdd.point.exception.PointOverloadedException;
+import io.hhplus.tdd.point.exception.PointTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPointLockManagerTest {
+
+    @Test
+    void testIdleLockIsEvicted() throws InterruptedException {
+        // given
+        UserPointLockManager lockManager = new UserPointLockManager(new PointMetrics(new SimpleMeterRegistry()), new PointProperties());
+
+        // when
+        for (long userId = 1; userId <= 100; userId++) {
+            assertTrue(lockManager.tryLock(userId, 1, TimeUnit.SECONDS));
+            lockManager.unlock(userId);
+        }
+
+        // then
+        assertEquals(0, lockManager.size());
+        assertEquals(100L, lockManager.evictionCount());
+    }
+
+    @Test
+    void testLockIsKeptWhileAnotherThreadIsWaiting() throws InterruptedException {
+        // given
+        UserPointLockManager lockManager = new UserPointLockManager(new PointMetrics(new SimpleMeterRegistry()), new PointProperties());
+        assertTrue(lockManager.tryLock(1L, 1, TimeUnit.SECONDS));
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                if (lockManager.tryLock(1L, 5, TimeUnit.SECONDS)) {
+                    acquired.countDown();
+                    lockManager.unlock(1L);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        Thread.sleep(100);
+
+        // when: 첫 스레드가 락을 풀어도 기다리던 스레드가 같은 락을 이어받는다.
+        lockManager.unlock(1L);
+
+        // then
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(0, lockManager.size());
+    }
+
+    @Test
+    void testMutualExclusionWithEviction() throws InterruptedException {
+        // given
+        UserPointLockManager lockManager = new UserPointLockManager(new PointMetrics(new SimpleMeterRegistry()), new PointProperties());
+        int threadCount = 8;
+        int iterations = 2_000;
+        int[] counter = new int[1];
+        AtomicInteger failures = new AtomicInteger();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        // when: 락이 계속 제거되고 다시 만들어지는 상황에서 같은 유저로 증가
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    for (int j = 0; j < iterations; j++) {
+                        if (!lockManager.tryLock(1L, 5, TimeUnit.SECONDS)) {
+                            failures.incrementAndGet();
+                            continue;
+                        }
+                        try {
+                            counter[0]++;
+                        } finally {
+                            lockManager.unlock(1L);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(30, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertEquals(0, failures.get());
+        assertEquals(threadCount * iterations, counter[0]);
+        assertEquals(0, lockManager.size());
+    }
+
+    @Test
+    void testLockWaitAndTimeoutAreRecorded() throws InterruptedException {
+        // given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UserPointLockManager lockManager = new UserPointLockManager(new PointMetrics(registry), new PointProperties());
+        assertTrue(lockManager.tryLock(1L, 1, TimeUnit.SECONDS));
+
+        // when: 다른 스레드는 락을 얻지 못하고 타임아웃
+        Thread waiter = new Thread(() -> {
+            try {
+                lockManager.tryLock(1L, 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        waiter.join();
+        lockManager.unlock(1L);
+
+        // then
+        assertEquals(2L, registry.get("point.lock.wait").timer().count(), "성공과 실패 모두 대기 시간 기록");
+        assertEquals(1L, registry.get("point.lock.hold").timer().count(), "획득한 락만 점유 시간 기록");
+        assertEquals(1.0, registry.get("point.lock.timeouts").counter().count());
+        assertEquals(0, lockManager.size());
+    }
+
+    @Test
+    void testRejectsWithoutWaitingWhenQueueIsFull() throws InterruptedException {
+        // given: 1명이 잡고 1명이 기다리는 중 (최대 2)
+        PointProperties properties = new PointProperties();
+        properties.getAdmission().setMaxQueueDepth(2);
+        UserPointLockManager lockManager = new UserPointLockManager(new PointMetrics(new SimpleMeterRegistry()), properties);
+        assertTrue(lockManager.tryLock(1L, 1, TimeUnit.SECONDS));
+
+        CountDownLatch done = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                if (lockManager.tryLock(1L, 5, TimeUnit.SECONDS)) {
+                    lockManager.unlock(1L);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        });
+        waiter.start();
+        Thread.sleep(100);
+
+        // when
+        long startedAt = System.nanoTime();
+        AtomicReference<Exception> thrown = new AtomicReference<>();
+        Thread third = new Thread(() -> {
+            try {
+                lockManager.tryLock(1L, 5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                thrown.set(e);
+            }
+        });
+        third.start();
+        third.join();
+
+        // then
+        assertInstanceOf(PointOverloadedException.class, thrown.get());
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(1), "기다리지 않고 바로 거절");
+        assertTrue(lockManager.tryLock(1L, 1, TimeUnit.SECONDS), "락을 잡은 스레드의 재진입은 허용");
+        lockManager.unlock(1L);
+        lockManager.unlock(1L);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(0, lockManager.size());
+    }
+
+    @Test
+    void testRejectsEarlyWhenEstimatedWaitExceedsTimeout() throws InterruptedException {
+        // given: 평균 점유 시간 50ms (400ms 한 번, 가중치 1/8)
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UserPointLockManager lockManager = new UserPointLockManager(new PointMetrics(registry), new PointProperties());
+        assertTrue(lockManager.tryLock(1L, 1, TimeUnit.SECONDS));
+        Thread.sleep(400);
+        lockManager.unlock(1L);
+        assertTrue(lockManager.tryLock(1L, 1, TimeUnit.SECONDS));
+
+        // when: 남은 시간(20ms)이 예상 대기 시간(1명 × 50ms)보다 짧은 요청과 긴 요청(1s)
+        AtomicReference<Exception> thrown = new AtomicReference<>();
+        Thread rejected = new Thread(() -> {
+            try {
+                lockManager.tryLock(1L, 20, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                thrown.set(e);
+            }
+        });
+        rejected.start();
+        rejected.join();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                if (lockManager.tryLock(1L, 1, TimeUnit.SECONDS)) {
+                    acquired.countDown();
+                    lockManager.unlock(1L);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        Thread.sleep(50);
+        lockManager.unlock(1L);
+
+        // then
+        assertInstanceOf(PointTimeoutException.class, thrown.get());
+        assertEquals(1.0, registry.get("point.lock.early.rejections").counter().count(), "기다리지 않고 거절");
+        assertEquals(0.0, registry.get("point.lock.timeouts").counter().count());
+        assertTrue(acquired.await(5, TimeUnit.SECONDS), "남은 시간이 충분한 요청은 기다려서 락을 얻음");
+        waiter.join();
+        assertEquals(0, lockManager.size());
+    }
+
+    @Test
+    void testContendedUserBecomesHotAndCoolsDown() throws InterruptedException {
+        // given: 평균 대기 스레드 2명 이상이면 hot, 반감기 200ms
+        PointProperties properties = new PointProperties();
+        properties.getHotUser().setWaitersThreshold(2.0);
+        properties.getHotUser().setWaitThreshold(Duration.ofSeconds(10));
+        properties.getHotUser().setHalfLife(Duration.ofMillis(200));
+        UserPointLockManager lockManager = new UserPointLockManager(new PointMetrics(new SimpleMeterRegistry()), properties);
+        int threadCount = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        // when: 유저 1에는 8개 스레드가 몰리고, 유저 2는 한 스레드만 사용
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    for (int j = 0; j < 10; j++) {
+                        if (lockManager.tryLock(1L, 5, TimeUnit.SECONDS)) {
+                            Thread.sleep(5);
+                            lockManager.unlock(1L);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        for (int j = 0; j < 10; j++) {
+            assertTrue(lockManager.tryLock(2L, 1, TimeUnit.SECONDS));
+            lockManager.unlock(2L);
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executorService.shutdown();
+
+        // then
+        assertTrue(lockManager.isHot(1L));
+        assertFalse(lockManager.isHot(2L));
+        assertEquals(List.of(1L), lockManager.hotUsers(10).stream().map(HotUser::userId).toList());
+        assertEquals(1, lockManager.hotUserCount());
+
+        // 요청이 끊기면 평균이 줄어 해제된다.
+        Thread.sleep(1_500);
+        assertEquals(0, lockManager.hotUserCount());
+        assertFalse(lockManager.isHot(1L));
+        assertTrue(lockManager.hotUsers(10).isEmpty());
+    }
+
+    @Test
+    void testContentionIsTrackedOnlyForContendedUsersUpToMaxTracked() throws Exception {
+        // given: 최대 2명 추적
+        PointProperties properties = new PointProperties();
+        properties.getHotUser().setMaxTracked(2);
+        UserPointLockManager lockManager = new UserPointLockManager(new PointMetrics(new SimpleMeterRegistry()), properties);
+
+        // when: 1,000명이 경합 없이 락을 잡고, 3명은 다른 스레드가 잡고 있는 락을 기다림
+        for (long userId = 1; userId <= 1_000; userId++) {
+            assertTrue(lockManager.tryLock(userId, 1, TimeUnit.SECONDS));
+            lockManager.unlock(userId);
+        }
+        int uncontended = lockManager.contentionTrackedCount();
+        ExecutorService holder = Executors.newSingleThreadExecutor();
+        for (long userId = 2_001; userId <= 2_003; userId++) {
+            long id = userId;
+            assertTrue(holder.submit(() -> lockManager.tryLock(id, 1, TimeUnit.SECONDS)).get());
+            assertFalse(lockManager.tryLock(id, 10, TimeUnit.MILLISECONDS));
+            holder.submit(() -> lockManager.unlock(id)).get();
+        }
+        holder.shutdown();
+
+        // then
+        assertEquals(0, uncontended, "경합이 없던 유저는 추적하지 않음");
+        assertEquals(2, lockManager.contentionTrackedCount(), "maxTracked 를 넘지 않음");
+    }
+
+    @Test
+    void testReportsHeldLocksAndTopWaitingUsers() throws InterruptedException {
+        // given: 유저 1의 락을 잡은 채로 다른 스레드가 기다림, 유저 2는 경합 없음
+        UserPointLockManager lockManager = new UserPointLockManager(new PointMetrics(new SimpleMeterRegistry()), new PointProperties());
+        assertTrue(lockManager.tryLock(1L, 1, TimeUnit.SECONDS));
+        assertTrue(lockManager.tryLock(2L, 1, TimeUnit.SECONDS));
+        lockManager.unlock(2L);
+
+        Thread waiter = new Thread(() -> {
+            try {
+                if (lockManager.tryLock(1L, 5, TimeUnit.SECONDS)) {
+                    lockManager.unlock(1L);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        Thread.sleep(100);
+
+        // when
+        List<UserPointLockManager.HeldLock> heldLocks = lockManager.heldLocks(10);
+        lockManager.unlock(1L);
+        waiter.join();
+        List<UserPointLockManager.UserLockWait> topWaits = lockManager.topWaits(10);
+
+        // then
+        assertEquals(1, heldLocks.size());
+        UserPointLockManager.HeldLock held = heldLocks.get(0);
+        assertEquals(1L, held.userId());
+        assertEquals(Thread.currentThread().getName(), held.ownerThread());
+        assertEquals(1, held.queuedThreads());
+        assertTrue(held.holdMillis() >= 100);
+
+        assertEquals(1, topWaits.size(), "기다린 적 없는 유저는 집계하지 않음");
+        assertEquals(1L, topWaits.get(0).userId());
+        assertEquals(1L, topWaits.get(0).waits());
+        assertTrue(topWaits.get(0).totalWaitMillis() >= 100);
+        assertTrue(lockManager.heldLocks(10).isEmpty());
+    }
+
+    @Test
+    void testHeldLocksKeepsOnlyLongestHeldUpToLimit() throws InterruptedException {
+        // given: 유저 1 부터 5 까지 순서대로 잡아 먼저 잡은 락일수록 오래 잡혀 있다.
+        UserPointLockManager lockManager = new UserPointLockManager(new PointMetrics(new SimpleMeterRegistry()), new PointProperties());
+        for (long userId = 1; userId <= 5; userId++) {
+            assertTrue(lockManager.tryLock(userId, 1, TimeUnit.SECONDS));
+            Thread.sleep(20);
+        }
+
+        // when
+        List<UserPointLockManager.HeldLock> heldLocks = lockManager.heldLocks(2);
+        List<UserPointLockManager.HeldLock> none = lockManager.heldLocks(0);
+        for (long userId = 1; userId <= 5; userId++) {
+            lockManager.unlock(userId);
+        }
+
+        // then
+        assertEquals(List.of(1L, 2L), heldLocks.stream().map(UserPointLockManager.HeldLock::userId).toList());
+        assertTrue(none.isEmpty());
+    }
+}
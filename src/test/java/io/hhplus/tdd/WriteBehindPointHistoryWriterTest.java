@@ -0,0 +1,198 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.history.WriteBehindPointHistoryWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindPointHistoryWriterTest {
+
+    @Test
+    void testFlushWritesAllAppendedHistoriesInOrder() {
+        // given
+        PointHistoryTable table = new PointHistoryTable();
+        WriteBehindPointHistoryWriter writer = new WriteBehindPointHistoryWriter(table, List.of(), 1, 4, 2, Duration.ofSeconds(10), new PointMetrics(new SimpleMeterRegistry()));
+
+        // when: 대기열 크기보다 많은 이력을 넣는다. (넘친 이력은 호출 스레드에서 바로 기록)
+        for (long amount = 1; amount <= 6; amount++) {
+            writer.append(1L, amount, TransactionType.CHARGE, amount);
+        }
+        writer.append(2L, 100L, TransactionType.USE, 7L);
+        writer.flush();
+
+        // then
+        List<PointHistory> histories = table.selectAllByUserId(1L);
+        assertEquals(6, histories.size());
+        for (int i = 0; i < histories.size(); i++) {
+            assertEquals(i + 1, histories.get(i).amount(), "유저별 기록 순서 확인");
+        }
+        assertEquals(1, table.selectAllByUserId(2L).size());
+        writer.close();
+    }
+
+    @Test
+    void testCloseWritesRemainingHistories() {
+        // given
+        PointHistoryTable table = new PointHistoryTable();
+        WriteBehindPointHistoryWriter writer = new WriteBehindPointHistoryWriter(table, List.of(), 2, 10, 2, Duration.ofSeconds(10), new PointMetrics(new SimpleMeterRegistry()));
+        for (long amount = 1; amount <= 3; amount++) {
+            writer.append(1L, amount, TransactionType.CHARGE, amount);
+        }
+
+        // when
+        writer.close();
+
+        // then
+        assertEquals(3, table.selectAllByUserId(1L).size());
+        assertEquals(0, writer.pendingCount());
+    }
+
+    @Test
+    void testFlushWaitsOnlyForThatUsersHistories() throws Exception {
+        // given: 유저 2 의 이력은 기록 중에 멈춰 있다. (워커 2개, 유저 1 과 2 는 다른 워커)
+        PointHistoryTable table = new PointHistoryTable();
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindPointHistoryWriter writer = new WriteBehindPointHistoryWriter(table, List.of(history -> {
+            if (history.userId() == 2L) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }), 2, 10, 2, Duration.ofSeconds(10), new PointMetrics(new SimpleMeterRegistry()));
+        writer.append(2L, 100L, TransactionType.CHARGE, 1L);
+        writer.append(1L, 10L, TransactionType.CHARGE, 2L);
+
+        // when
+        CompletableFuture<Void> flushUser1 = CompletableFuture.runAsync(() -> writer.flush(1L));
+        CompletableFuture<Void> flushUser2 = CompletableFuture.runAsync(() -> writer.flush(2L));
+
+        // then
+        flushUser1.get(5, TimeUnit.SECONDS);
+        assertEquals(1, table.selectAllByUserId(1L).size());
+        assertFalse(flushUser2.isDone(), "유저 2 의 이력은 아직 기록 중이어야 함");
+        release.countDown();
+        flushUser2.get(5, TimeUnit.SECONDS);
+        writer.close();
+    }
+
+    @Test
+    void testOverflowTakesOverQueuedHistoriesWithoutWaitingForOtherUsers() throws Exception {
+        // given: 워커 1개가 유저 2 의 이력을 기록하다 멈춰 있고, 유저 1 의 이력 2건이 대기열(크기 2)을 채웠다.
+        PointHistoryTable table = new PointHistoryTable();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindPointHistoryWriter writer = new WriteBehindPointHistoryWriter(table, List.of(history -> {
+            if (history.userId() == 2L) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }), 1, 2, 10, Duration.ofSeconds(10), new PointMetrics(new SimpleMeterRegistry()));
+        writer.append(2L, 100L, TransactionType.CHARGE, 1L);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        writer.append(1L, 1L, TransactionType.CHARGE, 2L);
+        writer.append(1L, 2L, TransactionType.CHARGE, 3L);
+
+        // when: 넘친 이력은 호출 스레드가 유저 1 의 앞선 이력을 넘겨받아 함께 기록한다.
+        CompletableFuture<Void> overflow = CompletableFuture.runAsync(() -> writer.append(1L, 3L, TransactionType.CHARGE, 4L));
+
+        // then: 유저 2 의 기록을 기다리지 않는다.
+        overflow.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(1L, 2L, 3L), table.selectAllByUserId(1L).stream().map(PointHistory::amount).toList());
+        assertEquals(1, writer.pendingCount(), "유저 2 의 이력만 남아 있어야 함");
+        release.countDown();
+        writer.flush();
+        assertEquals(0, writer.pendingCount());
+        writer.close();
+    }
+
+    @Test
+    void testTableInsertsAreNeverConcurrentAcrossStripes() throws Exception {
+        // given: insert 가 겹치면 표시하는 테이블 (워커 4개, 넘친 이력은 호출 스레드에서 바로 기록)
+        AtomicInteger inside = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        PointHistoryTable table = new PointHistoryTable() {
+            private long cursor = 1;
+
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (inside.incrementAndGet() > 1) {
+                    overlapped.set(true);
+                }
+                try {
+                    Thread.yield();
+                    return new PointHistory(cursor++, userId, amount, type, updateMillis);
+                } finally {
+                    inside.decrementAndGet();
+                }
+            }
+        };
+        WriteBehindPointHistoryWriter writer = new WriteBehindPointHistoryWriter(table, List.of(), 4, 8, 2, Duration.ofSeconds(10), new PointMetrics(new SimpleMeterRegistry()));
+
+        // when
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        for (long userId = 1; userId <= 8; userId++) {
+            long id = userId;
+            executorService.submit(() -> {
+                for (long amount = 1; amount <= 200; amount++) {
+                    writer.append(id, amount, TransactionType.CHARGE, amount);
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+        writer.flush();
+        writer.close();
+
+        // then
+        assertFalse(overlapped.get(), "테이블 insert 는 한 번에 하나만 실행되어야 함");
+    }
+
+    @Test
+    void testFailedInsertIsRetriedAndCounted() {
+        // given: 처음 두 번은 실패하는 테이블
+        AtomicInteger attempts = new AtomicInteger();
+        PointHistoryTable table = new PointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (attempts.incrementAndGet() <= 2) {
+                    throw new IllegalStateException("일시적인 실패");
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WriteBehindPointHistoryWriter writer = new WriteBehindPointHistoryWriter(table, List.of(), 1, 4, 2, Duration.ofSeconds(10), new PointMetrics(registry));
+
+        // when
+        writer.append(1L, 100L, TransactionType.CHARGE, 1L);
+        writer.flush();
+
+        // then
+        assertEquals(1, table.selectAllByUserId(1L).size(), "실패한 이력도 다시 기록되어야 함");
+        assertEquals(2.0, registry.get("point.history.write.failures").tag("outcome", "retried").counter().count());
+        assertEquals(0, writer.failedCount());
+        writer.close();
+    }
+}